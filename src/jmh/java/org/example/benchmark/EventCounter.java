@@ -0,0 +1,22 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary JMH counter so replay-style benchmarks report events/sec in
+ * addition to replays/sec.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class EventCounter {
+    public long events;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        events = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.codec.NdjsonToBinaryConverter;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.processing.EventIngestionService;
+import org.example.processing.EventProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end replay of a synthetic events file: read, parse and process into
+ * a fresh quiet processor, per reader and parser mode. The BINARY reader
+ * replays the same events after conversion to the compact binary encoding,
+ * so the parser mode does not apply to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileReplayBenchmark {
+
+    @Param({"SEQUENTIAL", "MAPPED", "PARALLEL", "BINARY"})
+    public String reader;
+
+    @Param({"TREE", "STREAMING"})
+    public String parserMode;
+
+    @Param({"25000"})
+    public int orderCount;
+
+    @Param({"4"})
+    public int eventsPerOrder;
+
+    private Path file;
+    private EventIngestionService ingestionService;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("replay-benchmark", ".json");
+        SyntheticEventGenerator.withMix(orderCount, eventsPerOrder, "6:3:1", 42).writeTo(file);
+        ingestionService = new EventIngestionService(EventIngestionService.ParserMode.valueOf(parserMode));
+        if ("BINARY".equals(reader)) {
+            Path json = file;
+            file = Files.createTempFile("replay-benchmark", ".bin");
+            new NdjsonToBinaryConverter(ingestionService).convert(json, file);
+            Files.delete(json);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public EventProcessor replay(EventCounter counter) {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        String path = file.toString();
+        int events;
+        switch (reader) {
+            case "MAPPED":
+                events = ingestionService.readEventsFromFileMapped(path, processor::processEvent);
+                break;
+            case "PARALLEL":
+                events = ingestionService.readEventsFromFileParallel(path, processor::processEvent);
+                break;
+            case "BINARY":
+                events = ingestionService.readEventsFromFile(path, EventIngestionService.InputFormat.BINARY,
+                        processor::processEvent);
+                break;
+            default:
+                events = ingestionService.readEventsFromFile(path, processor::processEvent);
+                break;
+        }
+        counter.events += events;
+        return processor;
+    }
+}
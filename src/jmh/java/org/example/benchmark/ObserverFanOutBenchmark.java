@@ -0,0 +1,100 @@
+package org.example.benchmark;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.observers.AlertObserver;
+import org.example.observers.AsyncObserver;
+import org.example.observers.LoggerObserver;
+import org.example.observers.ObserverSubscription;
+import org.example.observers.OrderObserver;
+import org.example.processing.EventProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of notifying observers as the number of observers grows, with
+ * observers called inline or through {@link AsyncObserver}. QUIET_LOGGING
+ * registers quiet Logger/Alert observers instead of counting observers.
+ * SUBSCRIBED registers counting observers that, like AlertObserver, only
+ * subscribe to cancellations and SHIPPED/CANCELLED status changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObserverFanOutBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int observerCount;
+
+    @Param({"SYNC", "ASYNC", "QUIET_LOGGING", "SUBSCRIBED"})
+    public String dispatch;
+
+    private List<Event> events;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        events = SyntheticEventGenerator.withMix(10_000, 4, "6:3:1", 42).events();
+    }
+
+    @Benchmark
+    public EventProcessor fanOut(EventCounter counter) throws InterruptedException {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        List<AsyncObserver> asyncObservers = new ArrayList<>();
+        for (int i = 0; i < observerCount; i++) {
+            if ("QUIET_LOGGING".equals(dispatch)) {
+                processor.addObserver(i % 2 == 0
+                        ? new LoggerObserver(DiagnosticSink.QUIET)
+                        : new AlertObserver(DiagnosticSink.QUIET));
+            } else if ("ASYNC".equals(dispatch)) {
+                asyncObservers.add(processor.addAsyncObserver(new ConsumingObserver(blackhole),
+                        AsyncObserver.OverflowPolicy.BLOCK, AsyncObserver.DEFAULT_CAPACITY));
+            } else if ("SUBSCRIBED".equals(dispatch)) {
+                processor.addObserver(new ConsumingObserver(blackhole), ObserverSubscription.ALL
+                        .withEventTypes("OrderCancelled")
+                        .withStatuses(EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED)));
+            } else {
+                processor.addObserver(new ConsumingObserver(blackhole));
+            }
+        }
+
+        for (Event event : events) {
+            processor.processEvent(event);
+        }
+        // Include delivery time so async dispatch is not measured as free
+        for (AsyncObserver asyncObserver : asyncObservers) {
+            asyncObserver.close();
+        }
+        counter.events += events.size();
+        return processor;
+    }
+
+    private static final class ConsumingObserver implements OrderObserver {
+        private final Blackhole blackhole;
+
+        ConsumingObserver(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+            blackhole.consume(newStatus);
+        }
+
+        @Override
+        public void onEventProcessed(Event event, Order order) {
+            blackhole.consume(event);
+        }
+    }
+}
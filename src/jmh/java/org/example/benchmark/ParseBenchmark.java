@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import org.example.events.Event;
+import org.example.processing.EventParser;
+import org.example.processing.StreamingEventParser;
+import org.example.processing.TreeEventParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of turning one JSON line into an Event, per parser mode and
+ * timestamp representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"TREE", "STREAMING"})
+    public String parserMode;
+
+    @Param({"6:3:1"})
+    public String mix;
+
+    @Param({"LOCAL_DATE_TIME", "EPOCH_MICROS"})
+    public String timestampMode;
+
+    private EventParser parser;
+    private byte[][] lines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        EventParser.TimestampMode mode = EventParser.TimestampMode.valueOf(timestampMode);
+        if ("STREAMING".equals(parserMode)) {
+            StreamingEventParser streaming = new StreamingEventParser();
+            streaming.setTimestampMode(mode);
+            parser = streaming;
+        } else {
+            TreeEventParser tree = new TreeEventParser();
+            tree.setTimestampMode(mode);
+            parser = tree;
+        }
+        List<String> json = SyntheticEventGenerator.withMix(2_500, 4, mix, 42).jsonLines();
+        lines = new byte[json.size()][];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = json.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public Event parseEvent() throws Exception {
+        byte[] line = lines[next];
+        next = next + 1 == lines.length ? 0 : next + 1;
+        return parser.parse(line, 0, line.length);
+    }
+}
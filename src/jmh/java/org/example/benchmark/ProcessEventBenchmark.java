@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+import org.example.metrics.Instrumentation;
+import org.example.processing.EventProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link EventProcessor#processEvent} in quiet mode, replaying
+ * a synthetic stream into a fresh processor each invocation. Run with
+ * {@code -prof gc} to see allocation per event. The {@code instrumented}
+ * parameter measures the overhead of recording latencies and counters;
+ * {@link #processBatches} replays the same stream in blocks of
+ * {@code batchSize} through {@link EventProcessor#processBatch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessEventBenchmark {
+
+    @Param({"1000", "100000"})
+    public int orderCount;
+
+    @Param({"4", "16"})
+    public int eventsPerOrder;
+
+    @Param({"6:3:1"})
+    public String mix;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    @Param({"1024"})
+    public int batchSize;
+
+    private List<Event> events;
+    private Instrumentation instrumentation;
+
+    @Setup
+    public void setUp() {
+        events = SyntheticEventGenerator.withMix(orderCount, eventsPerOrder, mix, 42).events();
+        instrumentation = instrumented ? new Instrumentation() : Instrumentation.DISABLED;
+    }
+
+    @Benchmark
+    public EventProcessor processEvents(EventCounter counter) {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setInstrumentation(instrumentation);
+        for (Event event : events) {
+            processor.processEvent(event);
+        }
+        counter.events += events.size();
+        return processor;
+    }
+
+    @Benchmark
+    public EventProcessor processBatches(EventCounter counter) {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setInstrumentation(instrumentation);
+        for (int from = 0; from < events.size(); from += batchSize) {
+            processor.processBatch(events.subList(from, Math.min(from + batchSize, events.size())));
+        }
+        counter.events += events.size();
+        return processor;
+    }
+}
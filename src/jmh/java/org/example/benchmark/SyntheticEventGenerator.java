@@ -0,0 +1,172 @@
+package org.example.benchmark;
+
+import org.example.domain.OrderItem;
+import org.example.events.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic event streams for benchmarks.
+ * 
+ * Every order starts with an OrderCreated event and then receives
+ * {@code eventsPerOrder - 1} follow-up events drawn from the configured
+ * payment/shipping/cancellation mix. Orders are interleaved round-robin, so
+ * the stream resembles many orders progressing concurrently rather than one
+ * order at a time.
+ */
+public class SyntheticEventGenerator {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final LocalDateTime START = LocalDateTime.of(2025, 7, 29, 10, 0);
+
+    private final int orderCount;
+    private final int eventsPerOrder;
+    private final int paymentWeight;
+    private final int shippingWeight;
+    private final int cancelWeight;
+    private final long seed;
+
+    /**
+     * @param orderCount     number of distinct orders
+     * @param eventsPerOrder events per order, including the OrderCreated event
+     * @param paymentWeight  relative weight of PaymentReceived follow-ups
+     * @param shippingWeight relative weight of ShippingScheduled follow-ups
+     * @param cancelWeight   relative weight of OrderCancelled follow-ups
+     * @param seed           random seed, so runs can be compared
+     */
+    public SyntheticEventGenerator(int orderCount, int eventsPerOrder,
+            int paymentWeight, int shippingWeight, int cancelWeight, long seed) {
+        if (orderCount <= 0 || eventsPerOrder <= 0) {
+            throw new IllegalArgumentException("orderCount and eventsPerOrder must be positive");
+        }
+        if (eventsPerOrder > 1 && paymentWeight + shippingWeight + cancelWeight <= 0) {
+            throw new IllegalArgumentException("At least one follow-up event weight must be positive");
+        }
+        this.orderCount = orderCount;
+        this.eventsPerOrder = eventsPerOrder;
+        this.paymentWeight = paymentWeight;
+        this.shippingWeight = shippingWeight;
+        this.cancelWeight = cancelWeight;
+        this.seed = seed;
+    }
+
+    /**
+     * Parses a mix given as "payment:shipping:cancel" weights, e.g. "6:3:1".
+     */
+    public static SyntheticEventGenerator withMix(int orderCount, int eventsPerOrder, String mix, long seed) {
+        String[] parts = mix.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Mix must be payment:shipping:cancel, got " + mix);
+        }
+        return new SyntheticEventGenerator(orderCount, eventsPerOrder,
+                Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), seed);
+    }
+
+    /**
+     * Generates the events as objects.
+     * 
+     * @return events in stream order
+     */
+    public List<Event> events() {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(orderCount * eventsPerOrder);
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 2), new OrderItem("P002", 1));
+        int sequence = 0;
+
+        for (int step = 0; step < eventsPerOrder; step++) {
+            for (int order = 0; order < orderCount; order++) {
+                String eventId = "e" + sequence;
+                String orderId = orderId(order);
+                LocalDateTime timestamp = START.plusSeconds(sequence++);
+                if (step == 0) {
+                    events.add(new OrderCreatedEvent(eventId, timestamp, orderId,
+                            String.format("CUST%05d", order % 10_000), items, 250.0));
+                    continue;
+                }
+
+                int pick = random.nextInt(paymentWeight + shippingWeight + cancelWeight);
+                if (pick < paymentWeight) {
+                    events.add(new PaymentReceivedEvent(eventId, timestamp, orderId,
+                            random.nextBoolean() ? 250.0 : 100.0));
+                } else if (pick < paymentWeight + shippingWeight) {
+                    events.add(new ShippingScheduledEvent(eventId, timestamp, orderId, timestamp.plusDays(1)));
+                } else {
+                    events.add(new OrderCancelledEvent(eventId, timestamp, orderId, "Customer requested cancellation"));
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Generates the events in the line-delimited JSON format read by
+     * {@code EventIngestionService}.
+     * 
+     * @return one JSON object per element, in stream order
+     */
+    public List<String> jsonLines() {
+        List<Event> events = events();
+        List<String> lines = new ArrayList<>(events.size());
+        for (Event event : events) {
+            lines.add(toJson(event));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the events as line-delimited JSON.
+     * 
+     * @param file the file to (over)write
+     */
+    public void writeTo(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : jsonLines()) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String orderId(int order) {
+        return String.format("ORD%07d", order);
+    }
+
+    static String toJson(Event event) {
+        String head = String.format("{\"eventId\": \"%s\", \"timestamp\": \"%s\", \"eventType\": \"%s\"",
+                event.getEventId(), event.getTimestamp().format(TIMESTAMP), event.getEventType());
+        if (event instanceof OrderCreatedEvent) {
+            OrderCreatedEvent created = (OrderCreatedEvent) event;
+            StringBuilder items = new StringBuilder();
+            for (OrderItem item : created.getItems()) {
+                if (items.length() > 0) {
+                    items.append(", ");
+                }
+                items.append(String.format("{\"itemId\": \"%s\", \"qty\": %d}", item.getItemId(), item.getQuantity()));
+            }
+            return String.format(Locale.ROOT, "%s, \"orderId\": \"%s\", \"customerId\": \"%s\", \"items\": [%s], \"totalAmount\": %.2f}",
+                    head, created.getOrderId(), created.getCustomerId(), items, created.getTotalAmount());
+        } else if (event instanceof PaymentReceivedEvent) {
+            PaymentReceivedEvent payment = (PaymentReceivedEvent) event;
+            return String.format(Locale.ROOT, "%s, \"orderId\": \"%s\", \"amountPaid\": %.2f}",
+                    head, payment.getOrderId(), payment.getAmountPaid());
+        } else if (event instanceof ShippingScheduledEvent) {
+            ShippingScheduledEvent shipping = (ShippingScheduledEvent) event;
+            return String.format("%s, \"orderId\": \"%s\", \"shippingDate\": \"%s\"}",
+                    head, shipping.getOrderId(), shipping.getShippingDate().format(TIMESTAMP));
+        } else {
+            OrderCancelledEvent cancelled = (OrderCancelledEvent) event;
+            return String.format("%s, \"orderId\": \"%s\", \"reason\": \"%s\"}",
+                    head, cancelled.getOrderId(), cancelled.getReason());
+        }
+    }
+}
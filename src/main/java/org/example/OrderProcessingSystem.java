@@ -3,19 +3,28 @@ package org.example;
 import org.example.events.Event;
 import org.example.observers.AlertObserver;
 import org.example.observers.LoggerObserver;
+import org.example.processing.EventFileTailer;
 import org.example.processing.EventIngestionService;
 import org.example.processing.EventProcessor;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Entry point for the order processing system. Initializes components, ingests
  * events, and processes them.
  */
 public class OrderProcessingSystem {
+    /** Longest a shutdown waits for the main thread to checkpoint, release the file and report. */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
 
     /**
-     * Main method to start the order processing system.
+     * Main method to start the order processing system. With
+     * {@code --follow [checkpointFile]} the events file is tailed until the
+     * process is stopped, resuming from the offset saved in the checkpoint
+     * file, {@code events.json.offset} in the working directory by default.
      * 
      * @param args command-line arguments
      */
@@ -30,27 +39,68 @@ public class OrderProcessingSystem {
         eventProcessor.addObserver(new LoggerObserver());
         eventProcessor.addObserver(new AlertObserver());
 
-        // Process events from file
+        // Stream events from file, processing each one as soon as it is parsed
         String eventsFile = "src/main/resources/events.json";
-        List<Event> events = ingestionService.readEventsFromFile(eventsFile);
-
-        System.out.printf("Loaded %d events from %s%n%n", events.size(), eventsFile);
-
-        // Process each event
-        for (Event event : events) {
-            System.out.printf("Processing event: %s%n", event.getEventId());
-            eventProcessor.processEvent(event);
-            System.out.println("=====");
+        long eventCount;
+        if (args.length > 0 && "--follow".equals(args[0])) {
+            Path checkpoint = Paths.get(args.length > 1 ? args[1] : "events.json.offset");
+            eventCount = follow(ingestionService, eventProcessor, Paths.get(eventsFile), checkpoint);
+        } else {
+            eventCount = ingestionService.readEventsFromFile(eventsFile, event -> process(eventProcessor, event));
         }
 
+        System.out.printf("%nProcessed %d events from %s%n", eventCount, eventsFile);
+
         // Display final order states
         System.out.println("\nFinal Order States");
-        eventProcessor.getOrders().values().forEach(order -> {
+        eventProcessor.forEachOrder(order -> {
             System.out.printf("Order: %s | Status: %s | Events: %d%n",
                     order.getOrderId(), order.getStatus(),
-                    order.getEventHistory().size());
+                    order.getEventCount());
         });
 
         System.out.println("\nProcessing Complete");
     }
+
+    private static void process(EventProcessor eventProcessor, Event event) {
+        System.out.printf("Processing event: %s%n", event.getEventId());
+        eventProcessor.processEvent(event);
+        System.out.println("=====");
+    }
+
+    /**
+     * Tails the events file on the calling thread until shutdown. The
+     * shutdown hook only asks the tailer to stop and then waits for this
+     * thread, which owns the checkpoint, to finish its last poll, close the
+     * file and print the final report.
+     */
+    private static long follow(EventIngestionService ingestionService, EventProcessor eventProcessor,
+            Path eventsFile, Path checkpoint) {
+        EventFileTailer tailer = new EventFileTailer(ingestionService, eventsFile, checkpoint,
+                event -> process(eventProcessor, event));
+        Thread following = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                tailer.stop();
+                following.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            } catch (IOException e) {
+                System.err.printf("Error stopping tailer for %s: %s%n", eventsFile, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        System.out.printf("Following %s, checkpointing to %s (Ctrl+C to stop)%n", eventsFile, checkpoint);
+        try {
+            // Every poll checkpoints before follow() checks for stop, so the checkpoint is current on return
+            tailer.follow();
+        } finally {
+            try {
+                tailer.close();
+            } catch (IOException e) {
+                System.err.printf("Error closing file %s: %s%n", eventsFile, e.getMessage());
+            }
+        }
+        return tailer.getEventCount();
+    }
 }
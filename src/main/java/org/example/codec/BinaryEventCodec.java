@@ -0,0 +1,176 @@
+package org.example.codec;
+
+import org.example.domain.OrderItem;
+import org.example.events.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the four event types.
+ * 
+ * An encoded event is a one-byte type tag, a varint payload length and the
+ * payload. The length lets readers skip event types they do not know. Within
+ * the payload, strings are length-prefixed UTF-8, timestamps are epoch
+ * milliseconds and amounts are whole cents where that is exact, all as
+ * varints. Each type carries a schema version that is written once in the
+ * header of a binary events file (see {@link BinaryEventWriter}), so the
+ * layout of a type can evolve without breaking old files.
+ */
+public final class BinaryEventCodec {
+    /** Version of the file framing: magic, header and record layout. */
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int ORDER_CREATED = 1;
+    public static final int PAYMENT_RECEIVED = 2;
+    public static final int SHIPPING_SCHEDULED = 3;
+    public static final int ORDER_CANCELLED = 4;
+
+    /** Current payload schema version of each type tag, indexed by tag. */
+    static final int[] SCHEMA_VERSIONS = {0, 1, 1, 1, 1};
+
+    private static final String[] TYPE_NAMES = {null, "OrderCreated", "PaymentReceived",
+            "ShippingScheduled", "OrderCancelled"};
+
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final BinaryOutput scratchOut = new BinaryOutput(scratch);
+
+    /**
+     * Returns the type tag for an event, or 0 if it cannot be encoded.
+     */
+    public static int tagOf(Event event) {
+        if (event instanceof OrderCreatedEvent) {
+            return ORDER_CREATED;
+        } else if (event instanceof PaymentReceivedEvent) {
+            return PAYMENT_RECEIVED;
+        } else if (event instanceof ShippingScheduledEvent) {
+            return SHIPPING_SCHEDULED;
+        } else if (event instanceof OrderCancelledEvent) {
+            return ORDER_CANCELLED;
+        }
+        return 0;
+    }
+
+    static int typeCount() {
+        return TYPE_NAMES.length - 1;
+    }
+
+    static String typeName(int tag) {
+        return TYPE_NAMES[tag];
+    }
+
+    /**
+     * Writes a framed event: tag, payload length, payload. Not thread-safe;
+     * the codec reuses a scratch buffer.
+     * 
+     * @param out   the destination
+     * @param event the event to encode
+     * @throws IllegalArgumentException if the event type cannot be encoded
+     */
+    public void writeEvent(BinaryOutput out, Event event) throws IOException {
+        int tag = tagOf(event);
+        if (tag == 0) {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getEventType());
+        }
+
+        scratch.reset();
+        writePayload(scratchOut, tag, event);
+        scratchOut.flush();
+
+        out.writeByte(tag);
+        out.writeVarLong(scratch.size());
+        byte[] payload = scratch.toByteArray();
+        out.writeBytes(payload, 0, payload.length);
+    }
+
+    /**
+     * Reads one framed event written with the current schema versions.
+     * 
+     * @param in the source
+     * @return the decoded event, or null if the type tag is unknown (the
+     *         payload is skipped)
+     */
+    public static Event readEvent(BinaryInput in) throws IOException {
+        return readEvent(in, SCHEMA_VERSIONS);
+    }
+
+    /**
+     * Reads one framed event, decoding each type with the given schema
+     * versions (as declared by a file header).
+     */
+    static Event readEvent(BinaryInput in, int[] schemaVersions) throws IOException {
+        int tag = in.readByte();
+        long length = in.readVarLong();
+        if (tag <= 0 || tag >= SCHEMA_VERSIONS.length || tag >= schemaVersions.length
+                || schemaVersions[tag] != SCHEMA_VERSIONS[tag]) {
+            in.skip(length);
+            return null;
+        }
+
+        String eventId = in.readString();
+        LocalDateTime timestamp = in.readTimestamp();
+        switch (tag) {
+            case ORDER_CREATED:
+                return new OrderCreatedEvent(eventId, timestamp, in.readString(), in.readString(),
+                        readItems(in), in.readAmount());
+            case PAYMENT_RECEIVED:
+                return new PaymentReceivedEvent(eventId, timestamp, in.readString(), in.readAmount());
+            case SHIPPING_SCHEDULED:
+                return new ShippingScheduledEvent(eventId, timestamp, in.readString(), in.readTimestamp());
+            default:
+                return new OrderCancelledEvent(eventId, timestamp, in.readString(), in.readString());
+        }
+    }
+
+    private static void writePayload(BinaryOutput out, int tag, Event event) throws IOException {
+        out.writeString(event.getEventId());
+        out.writeTimestamp(event.getTimestamp());
+        switch (tag) {
+            case ORDER_CREATED:
+                OrderCreatedEvent created = (OrderCreatedEvent) event;
+                out.writeString(created.getOrderId());
+                out.writeString(created.getCustomerId());
+                writeItems(out, created.getItems());
+                out.writeAmount(created.getTotalAmount());
+                break;
+            case PAYMENT_RECEIVED:
+                PaymentReceivedEvent payment = (PaymentReceivedEvent) event;
+                out.writeString(payment.getOrderId());
+                out.writeAmount(payment.getAmountPaid());
+                break;
+            case SHIPPING_SCHEDULED:
+                ShippingScheduledEvent shipping = (ShippingScheduledEvent) event;
+                out.writeString(shipping.getOrderId());
+                out.writeTimestamp(shipping.getShippingDate());
+                break;
+            default:
+                OrderCancelledEvent cancelled = (OrderCancelledEvent) event;
+                out.writeString(cancelled.getOrderId());
+                out.writeString(cancelled.getReason());
+                break;
+        }
+    }
+
+    /**
+     * Writes an item list as a varint count followed by (itemId, quantity) pairs.
+     */
+    public static void writeItems(BinaryOutput out, List<OrderItem> items) throws IOException {
+        out.writeVarLong(items.size());
+        for (OrderItem item : items) {
+            out.writeString(item.getItemId());
+            out.writeSignedVarLong(item.getQuantity());
+        }
+    }
+
+    public static List<OrderItem> readItems(BinaryInput in) throws IOException {
+        int count = in.readVarInt();
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new OrderItem(in.readString(), (int) in.readSignedVarLong()));
+        }
+        return items;
+    }
+}
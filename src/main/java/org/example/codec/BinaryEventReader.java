@@ -0,0 +1,93 @@
+package org.example.codec;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads a binary events file written by {@link BinaryEventWriter}, decoding
+ * records straight into Event objects with no text parsing.
+ * 
+ * The header's schema table is checked against the codec: records of types
+ * that are unknown, or whose schema version this build cannot decode, are
+ * skipped using their length prefix.
+ */
+public class BinaryEventReader {
+    private final DiagnosticSink diagnostics;
+
+    public BinaryEventReader() {
+        this(new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param diagnostics where unreadable files are reported
+     */
+    public BinaryEventReader(DiagnosticSink diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Reads every event in the file and hands it to the sink in file order.
+     * 
+     * @param filePath the path to the binary events file
+     * @param sink     receives each decoded event
+     * @return the number of events passed to the sink
+     */
+    public int readEvents(String filePath, Consumer<? super Event> sink) {
+        int count = 0;
+        try (BinaryInput in = new BinaryInput(Files.newInputStream(Paths.get(filePath)))) {
+            int[] schemaVersions = readHeader(in);
+            while (in.hasMore()) {
+                Event event = BinaryEventCodec.readEvent(in, schemaVersions);
+                if (event != null) {
+                    sink.accept(event);
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+                diagnostics.log(DiagnosticLevel.ERROR,
+                        String.format("Error reading file %s: %s", filePath, e.getMessage()));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Validates the file header and returns the declared schema version of
+     * each type tag.
+     */
+    private static int[] readHeader(BinaryInput in) throws IOException {
+        byte[] magic = new byte[BinaryEventWriter.MAGIC.length];
+        in.readFully(magic, 0, magic.length);
+        if (!Arrays.equals(magic, BinaryEventWriter.MAGIC)) {
+            throw new IOException("Not a binary events file");
+        }
+        int formatVersion = in.readVarInt();
+        if (formatVersion > BinaryEventCodec.FORMAT_VERSION) {
+            throw new IOException("Unsupported binary events format version " + formatVersion);
+        }
+
+        int typeCount = in.readVarInt();
+        int[] versions = new int[BinaryEventCodec.SCHEMA_VERSIONS.length];
+        for (int i = 0; i < typeCount; i++) {
+            int tag = in.readVarInt();
+            String name = in.readString();
+            int version = in.readVarInt();
+            if (name == null) {
+                throw new IOException("Schema table entry " + i + " has no type name");
+            }
+            if (tag < versions.length && name.equals(BinaryEventCodec.typeName(tag))) {
+                versions[tag] = version;
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.codec;
+
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a binary events file.
+ * 
+ * The file starts with the magic bytes {@code OPEV}, the format version and a
+ * schema table listing each type tag with its name and payload schema
+ * version, followed by one framed record per event as written by
+ * {@link BinaryEventCodec#writeEvent}.
+ */
+public class BinaryEventWriter implements AutoCloseable {
+    static final byte[] MAGIC = {'O', 'P', 'E', 'V'};
+
+    private final BinaryOutput out;
+    private final BinaryEventCodec codec;
+    private long count;
+
+    public BinaryEventWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    public BinaryEventWriter(OutputStream stream) throws IOException {
+        this.out = new BinaryOutput(stream);
+        this.codec = new BinaryEventCodec();
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        out.writeBytes(MAGIC, 0, MAGIC.length);
+        out.writeVarLong(BinaryEventCodec.FORMAT_VERSION);
+        out.writeVarLong(BinaryEventCodec.typeCount());
+        for (int tag = 1; tag <= BinaryEventCodec.typeCount(); tag++) {
+            out.writeVarLong(tag);
+            out.writeString(BinaryEventCodec.typeName(tag));
+            out.writeVarLong(BinaryEventCodec.SCHEMA_VERSIONS[tag]);
+        }
+    }
+
+    /**
+     * Appends an event to the file.
+     * 
+     * @param event the event to write
+     * @throws IllegalArgumentException if the event type cannot be encoded
+     */
+    public void write(Event event) throws IOException {
+        codec.writeEvent(out, event);
+        count++;
+    }
+
+    /**
+     * @return the number of events written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Buffered reader for the primitive encodings written by {@link BinaryOutput}.
+ * Reads straight from an internal byte array, so decoding does not go
+ * through a synchronized stream call per byte.
+ */
+public final class BinaryInput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    public BinaryInput(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Reads from a byte array without copying it.
+     */
+    public BinaryInput(byte[] bytes, int offset, int length) {
+        this.in = null;
+        this.buffer = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Returns whether at least one more byte can be read.
+     */
+    public boolean hasMore() throws IOException {
+        return position < limit || fill();
+    }
+
+    public int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == limit && !fill()) {
+                throw new EOFException();
+            }
+            int chunk = Math.min(length, limit - position);
+            System.arraycopy(buffer, position, bytes, offset, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    public void skip(long length) throws IOException {
+        while (length > 0) {
+            if (position == limit && !fill()) {
+                throw new EOFException();
+            }
+            int chunk = (int) Math.min(length, limit - position);
+            position += chunk;
+            length -= chunk;
+        }
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of int range: " + Long.toUnsignedString(value));
+        }
+        return (int) value;
+    }
+
+    public long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    public String readString() throws IOException {
+        long encoded = readVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        int length = (int) (encoded - 1);
+        if (limit - position >= length) {
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        readFully(bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public LocalDateTime readTimestamp() throws IOException {
+        long epochMillis = readSignedVarLong();
+        int nanoOfMilli = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                Math.floorMod(epochMillis, 1000) * 1_000_000 + nanoOfMilli, ZoneOffset.UTC);
+    }
+
+    public double readAmount() throws IOException {
+        long raw = readVarLong();
+        if ((raw & 1) != 0) {
+            return Double.longBitsToDouble(readLong());
+        }
+        long zigzag = raw >>> 1;
+        long cents = (zigzag >>> 1) ^ -(zigzag & 1);
+        return cents / 100.0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
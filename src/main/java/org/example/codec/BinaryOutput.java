@@ -0,0 +1,133 @@
+package org.example.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Buffered writer for the primitive encodings used by {@link BinaryEventCodec}:
+ * LEB128 varints, zigzag-encoded signed values, length-prefixed UTF-8
+ * strings, epoch-millisecond timestamps and cent-exact amounts.
+ */
+public final class BinaryOutput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryOutput(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes an unsigned varint: seven bits per byte, high bit set on all but
+     * the last byte.
+     */
+    public void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /**
+     * Writes a signed value as a zigzag varint, so small negative numbers stay
+     * short.
+     */
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Writes a nullable string as varint (length + 1) followed by its UTF-8
+     * bytes; 0 encodes null.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes a timestamp as zigzag epoch milliseconds (UTC) followed by the
+     * remaining nanoseconds within the millisecond, which is a single zero
+     * byte for millisecond-precision values.
+     */
+    public void writeTimestamp(LocalDateTime timestamp) throws IOException {
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        int nano = timestamp.getNano();
+        writeSignedVarLong(epochSecond * 1000 + nano / 1_000_000);
+        writeVarLong(nano % 1_000_000);
+    }
+
+    /**
+     * Writes a monetary amount. Values that round-trip through a whole number of cents are
+     * written as a zigzag varint of cents shifted left by one; anything else
+     * is flagged with a 1 and written as raw IEEE 754 bits.
+     */
+    public void writeAmount(double amount) throws IOException {
+        long cents = Math.round(amount * 100);
+        // Only take the short form when decoding cents / 100.0 gives back the exact value
+        if (cents / 100.0 == amount && Math.abs(cents) < (1L << 60)) {
+            writeVarLong(((cents << 1) ^ (cents >> 63)) << 1);
+        } else {
+            writeVarLong(1);
+            writeLong(Double.doubleToRawLongBits(amount));
+        }
+    }
+
+    /**
+     * Writes buffered bytes to the underlying stream and flushes it.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.codec;
+
+import org.example.processing.EventIngestionService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts a line-delimited JSON events file into the binary events format.
+ * 
+ * Usage: {@code NdjsonToBinaryConverter <events.json> <events.bin>}
+ */
+public class NdjsonToBinaryConverter {
+    private final EventIngestionService ingestionService;
+
+    public NdjsonToBinaryConverter(EventIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    /**
+     * Parses the JSON file and writes every valid event to the binary file.
+     * Lines that fail to parse are reported and skipped, as when reading.
+     * 
+     * @param jsonFile   the source NDJSON file
+     * @param binaryFile the binary file to (over)write
+     * @return the number of events converted
+     */
+    public long convert(Path jsonFile, Path binaryFile) throws IOException {
+        try (BinaryEventWriter writer = new BinaryEventWriter(binaryFile)) {
+            ingestionService.readEventsFromFile(jsonFile.toString(), event -> {
+                try {
+                    writer.write(event);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return writer.getCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: NdjsonToBinaryConverter <events.json> <events.bin>");
+            System.exit(1);
+        }
+        long count = new NdjsonToBinaryConverter(new EventIngestionService(EventIngestionService.ParserMode.STREAMING))
+                .convert(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.printf("Converted %d events from %s to %s%n", count, args[0], args[1]);
+    }
+}
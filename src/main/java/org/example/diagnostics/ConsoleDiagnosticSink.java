@@ -0,0 +1,52 @@
+package org.example.diagnostics;
+
+import java.io.PrintStream;
+
+/**
+ * Sink that writes messages at or above a threshold level to the console:
+ * ERROR messages go to standard error, everything else to standard output.
+ */
+public class ConsoleDiagnosticSink implements DiagnosticSink {
+    private final DiagnosticLevel threshold;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ConsoleDiagnosticSink() {
+        this(DiagnosticLevel.INFO);
+    }
+
+    public ConsoleDiagnosticSink(DiagnosticLevel threshold) {
+        this(threshold, null, null);
+    }
+
+    /**
+     * Creates a sink writing to fixed streams instead of the current
+     * {@code System.out} and {@code System.err}.
+     * 
+     * @param threshold the least severe level that is written
+     * @param out       stream for non-error messages, or null for System.out
+     * @param err       stream for error messages, or null for System.err
+     */
+    public ConsoleDiagnosticSink(DiagnosticLevel threshold, PrintStream out, PrintStream err) {
+        this.threshold = threshold;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public boolean isEnabled(DiagnosticLevel level) {
+        return level.compareTo(threshold) >= 0 && level != DiagnosticLevel.OFF;
+    }
+
+    @Override
+    public void log(DiagnosticLevel level, String message) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        // Resolve System.out/err per call so redirected streams are honoured
+        PrintStream stream = level == DiagnosticLevel.ERROR
+                ? (err != null ? err : System.err)
+                : (out != null ? out : System.out);
+        stream.println(message);
+    }
+}
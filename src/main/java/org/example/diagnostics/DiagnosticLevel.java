@@ -0,0 +1,13 @@
+package org.example.diagnostics;
+
+/**
+ * Severity of a diagnostic message, from most to least verbose.
+ */
+public enum DiagnosticLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    /** Threshold that disables every message. */
+    OFF
+}
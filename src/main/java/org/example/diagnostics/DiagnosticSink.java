@@ -0,0 +1,55 @@
+package org.example.diagnostics;
+
+import java.util.function.Supplier;
+
+/**
+ * Destination for diagnostic messages produced while ingesting and processing
+ * events.
+ * 
+ * Hot paths check {@link #isEnabled} before building a message, so a disabled
+ * level costs a single comparison and no formatting or allocation.
+ */
+public interface DiagnosticSink {
+
+    /**
+     * Sink that discards everything; use it to run the processing path quietly.
+     */
+    DiagnosticSink QUIET = new DiagnosticSink() {
+        @Override
+        public boolean isEnabled(DiagnosticLevel level) {
+            return false;
+        }
+
+        @Override
+        public void log(DiagnosticLevel level, String message) {
+        }
+    };
+
+    /**
+     * Returns whether messages at the given level are recorded.
+     * 
+     * @param level the level to check
+     * @return true if a message at that level would be written
+     */
+    boolean isEnabled(DiagnosticLevel level);
+
+    /**
+     * Writes an already built message.
+     * 
+     * @param level   the message level
+     * @param message the message text, without a trailing newline
+     */
+    void log(DiagnosticLevel level, String message);
+
+    /**
+     * Builds and writes a message only if its level is enabled.
+     * 
+     * @param level   the message level
+     * @param message supplies the message text on demand
+     */
+    default void log(DiagnosticLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(level, message.get());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every recorded event.
+ */
+class AllEventsHistory extends EventHistory {
+    private final List<Event> events = new ArrayList<>();
+    private final List<OrderStatus> statuses = new ArrayList<>();
+
+    @Override
+    protected void retain(Event event, OrderStatus statusAfter) {
+        events.add(event);
+        statuses.add(statusAfter);
+    }
+
+    @Override
+    public int size() {
+        return events.size();
+    }
+
+    @Override
+    public List<Event> toList() {
+        return new ArrayList<>(events);
+    }
+
+    @Override
+    public List<OrderStatus> getStatusesAfter() {
+        return new ArrayList<>(statuses);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Event> action) {
+        for (int i = 0; i < events.size(); i++) {
+            action.accept(events.get(i));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The events recorded against one order, as retained by a
+ * {@link HistoryRetention} policy. Every recorded event is counted, but a
+ * policy may keep only some of them or keep them elsewhere. Each retained
+ * event keeps the order's status after it, so a history can be rebuilt
+ * under another policy or restored from a snapshot without changing it.
+ */
+public abstract class EventHistory {
+    private int recordedCount;
+
+    /**
+     * Records an event applied to the order.
+     * 
+     * @param event       the event
+     * @param statusAfter the order's status once the event was applied
+     */
+    public final void record(Event event, OrderStatus statusAfter) {
+        recordedCount++;
+        retain(event, statusAfter);
+    }
+
+    /**
+     * Restores events recorded earlier, such as those saved in a snapshot.
+     * The events are retained under this history's policy as if recorded with
+     * the given statuses, but the recorded count is set rather than
+     * incremented, so events the earlier policy dropped are still counted.
+     * 
+     * @param recordedCount the number of events ever recorded
+     * @param events        the retained events, oldest first
+     * @param statusesAfter the order's status after each of the events
+     * @throws IllegalArgumentException if the lists differ in size or hold
+     *                                  more events than recordedCount
+     */
+    public final void restore(int recordedCount, List<Event> events, List<OrderStatus> statusesAfter) {
+        checkRestore(recordedCount, events.size(), statusesAfter.size());
+        for (int i = 0; i < events.size(); i++) {
+            retain(events.get(i), statusesAfter.get(i));
+        }
+        this.recordedCount = recordedCount;
+    }
+
+    /**
+     * Restores events that are already in this history's archive by their
+     * references, without loading or archiving them again.
+     * 
+     * @param recordedCount the number of events ever recorded
+     * @param references    references into {@link #getArchive()}, oldest first
+     * @param statusesAfter the order's status after each of the events
+     * @throws IllegalStateException    if this history does not use an archive
+     * @throws IllegalArgumentException if the lists differ in size or hold
+     *                                  more events than recordedCount
+     */
+    public final void restoreArchived(int recordedCount, long[] references, List<OrderStatus> statusesAfter) {
+        if (getArchive() == null) {
+            throw new IllegalStateException("History does not use an archive");
+        }
+        checkRestore(recordedCount, references.length, statusesAfter.size());
+        for (int i = 0; i < references.length; i++) {
+            retainArchived(references[i], statusesAfter.get(i));
+        }
+        this.recordedCount = recordedCount;
+    }
+
+    /**
+     * Takes over another history of the same order, as when the order moves
+     * to a different policy. Events already in this history's archive are
+     * adopted by reference.
+     */
+    final void adopt(EventHistory previous) {
+        HistoryArchive archive = previous.getArchive();
+        if (archive != null && archive == getArchive()) {
+            restoreArchived(previous.getRecordedCount(), previous.getArchiveReferences(),
+                    previous.getStatusesAfter());
+        } else {
+            restore(previous.getRecordedCount(), previous.toList(), previous.getStatusesAfter());
+        }
+    }
+
+    private static void checkRestore(int recordedCount, int events, int statuses) {
+        if (events != statuses || events > recordedCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot restore %d events with %d statuses as %d recorded", events, statuses, recordedCount));
+        }
+    }
+
+    /**
+     * Keeps, drops or spills a newly recorded event.
+     * 
+     * @param event       the event
+     * @param statusAfter the order's status once the event was applied
+     */
+    protected abstract void retain(Event event, OrderStatus statusAfter);
+
+    /**
+     * Keeps a reference to an event already in {@link #getArchive()}. Only
+     * called on histories that use an archive.
+     * 
+     * @param reference   the event's archive reference
+     * @param statusAfter the order's status once the event was applied
+     */
+    protected void retainArchived(long reference, OrderStatus statusAfter) {
+        throw new IllegalStateException("History does not use an archive");
+    }
+
+    /**
+     * @return the number of events ever recorded, retained or not
+     */
+    public int getRecordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * @return the number of events that would be returned by {@link #toList()}
+     */
+    public abstract int size();
+
+    /**
+     * Returns a copy of the retained events, oldest first.
+     * 
+     * @return the retained events
+     */
+    public abstract List<Event> toList();
+
+    /**
+     * Returns the order's status after each retained event, in the same
+     * order as {@link #toList()}.
+     * 
+     * @return the statuses
+     */
+    public abstract List<OrderStatus> getStatusesAfter();
+
+    /**
+     * @return the archive the retained events are stored in, or null if they
+     *         are held in memory
+     */
+    public HistoryArchive getArchive() {
+        return null;
+    }
+
+    /**
+     * Returns the archive references of the retained events, oldest first.
+     * 
+     * @return the references
+     * @throws IllegalStateException if this history does not use an archive
+     */
+    public long[] getArchiveReferences() {
+        throw new IllegalStateException("History does not use an archive");
+    }
+
+    /**
+     * Returns the smallest archive reference this history holds, without
+     * copying the references.
+     * 
+     * @return the oldest reference, or {@link Long#MAX_VALUE} if there is none
+     */
+    public long getOldestArchiveReference() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Visits the retained events, oldest first. In-memory histories do this
+     * without copying.
+     * 
+     * @param action called once per retained event
+     */
+    public void forEach(Consumer<? super Event> action) {
+        toList().forEach(action);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.List;
+
+/**
+ * Storage outside the heap for order history events, addressed by the
+ * reference returned when an event is archived.
+ * 
+ * @see HistoryRetention#spillTo(HistoryArchive)
+ */
+public interface HistoryArchive {
+
+    /**
+     * Stores an event, or returns the reference of a copy the archive already
+     * holds, such as its record in an event log.
+     * 
+     * @param event the event to archive
+     * @return a reference that can later be passed to {@link #load(long[], int)}
+     * @throws java.io.UncheckedIOException if the event cannot be stored
+     */
+    long archive(Event event);
+
+    /**
+     * Loads archived events.
+     * 
+     * @param references references returned by {@link #archive(Event)}, in
+     *                   ascending order
+     * @param count      how many of the references to load
+     * @return the events, in reference order
+     * @throws java.io.UncheckedIOException if the events cannot be read
+     */
+    List<Event> load(long[] references, int count);
+}
@@ -0,0 +1,56 @@
+package org.example.domain;
+
+/**
+ * Decides how much of each order's event history is kept in memory.
+ * <p>
+ * The event count of an order ({@link Order#getEventCount()}) always
+ * includes every recorded event. Only {@link Order#getEventHistory()}
+ * reflects the policy.
+ */
+public interface HistoryRetention {
+
+    /** Keeps every event in memory. This is the default. */
+    HistoryRetention KEEP_ALL = AllEventsHistory::new;
+
+    /**
+     * Creates the history for a new order.
+     * 
+     * @return an empty history that applies this policy
+     */
+    EventHistory newHistory();
+
+    /**
+     * Keeps only the most recent events of each order.
+     * 
+     * @param limit how many events to keep per order
+     * @return the policy
+     */
+    static HistoryRetention keepLast(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return () -> new LastEventsHistory(limit);
+    }
+
+    /**
+     * Keeps only events that changed the order's status, such as the first
+     * of several partial payments.
+     * 
+     * @return the policy
+     */
+    static HistoryRetention statusChangesOnly() {
+        return StatusChangeHistory::new;
+    }
+
+    /**
+     * Keeps just an archive reference for every event, a {@code long} per
+     * event, leaving the event itself in the archive. Reading the history
+     * loads it back from the archive.
+     * 
+     * @param archive where events are stored
+     * @return the policy
+     */
+    static HistoryRetention spillTo(HistoryArchive archive) {
+        return () -> new SpilledEventHistory(archive);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the most recent events in a fixed-size ring, overwriting the oldest.
+ */
+class LastEventsHistory extends EventHistory {
+    private final Event[] ring;
+    private final OrderStatus[] statuses;
+    private int next;
+    private int size;
+
+    LastEventsHistory(int limit) {
+        this.ring = new Event[limit];
+        this.statuses = new OrderStatus[limit];
+    }
+
+    @Override
+    protected void retain(Event event, OrderStatus statusAfter) {
+        ring[next] = event;
+        statuses[next] = statusAfter;
+        next = next + 1 == ring.length ? 0 : next + 1;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Event> toList() {
+        List<Event> events = new ArrayList<>(size);
+        int start = size < ring.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            events.add(ring[(start + i) % ring.length]);
+        }
+        return events;
+    }
+
+    @Override
+    public List<OrderStatus> getStatusesAfter() {
+        List<OrderStatus> result = new ArrayList<>(size);
+        int start = size < ring.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            result.add(statuses[(start + i) % ring.length]);
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Event> action) {
+        int start = size < ring.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            action.accept(ring[(start + i) % ring.length]);
+        }
+    }
+}
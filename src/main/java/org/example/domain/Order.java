@@ -2,7 +2,9 @@ package org.example.domain;
 
 import org.example.events.Event;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents a customer order, including items, status, and event history.
@@ -13,24 +15,66 @@ public class Order {
     private List<OrderItem> items;
     private double totalAmount;
     private OrderStatus status;
-    private final List<Event> eventHistory;
+    private EventHistory eventHistory;
+    private HistoryRetention historyRetention;
 
     public Order() {
         this.items = new ArrayList<>();
-        this.eventHistory = new ArrayList<>();
+        this.eventHistory = HistoryRetention.KEEP_ALL.newHistory();
+        this.historyRetention = HistoryRetention.KEEP_ALL;
         this.status = OrderStatus.PENDING;
     }
 
     public Order(String orderId, String customerId, List<OrderItem> items, double totalAmount) {
-        this();
+        this(orderId, customerId, items, totalAmount, HistoryRetention.KEEP_ALL);
+    }
+
+    /**
+     * Creates a pending order whose event history follows the given
+     * retention policy.
+     * 
+     * @param orderId     the order ID
+     * @param customerId  the customer ID
+     * @param items       the ordered items
+     * @param totalAmount the order total
+     * @param retention   how much event history to keep
+     */
+    public Order(String orderId, String customerId, List<OrderItem> items, double totalAmount,
+            HistoryRetention retention) {
         this.orderId = orderId;
         this.customerId = customerId;
         this.items = new ArrayList<>(items);
         this.totalAmount = totalAmount;
+        this.status = OrderStatus.PENDING;
+        this.eventHistory = retention.newHistory();
+        this.historyRetention = retention;
+    }
+
+    /**
+     * Creates an order that adopts the given item list and history instead
+     * of copying them, for order stores that keep those out of line and hand
+     * out a fresh {@code Order} view per lookup. Events added to the view's
+     * history land in the adopted history.
+     * 
+     * @param orderId      the order ID
+     * @param customerId   the customer ID
+     * @param items        the item list, adopted as-is
+     * @param totalAmount  the order total
+     * @param status       the current status
+     * @param eventHistory the history, adopted as-is
+     */
+    public Order(String orderId, String customerId, List<OrderItem> items, double totalAmount,
+            OrderStatus status, EventHistory eventHistory) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.items = items;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.eventHistory = eventHistory;
     }
 
     public void addEventToHistory(Event event) {
-        this.eventHistory.add(event);
+        this.eventHistory.record(event, status);
     }
 
     public String getOrderId() {
@@ -53,6 +97,15 @@ public class Order {
         return new ArrayList<>(items);
     }
 
+    /**
+     * Returns a read-only view of the items without copying them.
+     * 
+     * @return the order's items
+     */
+    public List<OrderItem> getItemsView() {
+        return Collections.unmodifiableList(items);
+    }
+
     public void setItems(List<OrderItem> items) {
         this.items = new ArrayList<>(items);
     }
@@ -73,8 +126,68 @@ public class Order {
         this.status = status;
     }
 
+    /**
+     * Returns a copy of the retained event history, oldest first. Depending
+     * on the retention policy this may be fewer events than
+     * {@link #getEventCount()}.
+     * 
+     * @return the retained events
+     */
     public List<Event> getEventHistory() {
-        return new ArrayList<>(eventHistory);
+        return eventHistory.toList();
+    }
+
+    /**
+     * Visits the retained event history, oldest first, without copying it.
+     * 
+     * @param action called once per retained event
+     */
+    public void forEachEvent(Consumer<? super Event> action) {
+        eventHistory.forEach(action);
+    }
+
+    /**
+     * Returns the number of events recorded against this order, whether or
+     * not the retention policy kept them, without copying the history.
+     * 
+     * @return the event count
+     */
+    public int getEventCount() {
+        return eventHistory.getRecordedCount();
+    }
+
+    /**
+     * Returns the history itself rather than a copy, for order stores.
+     * 
+     * @return the order's event history
+     */
+    public EventHistory getHistory() {
+        return eventHistory;
+    }
+
+    /**
+     * Returns the policy the history was created with.
+     * 
+     * @return the retention policy, or null for an order that adopted a
+     *         history created elsewhere
+     */
+    public HistoryRetention getHistoryRetention() {
+        return historyRetention;
+    }
+
+    /**
+     * Switches to a different retention policy. The currently retained events
+     * are restored under it with their original statuses and the event count
+     * is kept; events already in the new policy's archive are adopted by
+     * reference rather than archived again.
+     * 
+     * @param retention the new policy
+     */
+    public void setHistoryRetention(HistoryRetention retention) {
+        EventHistory history = retention.newHistory();
+        history.adopt(eventHistory);
+        this.eventHistory = history;
+        this.historyRetention = retention;
     }
 
     @Override
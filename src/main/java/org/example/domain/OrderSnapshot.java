@@ -0,0 +1,77 @@
+package org.example.domain;
+
+import java.util.List;
+
+/**
+ * Immutable point-in-time state of an order, safe to share with readers on
+ * other threads. The items list is a read-only view of a list the order
+ * never modifies in place, so building a snapshot copies nothing but the
+ * scalar fields.
+ */
+public final class OrderSnapshot {
+    private final String orderId;
+    private final String customerId;
+    private final List<OrderItem> items;
+    private final double totalAmount;
+    private final OrderStatus status;
+    private final int version;
+
+    private OrderSnapshot(String orderId, String customerId, List<OrderItem> items, double totalAmount,
+            OrderStatus status, int version) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.items = items;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.version = version;
+    }
+
+    /**
+     * Captures the current state of an order. Must be called on the thread
+     * that processes the order's events.
+     * 
+     * @param order the order
+     * @return its snapshot
+     */
+    public static OrderSnapshot of(Order order) {
+        return new OrderSnapshot(order.getOrderId(), order.getCustomerId(), order.getItemsView(),
+                order.getTotalAmount(), order.getStatus(), order.getEventCount());
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of events applied to the order when the snapshot
+     * was taken. It increases with every change, so a reader can tell
+     * whether a snapshot is newer than one it already has.
+     * 
+     * @return the snapshot version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderSnapshot{orderId='%s', customerId='%s', status=%s, totalAmount=%.2f, version=%d}",
+                orderId, customerId, status, totalAmount, version);
+    }
+}
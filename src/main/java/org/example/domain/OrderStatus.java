@@ -8,5 +8,16 @@ public enum OrderStatus {
     PAID,
     PARTIALLY_PAID,
     SHIPPED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Like {@link #valueOf(String)}, but passes null through.
+     * 
+     * @param name a status name, possibly null
+     * @return the status, or null if the name is null
+     * @throws IllegalArgumentException if there is no status with this name
+     */
+    public static OrderStatus fromName(String name) {
+        return name != null ? valueOf(name) : null;
+    }
 }
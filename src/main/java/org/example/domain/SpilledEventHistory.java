@@ -0,0 +1,67 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps only archive references and statuses; the events themselves live in
+ * a {@link HistoryArchive}.
+ */
+class SpilledEventHistory extends EventHistory {
+    private final HistoryArchive archive;
+    private long[] references = new long[2];
+    private OrderStatus[] statuses = new OrderStatus[2];
+    private int size;
+
+    SpilledEventHistory(HistoryArchive archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    protected void retain(Event event, OrderStatus statusAfter) {
+        retainArchived(archive.archive(event), statusAfter);
+    }
+
+    @Override
+    protected void retainArchived(long reference, OrderStatus statusAfter) {
+        if (size == references.length) {
+            references = Arrays.copyOf(references, size * 2);
+            statuses = Arrays.copyOf(statuses, size * 2);
+        }
+        references[size] = reference;
+        statuses[size++] = statusAfter;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Event> toList() {
+        return archive.load(references, size);
+    }
+
+    @Override
+    public List<OrderStatus> getStatusesAfter() {
+        return new ArrayList<>(Arrays.asList(statuses).subList(0, size));
+    }
+
+    @Override
+    public HistoryArchive getArchive() {
+        return archive;
+    }
+
+    @Override
+    public long[] getArchiveReferences() {
+        return Arrays.copyOf(references, size);
+    }
+
+    @Override
+    public long getOldestArchiveReference() {
+        return size > 0 ? references[0] : Long.MAX_VALUE;
+    }
+}
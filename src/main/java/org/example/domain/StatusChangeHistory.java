@@ -0,0 +1,48 @@
+package org.example.domain;
+
+import org.example.events.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the first event and every event after which the order's status
+ * differs from the status after the last kept event.
+ */
+class StatusChangeHistory extends EventHistory {
+    private final List<Event> events = new ArrayList<>(4);
+    private final List<OrderStatus> statuses = new ArrayList<>(4);
+    private OrderStatus lastStatus;
+
+    @Override
+    protected void retain(Event event, OrderStatus statusAfter) {
+        if (events.isEmpty() || statusAfter != lastStatus) {
+            events.add(event);
+            statuses.add(statusAfter);
+            lastStatus = statusAfter;
+        }
+    }
+
+    @Override
+    public int size() {
+        return events.size();
+    }
+
+    @Override
+    public List<Event> toList() {
+        return new ArrayList<>(events);
+    }
+
+    @Override
+    public List<OrderStatus> getStatusesAfter() {
+        return new ArrayList<>(statuses);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Event> action) {
+        for (int i = 0; i < events.size(); i++) {
+            action.accept(events.get(i));
+        }
+    }
+}
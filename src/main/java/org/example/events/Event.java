@@ -1,15 +1,35 @@
 package org.example.events;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract base class for all order-related events.
  * Contains common event fields: eventId, timestamp, and eventType.
+ * <p>
+ * The timestamp may instead be carried as microseconds since the epoch
+ * (see {@link #setEpochMicros(long)}), read as UTC; the {@code LocalDateTime}
+ * is then only created if {@link #getTimestamp()} is called.
  */
 public abstract class Event {
+    /** Returned by {@link #getEpochMicros()} for an event without a timestamp. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private static final AtomicInteger NEXT_TYPE_ORDINAL = new AtomicInteger();
+    private static final ClassValue<Integer> TYPE_ORDINALS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_TYPE_ORDINAL.getAndIncrement();
+        }
+    };
+
     protected String eventId;
     protected LocalDateTime timestamp;
     protected String eventType;
+    private long epochMicros = NO_TIMESTAMP;
+    private int typeOrdinal = -1;
 
     public Event() {
     }
@@ -29,11 +49,46 @@ public abstract class Event {
     }
 
     public LocalDateTime getTimestamp() {
+        if (timestamp == null && epochMicros != NO_TIMESTAMP) {
+            timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, MICROS_PER_SECOND),
+                    (int) Math.floorMod(epochMicros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+        }
         return timestamp;
     }
 
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
+        this.epochMicros = NO_TIMESTAMP;
+    }
+
+    /**
+     * @return the timestamp as microseconds since the epoch, reading it as
+     *         UTC, or {@link #NO_TIMESTAMP} if there is none
+     */
+    public long getEpochMicros() {
+        if (epochMicros != NO_TIMESTAMP) {
+            return epochMicros;
+        }
+        return timestamp != null ? toEpochMicros(timestamp) : NO_TIMESTAMP;
+    }
+
+    /**
+     * Carries the timestamp as microseconds since the epoch instead of a
+     * {@code LocalDateTime}, which is dropped.
+     * 
+     * @param epochMicros microseconds since 1970-01-01T00:00 UTC
+     */
+    public void setEpochMicros(long epochMicros) {
+        this.epochMicros = epochMicros;
+        this.timestamp = null;
+    }
+
+    /**
+     * @param timestamp a local date-time, read as UTC
+     * @return microseconds since the epoch, truncating sub-microsecond digits
+     */
+    public static long toEpochMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + timestamp.getNano() / 1000;
     }
 
     public String getEventType() {
@@ -44,9 +99,34 @@ public abstract class Event {
         this.eventType = eventType;
     }
 
+    /**
+     * Returns a small number identifying this event's class, assigned in
+     * order of first use and cached on the event, so that handlers can be
+     * looked up by array index instead of by type tests. Ordinals are only
+     * stable within one JVM run and must not be persisted.
+     * 
+     * @return the ordinal of this event's class
+     */
+    public final int typeOrdinal() {
+        int ordinal = typeOrdinal;
+        if (ordinal < 0) {
+            ordinal = TYPE_ORDINALS.get(getClass());
+            typeOrdinal = ordinal;
+        }
+        return ordinal;
+    }
+
+    /**
+     * @param type an event class
+     * @return the ordinal that events of that class report from {@link #typeOrdinal()}
+     */
+    public static int typeOrdinalOf(Class<? extends Event> type) {
+        return TYPE_ORDINALS.get(type);
+    }
+
     @Override
     public String toString() {
         return String.format("Event{eventId='%s', eventType='%s', timestamp=%s}",
-                eventId, eventType, timestamp);
+                eventId, eventType, getTimestamp());
     }
 }
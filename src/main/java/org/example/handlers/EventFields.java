@@ -0,0 +1,63 @@
+package org.example.handlers;
+
+import org.example.domain.OrderItem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read access to the fields of one JSON event, independent of how the
+ * parser scanned it.
+ */
+public interface EventFields {
+
+    /**
+     * @param name the field name
+     * @return the field's value as text
+     * @throws IOException if the field is missing
+     */
+    String getString(String name) throws IOException;
+
+    /**
+     * Reads an ID field such as an orderId or customerId. Repeated IDs are
+     * returned as one shared instance where the parser's dictionary still
+     * holds it.
+     * 
+     * @param name the field name
+     * @return the field's value as text
+     * @throws IOException if the field is missing
+     */
+    String getId(String name) throws IOException;
+
+    /**
+     * @param name the field name
+     * @return the field's numeric value
+     * @throws IOException if the field is missing or not a number
+     */
+    double getDouble(String name) throws IOException;
+
+    /**
+     * @param name the field name
+     * @return the field's ISO-8601 date-time value
+     * @throws IOException if the field is missing or not a date-time
+     */
+    LocalDateTime getDateTime(String name) throws IOException;
+
+    /**
+     * @param name the field name
+     * @return the field's ISO-8601 date-time value as microseconds since the
+     *         epoch, read as UTC
+     * @throws IOException if the field is missing or not a date-time
+     */
+    long getEpochMicros(String name) throws IOException;
+
+    /**
+     * @param name the field name
+     * @return the items of an array of {@code {"itemId":..,"qty":..}} objects,
+     *         with interned itemIds; a value that is not an array yields an
+     *         empty list
+     * @throws IOException if the field is missing or an item has no itemId
+     */
+    List<OrderItem> getItems(String name) throws IOException;
+}
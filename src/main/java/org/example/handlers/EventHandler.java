@@ -0,0 +1,70 @@
+package org.example.handlers;
+
+import org.example.domain.Order;
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Everything the system needs to know about one event type: how to parse it,
+ * which order it belongs to and how it changes that order. Adding an event
+ * type means writing an Event subclass and a handler, and registering the
+ * handler with an {@link EventHandlerRegistry}.
+ * <p>
+ * Handlers are stateless and shared between threads.
+ * 
+ * @param <E> the event class handled
+ */
+public interface EventHandler<E extends Event> {
+
+    /**
+     * @return the eventType value that identifies this type in JSON input
+     */
+    String getEventType();
+
+    /**
+     * @return the event class handled
+     */
+    Class<E> getEventClass();
+
+    /**
+     * Builds an event from its parsed JSON fields.
+     * 
+     * @param eventId   the event's ID
+     * @param timestamp the event's timestamp, or null if the parser carries
+     *                  timestamps as epoch micros, which it then sets on the
+     *                  returned event
+     * @param fields    the other fields of the JSON object
+     * @return the event
+     * @throws IOException if a required field is missing or malformed
+     */
+    E parse(String eventId, LocalDateTime timestamp, EventFields fields) throws IOException;
+
+    /**
+     * @param event the event
+     * @return the orderId the event applies to
+     */
+    String getOrderId(E event);
+
+    /**
+     * @return true if the event creates its order rather than changing an
+     *         existing one
+     */
+    default boolean createsOrder() {
+        return false;
+    }
+
+    /**
+     * Applies the event. Handlers that change an existing order modify it in
+     * place and return it; handlers that create an order return the new
+     * instance. The caller stores the result and notifies observers.
+     * 
+     * @param event   the event
+     * @param order   the event's order as currently stored, or null if none
+     * @param context processor settings and reporting
+     * @return the order after the event, or null if the event needs an
+     *         existing order and there is none
+     */
+    Order apply(E event, Order order, HandlerContext context);
+}
@@ -0,0 +1,109 @@
+package org.example.handlers;
+
+import org.example.events.Event;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Handlers keyed by eventType for parsing and by {@link Event#typeOrdinal()}
+ * for processing, so that dispatching an event is a single array index.
+ * <p>
+ * Lookups are lock-free and safe from any thread; registration is rare and
+ * copies the ordinal table. An event whose own class has no handler uses
+ * the handler of its nearest registered superclass.
+ */
+public class EventHandlerRegistry {
+    private static final EventHandlerRegistry DEFAULT = withDefaultHandlers();
+
+    private final Map<String, EventHandler<?>> byType = new ConcurrentHashMap<>();
+    private volatile EventHandler<?>[] byOrdinal = new EventHandler<?>[8];
+
+    /**
+     * Returns the registry shared by processors and parsers that are not
+     * given one. Handlers registered here are seen by all of them.
+     * 
+     * @return the shared registry
+     */
+    public static EventHandlerRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return a new registry holding the built-in order event handlers
+     */
+    public static EventHandlerRegistry withDefaultHandlers() {
+        EventHandlerRegistry registry = new EventHandlerRegistry();
+        registry.register(new OrderCreatedHandler());
+        registry.register(new PaymentReceivedHandler());
+        registry.register(new ShippingScheduledHandler());
+        registry.register(new OrderCancelledHandler());
+        return registry;
+    }
+
+    /**
+     * Adds a handler, replacing any handler for the same eventType or class.
+     * 
+     * @param handler the handler
+     */
+    public synchronized void register(EventHandler<?> handler) {
+        byType.put(handler.getEventType(), handler);
+        int ordinal = Event.typeOrdinalOf(handler.getEventClass());
+        EventHandler<?>[] table = Arrays.copyOf(byOrdinal, Math.max(byOrdinal.length, ordinal + 1));
+        table[ordinal] = handler;
+        byOrdinal = table;
+    }
+
+    /**
+     * @param eventType the eventType value from JSON input
+     * @return its handler, or null if the type is unknown
+     */
+    public EventHandler<?> forType(String eventType) {
+        return byType.get(eventType);
+    }
+
+    /**
+     * @param event an event
+     * @return the handler for the event's class, or null if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public EventHandler<Event> forEvent(Event event) {
+        int ordinal = event.typeOrdinal();
+        EventHandler<?>[] table = byOrdinal;
+        EventHandler<?> handler = ordinal < table.length ? table[ordinal] : null;
+        if (handler == null) {
+            handler = inherit(event.getClass(), ordinal);
+        }
+        return (EventHandler<Event>) handler;
+    }
+
+    /**
+     * @param event an event
+     * @return the orderId it applies to, or null if it has no handler
+     */
+    public String orderIdOf(Event event) {
+        EventHandler<Event> handler = forEvent(event);
+        return handler != null ? handler.getOrderId(event) : null;
+    }
+
+    /**
+     * Finds the handler of the nearest registered superclass and caches it
+     * under the subclass's ordinal.
+     */
+    private synchronized EventHandler<?> inherit(Class<?> type, int ordinal) {
+        for (Class<?> superclass = type.getSuperclass(); Event.class.isAssignableFrom(superclass);
+                superclass = superclass.getSuperclass()) {
+            @SuppressWarnings("unchecked")
+            int superOrdinal = Event.typeOrdinalOf((Class<? extends Event>) superclass);
+            EventHandler<?> handler = superOrdinal < byOrdinal.length ? byOrdinal[superOrdinal] : null;
+            if (handler != null) {
+                EventHandler<?>[] table = Arrays.copyOf(byOrdinal, Math.max(byOrdinal.length, ordinal + 1));
+                table[ordinal] = handler;
+                byOrdinal = table;
+                return handler;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.HistoryRetention;
+
+/**
+ * What an {@link EventHandler} may use from the processor applying it.
+ */
+public interface HandlerContext {
+
+    /**
+     * @return the retention policy for the history of new orders
+     */
+    HistoryRetention getHistoryRetention();
+
+    /**
+     * @return the sink for progress messages
+     */
+    DiagnosticSink getDiagnostics();
+
+    /**
+     * Reports an event whose order does not exist.
+     * 
+     * @param eventKind short description of the event, e.g. "payment"
+     * @param orderId   the missing order
+     */
+    void reportOrderNotFound(String eventKind, String orderId);
+}
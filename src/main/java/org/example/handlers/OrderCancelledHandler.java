@@ -0,0 +1,53 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.OrderCancelledEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Handles OrderCancelledEvent: updates order status to CANCELLED.
+ */
+public class OrderCancelledHandler implements EventHandler<OrderCancelledEvent> {
+
+    @Override
+    public String getEventType() {
+        return "OrderCancelled";
+    }
+
+    @Override
+    public Class<OrderCancelledEvent> getEventClass() {
+        return OrderCancelledEvent.class;
+    }
+
+    @Override
+    public OrderCancelledEvent parse(String eventId, LocalDateTime timestamp, EventFields fields)
+            throws IOException {
+        return new OrderCancelledEvent(eventId, timestamp, fields.getId("orderId"), fields.getString("reason"));
+    }
+
+    @Override
+    public String getOrderId(OrderCancelledEvent event) {
+        return event.getOrderId();
+    }
+
+    @Override
+    public Order apply(OrderCancelledEvent event, Order order, HandlerContext context) {
+        if (order == null) {
+            context.reportOrderNotFound("cancellation", event.getOrderId());
+            return null;
+        }
+
+        order.setStatus(OrderStatus.CANCELLED);
+        order.addEventToHistory(event);
+
+        if (context.getDiagnostics().isEnabled(DiagnosticLevel.INFO)) {
+            context.getDiagnostics().log(DiagnosticLevel.INFO, String.format("Order %s cancelled. Reason: %s",
+                    order.getOrderId(), event.getReason()));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.domain.Order;
+import org.example.events.OrderCreatedEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Handles OrderCreatedEvent: creates a new order, replacing any existing
+ * order with the same orderId.
+ */
+public class OrderCreatedHandler implements EventHandler<OrderCreatedEvent> {
+
+    @Override
+    public String getEventType() {
+        return "OrderCreated";
+    }
+
+    @Override
+    public Class<OrderCreatedEvent> getEventClass() {
+        return OrderCreatedEvent.class;
+    }
+
+    @Override
+    public OrderCreatedEvent parse(String eventId, LocalDateTime timestamp, EventFields fields) throws IOException {
+        return new OrderCreatedEvent(eventId, timestamp, fields.getId("orderId"), fields.getId("customerId"),
+                fields.getItems("items"), fields.getDouble("totalAmount"));
+    }
+
+    @Override
+    public String getOrderId(OrderCreatedEvent event) {
+        return event.getOrderId();
+    }
+
+    @Override
+    public boolean createsOrder() {
+        return true;
+    }
+
+    @Override
+    public Order apply(OrderCreatedEvent event, Order order, HandlerContext context) {
+        Order created = new Order(event.getOrderId(), event.getCustomerId(),
+                event.getItems(), event.getTotalAmount(), context.getHistoryRetention());
+        created.addEventToHistory(event);
+
+        if (context.getDiagnostics().isEnabled(DiagnosticLevel.INFO)) {
+            context.getDiagnostics().log(DiagnosticLevel.INFO, "Created new order: " + created);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.PaymentReceivedEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Handles PaymentReceivedEvent: updates order status to PAID or PARTIALLY_PAID.
+ */
+public class PaymentReceivedHandler implements EventHandler<PaymentReceivedEvent> {
+
+    @Override
+    public String getEventType() {
+        return "PaymentReceived";
+    }
+
+    @Override
+    public Class<PaymentReceivedEvent> getEventClass() {
+        return PaymentReceivedEvent.class;
+    }
+
+    @Override
+    public PaymentReceivedEvent parse(String eventId, LocalDateTime timestamp, EventFields fields)
+            throws IOException {
+        return new PaymentReceivedEvent(eventId, timestamp, fields.getId("orderId"),
+                fields.getDouble("amountPaid"));
+    }
+
+    @Override
+    public String getOrderId(PaymentReceivedEvent event) {
+        return event.getOrderId();
+    }
+
+    @Override
+    public Order apply(PaymentReceivedEvent event, Order order, HandlerContext context) {
+        if (order == null) {
+            context.reportOrderNotFound("payment", event.getOrderId());
+            return null;
+        }
+
+        if (event.getAmountPaid() >= order.getTotalAmount()) {
+            order.setStatus(OrderStatus.PAID);
+        } else if (event.getAmountPaid() > 0) {
+            order.setStatus(OrderStatus.PARTIALLY_PAID);
+        }
+        order.addEventToHistory(event);
+
+        if (context.getDiagnostics().isEnabled(DiagnosticLevel.INFO)) {
+            context.getDiagnostics().log(DiagnosticLevel.INFO, String.format(
+                    "Payment processed for order %s: $%.2f (Status: %s)",
+                    order.getOrderId(), event.getAmountPaid(), order.getStatus()));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.ShippingScheduledEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Handles ShippingScheduledEvent: updates order status to SHIPPED.
+ */
+public class ShippingScheduledHandler implements EventHandler<ShippingScheduledEvent> {
+
+    @Override
+    public String getEventType() {
+        return "ShippingScheduled";
+    }
+
+    @Override
+    public Class<ShippingScheduledEvent> getEventClass() {
+        return ShippingScheduledEvent.class;
+    }
+
+    @Override
+    public ShippingScheduledEvent parse(String eventId, LocalDateTime timestamp, EventFields fields)
+            throws IOException {
+        return new ShippingScheduledEvent(eventId, timestamp, fields.getId("orderId"),
+                fields.getDateTime("shippingDate"));
+    }
+
+    @Override
+    public String getOrderId(ShippingScheduledEvent event) {
+        return event.getOrderId();
+    }
+
+    @Override
+    public Order apply(ShippingScheduledEvent event, Order order, HandlerContext context) {
+        if (order == null) {
+            context.reportOrderNotFound("shipping", event.getOrderId());
+            return null;
+        }
+
+        order.setStatus(OrderStatus.SHIPPED);
+        order.addEventToHistory(event);
+
+        if (context.getDiagnostics().isEnabled(DiagnosticLevel.INFO)) {
+            context.getDiagnostics().log(DiagnosticLevel.INFO, String.format("Shipping scheduled for order %s on %s",
+                    order.getOrderId(), event.getShippingDate()));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.ids;
+
+/**
+ * Bounded symbol table that maps repeated IDs to one shared {@link String}
+ * instance. Parsers intern orderIds, customerIds and itemIds through it, so
+ * the orders, events and maps that hold an ID share one string whose hash
+ * is computed once, and lookups compare references before characters.
+ * <p>
+ * The table has a fixed number of slots and never grows. Each ID may live
+ * in one of two neighbouring slots; a new ID takes the first slot and
+ * pushes the previous occupant to the second, so rarely seen IDs are
+ * evicted and simply interned again if they come back. Interning is
+ * therefore an optimization, not a guarantee that equal IDs are identical.
+ * <p>
+ * Safe for concurrent use without locking. Slots are plain array elements:
+ * strings are immutable and safely published through their final fields,
+ * so a racing reader sees either an older ID, a newer one or null, and at
+ * worst interns a duplicate.
+ */
+public final class IdDictionary {
+    /** Number of slots used by {@link #IdDictionary()}. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final String[] slots;
+    private final int mask;
+
+    public IdDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of IDs held, rounded up to a power
+     *                 of two
+     */
+    public IdDictionary(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param id the ID, possibly null
+     * @return the shared instance equal to the ID, or the ID itself if it
+     *         was not held yet (it is held from now on)
+     */
+    public String intern(String id) {
+        if (id == null) {
+            return null;
+        }
+        int slot = slotFor(id.hashCode());
+        String cached = slots[slot];
+        if (cached != null && (cached == id || cached.equals(id))) {
+            return cached;
+        }
+        String neighbour = slots[slot ^ 1];
+        if (neighbour != null && neighbour.equals(id)) {
+            return neighbour;
+        }
+        return insert(slot, cached, id);
+    }
+
+    /**
+     * Interns an ID held in a character buffer, such as a JSON parser's text
+     * buffer, allocating a string only if the ID is not held yet.
+     * 
+     * @param chars  the buffer
+     * @param offset the index of the ID's first character
+     * @param length the ID's length
+     * @return the shared instance with these characters
+     */
+    public String intern(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = slotFor(hash);
+        String cached = slots[slot];
+        if (matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String neighbour = slots[slot ^ 1];
+        if (matches(neighbour, chars, offset, length)) {
+            return neighbour;
+        }
+        return insert(slot, cached, new String(chars, offset, length));
+    }
+
+    /**
+     * @return the maximum number of IDs held
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    private String insert(int slot, String previous, String id) {
+        if (previous != null) {
+            slots[slot ^ 1] = previous;
+        }
+        slots[slot] = id;
+        return id;
+    }
+
+    private int slotFor(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String id, char[] chars, int offset, int length) {
+        if (id == null || id.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (id.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
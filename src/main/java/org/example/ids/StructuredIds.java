@@ -0,0 +1,99 @@
+package org.example.ids;
+
+/**
+ * Encodes structured IDs such as "ORD001", "CUST-42" or "P7" into a single
+ * non-negative {@code long}, so that they can be stored and compared as
+ * primitives and turned back into the same string.
+ * <p>
+ * An ID is encodable if it is up to four uppercase letters, an optional
+ * '-', and one to eleven decimal digits. Leading zeros are kept: the digit
+ * count is part of the key. Layout, from the most significant bit: 0, four
+ * 5-bit letters (1-26, 0 for none), the '-' flag, a 4-bit digit count and
+ * the digits' value in the low 38 bits.
+ */
+public final class StructuredIds {
+    /** Returned by {@link #encode(String)} for IDs that do not fit the pattern. */
+    public static final long NOT_ENCODABLE = -1L;
+
+    private static final int MAX_LETTERS = 4;
+    private static final int MAX_DIGITS = 11;
+    private static final int VALUE_BITS = 38;
+    private static final int COUNT_SHIFT = VALUE_BITS;
+    private static final int DASH_SHIFT = COUNT_SHIFT + 4;
+    private static final int PREFIX_SHIFT = DASH_SHIFT + 1;
+
+    private StructuredIds() {
+    }
+
+    /**
+     * @param id the ID
+     * @return the ID's key, or {@link #NOT_ENCODABLE}
+     */
+    public static long encode(String id) {
+        int length = id.length();
+        int i = 0;
+        long prefix = 0;
+        while (i < length && i < MAX_LETTERS + 1) {
+            char c = id.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            prefix = (prefix << 5) | (c - 'A' + 1);
+            i++;
+        }
+        if (i > MAX_LETTERS) {
+            return NOT_ENCODABLE;
+        }
+        prefix <<= 5 * (MAX_LETTERS - i);
+
+        long dash = 0;
+        if (i < length && id.charAt(i) == '-') {
+            dash = 1;
+            i++;
+        }
+
+        int digits = length - i;
+        if (digits < 1 || digits > MAX_DIGITS) {
+            return NOT_ENCODABLE;
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_ENCODABLE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (prefix << PREFIX_SHIFT) | (dash << DASH_SHIFT) | ((long) digits << COUNT_SHIFT) | value;
+    }
+
+    /**
+     * @param key a key returned by {@link #encode(String)}
+     * @return the ID the key was encoded from
+     * @throws IllegalArgumentException if the key is {@link #NOT_ENCODABLE}
+     *                                  or malformed
+     */
+    public static String decode(long key) {
+        int digits = (int) (key >>> COUNT_SHIFT) & 0xF;
+        if (key < 0 || digits < 1 || digits > MAX_DIGITS) {
+            throw new IllegalArgumentException("Not a structured ID key: " + key);
+        }
+        char[] chars = new char[MAX_LETTERS + 1 + digits];
+        int length = 0;
+        for (int shift = 5 * (MAX_LETTERS - 1); shift >= 0; shift -= 5) {
+            int letter = (int) (key >>> (PREFIX_SHIFT + shift)) & 0x1F;
+            if (letter != 0) {
+                chars[length++] = (char) ('A' + letter - 1);
+            }
+        }
+        if (((key >>> DASH_SHIFT) & 1) != 0) {
+            chars[length++] = '-';
+        }
+        long value = key & ((1L << VALUE_BITS) - 1);
+        for (int i = length + digits - 1; i >= length; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars, 0, length + digits);
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.metrics;
+
+import org.example.domain.OrderStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Point-in-time values read from {@link OrderAggregates}. Throughput is
+ * derived by comparing two snapshots.
+ */
+public final class AggregateSnapshot {
+    private final long elapsedNanos;
+    private final long[] ordersByStatus;
+    private final double totalAmount;
+    private final double outstandingAmount;
+    private final long paymentCount;
+    private final double paymentAmount;
+    private final Map<String, Long> eventsByType;
+    private boolean consistent;
+
+    AggregateSnapshot(long elapsedNanos, long[] ordersByStatus, double totalAmount, double outstandingAmount,
+            long paymentCount, double paymentAmount, Map<String, Long> eventsByType) {
+        this.elapsedNanos = elapsedNanos;
+        this.ordersByStatus = ordersByStatus;
+        this.totalAmount = totalAmount;
+        this.outstandingAmount = outstandingAmount;
+        this.paymentCount = paymentCount;
+        this.paymentAmount = paymentAmount;
+        this.eventsByType = Collections.unmodifiableMap(eventsByType);
+    }
+
+    void markConsistent() {
+        this.consistent = true;
+    }
+
+    /**
+     * @return true if no update overlapped the read, so every value reflects
+     *         the same set of processed events
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return nanoseconds between the aggregates' creation and this snapshot
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @param status the status
+     * @return the number of orders with that status
+     */
+    public long getOrderCount(OrderStatus status) {
+        return ordersByStatus[status.ordinal()];
+    }
+
+    /**
+     * @return the number of orders in any status
+     */
+    public long getOrderCount() {
+        long total = 0;
+        for (long count : ordersByStatus) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return the summed totalAmount of every order
+     */
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * @return the summed totalAmount of orders that are PENDING or
+     *         PARTIALLY_PAID
+     */
+    public double getOutstandingAmount() {
+        return outstandingAmount;
+    }
+
+    /**
+     * @return the number of payments applied to an order
+     */
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    /**
+     * @return the summed amount of payments applied to an order
+     */
+    public double getPaymentAmount() {
+        return paymentAmount;
+    }
+
+    /**
+     * @return processed event counts keyed by eventType
+     */
+    public Map<String, Long> getEventsByType() {
+        return eventsByType;
+    }
+
+    /**
+     * @return the number of processed events of every type
+     */
+    public long getEventCount() {
+        long total = 0;
+        for (long count : eventsByType.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Computes the processing rate of each event type between an earlier
+     * snapshot and this one.
+     * 
+     * @param earlier a snapshot taken before this one from the same aggregates
+     * @return events per second keyed by eventType
+     */
+    public Map<String, Double> eventsPerSecondSince(AggregateSnapshot earlier) {
+        double seconds = secondsSince(earlier);
+        Map<String, Double> rates = new HashMap<>();
+        for (Map.Entry<String, Long> entry : eventsByType.entrySet()) {
+            long before = earlier.eventsByType.getOrDefault(entry.getKey(), 0L);
+            rates.put(entry.getKey(), seconds > 0 ? (entry.getValue() - before) / seconds : 0.0);
+        }
+        return rates;
+    }
+
+    /**
+     * @param earlier a snapshot taken before this one from the same aggregates
+     * @return events of every type per second between the two snapshots
+     */
+    public double totalEventsPerSecondSince(AggregateSnapshot earlier) {
+        double seconds = secondsSince(earlier);
+        return seconds > 0 ? (getEventCount() - earlier.getEventCount()) / seconds : 0.0;
+    }
+
+    private double secondsSince(AggregateSnapshot earlier) {
+        return (elapsedNanos - earlier.elapsedNanos) / 1e9;
+    }
+
+    @Override
+    public String toString() {
+        Map<OrderStatus, Long> statuses = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            statuses.put(status, ordersByStatus[status.ordinal()]);
+        }
+        return String.format("Aggregates{orders=%s, totalAmount=%.2f, outstanding=%.2f, payments=%d ($%.2f), events=%s}",
+                statuses, totalAmount, outstandingAmount, paymentCount, paymentAmount, eventsByType);
+    }
+}
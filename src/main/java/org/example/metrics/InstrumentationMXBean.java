@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of an {@link Instrumentation}.
+ */
+public interface InstrumentationMXBean {
+
+    /**
+     * @return the number of events handled by the processor
+     */
+    long getEventCount();
+
+    /**
+     * @return handled event counts keyed by eventType
+     */
+    Map<String, Long> getEventsByType();
+
+    /**
+     * @return the number of events whose order did not exist
+     */
+    long getOrdersNotFound();
+
+    /**
+     * @return the number of lines that could not be parsed
+     */
+    long getParseErrors();
+
+    /**
+     * @return the number of events skipped because their type is not supported
+     */
+    long getUnknownEventTypes();
+
+    /**
+     * @return latency summaries keyed by stage name
+     */
+    Map<String, LatencySummary> getStageLatencies();
+
+    /**
+     * @return the same text as the periodic report
+     */
+    String getReport();
+}
@@ -0,0 +1,46 @@
+package org.example.metrics;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes an {@link Instrumentation} report to a diagnostic sink
+ * at INFO level, from a daemon thread of its own.
+ */
+public class InstrumentationReporter implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Starts reporting.
+     * 
+     * @param instrumentation the metrics to report
+     * @param sink            where reports are written
+     * @param period          time between reports
+     * @param unit            unit of the period
+     */
+    public InstrumentationReporter(Instrumentation instrumentation, DiagnosticSink sink, long period,
+            TimeUnit unit) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "instrumentation-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            if (sink.isEnabled(DiagnosticLevel.INFO)) {
+                sink.log(DiagnosticLevel.INFO, instrumentation.getReport());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops reporting.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free histogram of nanosecond latencies.
+ * <p>
+ * Like HdrHistogram, buckets are log-linear: every power of two is split
+ * into 16 equal sub-buckets, so any recorded value is reported to within
+ * about 6% of its true value across the whole {@code long} range, using 960
+ * counters and no allocation per recording.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency.
+     * 
+     * @param nanos the latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return the largest recorded latency in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the latency at or below which the given percentage of
+     * recordings fall, rounded up to the top of its bucket.
+     * 
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return the count, mean and main percentiles of this histogram
+     */
+    public LatencySummary summarize() {
+        return new LatencySummary(getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(90),
+                getValueAtPercentile(99), getMax());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long upperBound(int index) {
+        return index + 1 < BUCKET_COUNT ? lowerBound(index + 1) - 1 : Long.MAX_VALUE;
+    }
+}
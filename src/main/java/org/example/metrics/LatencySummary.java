@@ -0,0 +1,66 @@
+package org.example.metrics;
+
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Count, mean and percentiles of one stage's latencies, in nanoseconds.
+ * Exposed over JMX as composite data.
+ */
+public final class LatencySummary {
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    public LatencySummary(long count, double mean, long p50, long p90, long p99, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Rebuilds a summary from its JMX representation.
+     * 
+     * @param data composite data with this class's attributes
+     * @return the summary
+     */
+    public static LatencySummary from(CompositeData data) {
+        return new LatencySummary((Long) data.get("count"), (Double) data.get("mean"), (Long) data.get("p50"),
+                (Long) data.get("p90"), (Long) data.get("p99"), (Long) data.get("max"));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencySummary{count=%d, mean=%.0fns, p50=%dns, p90=%dns, p99=%dns, max=%dns}",
+                count, mean, p50, p90, p99, max);
+    }
+}
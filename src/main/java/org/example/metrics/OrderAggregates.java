@@ -0,0 +1,174 @@
+package org.example.metrics;
+
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.events.OrderCreatedEvent;
+import org.example.events.PaymentReceivedEvent;
+import org.example.observers.OrderObserver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained order KPIs: orders per status, total and
+ * outstanding order value, payments received, and events by type.
+ * <p>
+ * Register it as an observer on one or more processors; a single instance
+ * may be shared by every partition of a {@code PartitionedEventProcessor}.
+ * Counters are striped adders, so concurrent updates do not contend, and
+ * {@link #snapshot()} costs the same however many orders there are.
+ * <p>
+ * Orders restored without events, e.g. from a snapshot on recovery, are
+ * not reported to observers; {@link #seed(Order)} counts them.
+ * <p>
+ * Each callback updates several counters. To let readers see them
+ * consistently without locking writers, every update increments a
+ * "started" adder before touching the counters and a "completed" adder
+ * afterwards. A reader reads "completed", then the counters, then
+ * "started"; if the two are equal, no update overlapped the read.
+ * Otherwise it retries.
+ */
+public class OrderAggregates implements OrderObserver {
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int MAX_SNAPSHOT_ATTEMPTS = 64;
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    private final LongAdder updatesStarted = new LongAdder();
+    private final LongAdder updatesCompleted = new LongAdder();
+
+    private final LongAdder[] ordersByStatus = new LongAdder[STATUSES.length];
+    private final DoubleAdder totalAmount = new DoubleAdder();
+    private final DoubleAdder outstandingAmount = new DoubleAdder();
+    private final LongAdder paymentCount = new LongAdder();
+    private final DoubleAdder paymentAmount = new DoubleAdder();
+    private final Map<String, LongAdder> eventsByType = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    public OrderAggregates() {
+        for (int i = 0; i < ordersByStatus.length; i++) {
+            ordersByStatus[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onOrderStatusChanged(Order order, OrderStatus previous, OrderStatus next) {
+        if (previous == next) {
+            return;
+        }
+
+        updatesStarted.increment();
+        ordersByStatus[previous.ordinal()].decrement();
+        ordersByStatus[next.ordinal()].increment();
+        boolean wasOutstanding = isOutstanding(previous);
+        if (wasOutstanding != isOutstanding(next)) {
+            outstandingAmount.add(wasOutstanding ? -order.getTotalAmount() : order.getTotalAmount());
+        }
+        updatesCompleted.increment();
+    }
+
+    @Override
+    public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+        onOrderStatusChanged(order, OrderStatus.fromName(previousStatus), OrderStatus.fromName(newStatus));
+    }
+
+    @Override
+    public void onEventProcessed(Event event, Order order) {
+        String eventType = event.getEventType() != null ? event.getEventType() : UNKNOWN_TYPE;
+        LongAdder typeCount = eventsByType.get(eventType);
+        if (typeCount == null) {
+            typeCount = eventsByType.computeIfAbsent(eventType, type -> new LongAdder());
+        }
+
+        updatesStarted.increment();
+        typeCount.increment();
+        if (order != null) {
+            if (event instanceof OrderCreatedEvent) {
+                // Count the status the order was created with rather than its
+                // current one: with deferred or batched delivery the order may
+                // already have moved on, and those moves arrive as status changes
+                ordersByStatus[OrderStatus.PENDING.ordinal()].increment();
+                totalAmount.add(order.getTotalAmount());
+                outstandingAmount.add(order.getTotalAmount());
+            } else if (event instanceof PaymentReceivedEvent) {
+                paymentCount.increment();
+                paymentAmount.add(((PaymentReceivedEvent) event).getAmountPaid());
+            }
+        }
+        updatesCompleted.increment();
+    }
+
+    @Override
+    public void onOrderReplaced(Event event, Order replaced, Order order) {
+        // The replaced order is out of the store, so its status is final;
+        // the replacement is counted by onEventProcessed
+        updatesStarted.increment();
+        ordersByStatus[replaced.getStatus().ordinal()].decrement();
+        totalAmount.add(-replaced.getTotalAmount());
+        if (isOutstanding(replaced.getStatus())) {
+            outstandingAmount.add(-replaced.getTotalAmount());
+        }
+        updatesCompleted.increment();
+    }
+
+    /**
+     * Counts an order installed without events, such as one restored from a
+     * snapshot, in its current status. Seed each order once, before any
+     * later event for it is processed or after registering on a processor
+     * that has finished recovery, and on the order's processing thread.
+     * Payment and event-type counts cover only events observed afterwards.
+     * 
+     * @param order the restored order
+     */
+    public void seed(Order order) {
+        updatesStarted.increment();
+        ordersByStatus[order.getStatus().ordinal()].increment();
+        totalAmount.add(order.getTotalAmount());
+        if (isOutstanding(order.getStatus())) {
+            outstandingAmount.add(order.getTotalAmount());
+        }
+        updatesCompleted.increment();
+    }
+
+    /**
+     * Orders whose value has not been fully paid or written off.
+     */
+    private static boolean isOutstanding(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.PARTIALLY_PAID;
+    }
+
+    /**
+     * Reads every KPI as of a single point between updates. If updates keep
+     * overlapping the read, the last attempt is returned and marked as not
+     * consistent.
+     * 
+     * @return the current aggregates
+     */
+    public AggregateSnapshot snapshot() {
+        AggregateSnapshot snapshot = null;
+        for (int attempt = 0; attempt < MAX_SNAPSHOT_ATTEMPTS; attempt++) {
+            long completed = updatesCompleted.sum();
+            snapshot = read();
+            if (updatesStarted.sum() == completed) {
+                snapshot.markConsistent();
+                return snapshot;
+            }
+            Thread.onSpinWait();
+        }
+        return snapshot;
+    }
+
+    private AggregateSnapshot read() {
+        long[] statusCounts = new long[STATUSES.length];
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = ordersByStatus[i].sum();
+        }
+        Map<String, Long> typeCounts = new HashMap<>();
+        eventsByType.forEach((type, count) -> typeCounts.put(type, count.sum()));
+        return new AggregateSnapshot(System.nanoTime() - startNanos, statusCounts, totalAmount.sum(),
+                outstandingAmount.sum(), paymentCount.sum(), paymentAmount.sum(), typeCounts);
+    }
+}
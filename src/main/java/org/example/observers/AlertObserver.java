@@ -1,43 +1,71 @@
 package org.example.observers;
 
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
 import org.example.domain.Order;
+import org.example.domain.OrderStatus;
 import org.example.events.Event;
 
+import java.util.EnumSet;
+
 /**
  * Observer that prints alerts for critical order status changes and
- * cancellations.
+ * cancellations. It subscribes to only those, so a processor never calls
+ * it for anything else.
  */
 public class AlertObserver implements OrderObserver {
+    private static final EnumSet<OrderStatus> CRITICAL_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.SHIPPED);
+    private static final String CANCELLED_EVENT_TYPE = "OrderCancelled";
+    private static final ObserverSubscription SUBSCRIPTION = ObserverSubscription.ALL
+            .withEventTypes(CANCELLED_EVENT_TYPE)
+            .withStatuses(CRITICAL_STATUSES);
+
+    private final DiagnosticSink diagnostics;
+
+    public AlertObserver() {
+        this(new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * Creates an alerter that writes WARN messages to the given sink; nothing
+     * is formatted while WARN is disabled.
+     * 
+     * @param diagnostics the sink for alert messages
+     */
+    public AlertObserver(DiagnosticSink diagnostics) {
+        this.diagnostics = diagnostics;
+    }
 
     /**
      * Prints an alert if the new status is critical (CANCELLED or SHIPPED).
      */
     @Override
-    public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
-        if (isCriticalStatusChange(newStatus)) {
-            System.out.printf("[ALERT] Sending alert for Order %s: Status changed to %s%n",
-                    order.getOrderId(), newStatus);
+    public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        if (CRITICAL_STATUSES.contains(newStatus) && diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+            diagnostics.log(DiagnosticLevel.WARN, String.format("[ALERT] Sending alert for Order %s: Status changed to %s",
+                    order.getOrderId(), newStatus));
         }
     }
 
+    @Override
+    public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+        onOrderStatusChanged(order, OrderStatus.fromName(previousStatus), OrderStatus.fromName(newStatus));
+    }
+
     /**
      * Prints an alert for critical events, such as order cancellation.
      */
     @Override
     public void onEventProcessed(Event event, Order order) {
-        if ("OrderCancelled".equals(event.getEventType())) {
-            System.out.printf("[ALERT] Critical event: Order %s has been cancelled%n",
-                    order != null ? order.getOrderId() : "Unknown");
+        if (CANCELLED_EVENT_TYPE.equals(event.getEventType()) && diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+            diagnostics.log(DiagnosticLevel.WARN, String.format("[ALERT] Critical event: Order %s has been cancelled",
+                    order != null ? order.getOrderId() : "Unknown"));
         }
     }
 
-    /**
-     * Determines if a status change is critical.
-     * 
-     * @param status the status to check
-     * @return true if status is CANCELLED or SHIPPED
-     */
-    private boolean isCriticalStatusChange(String status) {
-        return "CANCELLED".equals(status) || "SHIPPED".equals(status);
+    @Override
+    public ObserverSubscription getSubscription() {
+        return SUBSCRIPTION;
     }
 }
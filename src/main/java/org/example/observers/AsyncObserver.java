@@ -0,0 +1,501 @@
+package org.example.observers;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that moves another observer off the processing thread.
+ * 
+ * Notifications are written into a bounded ring buffer and delivered by a
+ * dedicated thread, so a slow observer no longer adds its latency to every
+ * processed event. If the delegate is a {@link BatchOrderObserver}, runs of
+ * processed events are delivered through a single batch callback. What
+ * happens when the buffer is full is decided by the {@link OverflowPolicy}.
+ * 
+ * The delegate is called on the dispatch thread; the Order it receives may
+ * already reflect events processed after the one being reported. The
+ * wrapper takes over the delegate's subscription, so notifications the
+ * delegate does not want are never queued.
+ * 
+ * Notifications for one order are delivered in the order they were
+ * published, including those merged under {@link OverflowPolicy#COALESCE}.
+ * Notifications published while or after the observer is closed are counted
+ * as dropped.
+ */
+public class AsyncObserver implements OrderObserver, AutoCloseable {
+    /** Default ring buffer capacity. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_POLL_MILLIS = 10;
+
+    /**
+     * What to do with a notification when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Block the processing thread until there is room. */
+        BLOCK,
+        /** Discard the notification and count it as dropped. */
+        DROP,
+        /**
+         * Merge the notification with any other overflowed notification for
+         * the same order: status changes collapse into one transition from the
+         * earliest previous status to the latest new status, and only the
+         * latest processed event is kept. Replacements of the order keep the
+         * earliest replaced instance. Once an order has a merged
+         * notification pending, its later notifications are merged too, so
+         * they cannot overtake it. Notifications without an order have nothing
+         * to merge on and are held unmerged, in publication order.
+         */
+        COALESCE
+    }
+
+    private final OrderObserver delegate;
+    private final DiagnosticSink diagnostics;
+    private final OverflowPolicy overflowPolicy;
+    private final ArrayBlockingQueue<Notification> ring;
+    private final Map<String, Notification> coalescedStatusChanges;
+    private final Map<String, Notification> coalescedEvents;
+    private final Map<String, Notification> coalescedReplacements;
+    private final List<Notification> unkeyedOverflow;
+    private final List<Notification> overflow;
+    private final Thread dispatcher;
+    private final AtomicLong published;
+    private final AtomicLong delivered;
+    private final AtomicLong dropped;
+    private final AtomicLong coalesced;
+    private long nextSequence;
+    private volatile int overflowDepth;
+    /** Earliest enqueue time in {@link #overflow}; valid while overflowDepth is positive. */
+    private volatile long overflowOldestNanos;
+    private volatile boolean closed;
+
+    public AsyncObserver(OrderObserver delegate, OverflowPolicy overflowPolicy) {
+        this(delegate, overflowPolicy, DEFAULT_CAPACITY);
+    }
+
+    public AsyncObserver(OrderObserver delegate, OverflowPolicy overflowPolicy, int capacity) {
+        this(delegate, overflowPolicy, capacity, new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param delegate       the observer to call on the dispatch thread
+     * @param overflowPolicy what to do when the ring buffer is full
+     * @param capacity       the ring buffer capacity
+     * @param diagnostics    where failures of the delegate are reported
+     */
+    public AsyncObserver(OrderObserver delegate, OverflowPolicy overflowPolicy, int capacity,
+            DiagnosticSink diagnostics) {
+        this.delegate = delegate;
+        this.diagnostics = diagnostics;
+        this.overflowPolicy = overflowPolicy;
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.coalescedStatusChanges = new HashMap<>();
+        this.coalescedEvents = new HashMap<>();
+        this.coalescedReplacements = new HashMap<>();
+        this.unkeyedOverflow = new ArrayList<>();
+        this.overflow = new ArrayList<>();
+        this.published = new AtomicLong();
+        this.delivered = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.dispatcher = new Thread(this::dispatch, "async-observer-" + OrderObserver.nameOf(delegate));
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        publish(new Notification(order, null, null, previousStatus, newStatus));
+    }
+
+    @Override
+    public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+        onOrderStatusChanged(order, OrderStatus.fromName(previousStatus), OrderStatus.fromName(newStatus));
+    }
+
+    @Override
+    public void onEventProcessed(Event event, Order order) {
+        publish(new Notification(order, event, null, null, null));
+    }
+
+    @Override
+    public void onOrderReplaced(Event event, Order replaced, Order order) {
+        publish(new Notification(order, event, replaced, null, null));
+    }
+
+    @Override
+    public ObserverSubscription getSubscription() {
+        return delegate.getSubscription();
+    }
+
+    private void publish(Notification notification) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.COALESCE) {
+            publishCoalescing(notification);
+            return;
+        }
+
+        published.incrementAndGet();
+        boolean queued = ring.offer(notification);
+        if (!queued && overflowPolicy == OverflowPolicy.BLOCK) {
+            queued = putUnlessClosed(notification);
+        }
+        // A notification queued after the dispatcher's last look would never
+        // be delivered; take it back unless the dispatcher already has it
+        if (!queued || (closed && ring.remove(notification))) {
+            published.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for room in the ring, giving up if the observer is closed or the
+     * thread is interrupted.
+     */
+    private boolean putUnlessClosed(Notification notification) {
+        try {
+            while (!ring.offer(notification, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Numbers the notification and queues it, or merges it if the ring is
+     * full or the order already has a merged notification pending. One
+     * without an order is held unmerged instead, since a null key would
+     * merge every orderless notification into one. Runs
+     * under the lock the dispatcher takes to collect merged notifications,
+     * so sequence numbers follow ring order and nothing is added after the
+     * dispatcher's final check.
+     */
+    private void publishCoalescing(Notification notification) {
+        String key = notification.order != null ? notification.order.getOrderId() : null;
+        synchronized (coalescedEvents) {
+            if (closed) {
+                dropped.incrementAndGet();
+                return;
+            }
+            notification.sequence = nextSequence++;
+            published.incrementAndGet();
+            if (key == null) {
+                if (!unkeyedOverflow.isEmpty() || !ring.offer(notification)) {
+                    unkeyedOverflow.add(notification);
+                }
+                return;
+            }
+            boolean pendingForOrder = hasCoalesced()
+                    && (coalescedStatusChanges.containsKey(key) || coalescedEvents.containsKey(key)
+                            || coalescedReplacements.containsKey(key));
+            if (pendingForOrder || !ring.offer(notification)) {
+                coalesce(key, notification);
+            }
+        }
+    }
+
+    private void coalesce(String key, Notification notification) {
+        Notification previous;
+        if (notification.replaced != null) {
+            previous = coalescedReplacements.putIfAbsent(key, notification);
+        } else if (notification.event == null) {
+            previous = coalescedStatusChanges.remove(key);
+            if (previous != null) {
+                Notification merged = new Notification(notification.order, null, null,
+                        previous.previousStatus, notification.newStatus);
+                merged.sequence = notification.sequence;
+                merged.enqueuedNanos = previous.enqueuedNanos;
+                notification = merged;
+            }
+            coalescedStatusChanges.put(key, notification);
+        } else {
+            previous = coalescedEvents.remove(key);
+            if (previous != null) {
+                notification.enqueuedNanos = previous.enqueuedNanos;
+            }
+            coalescedEvents.put(key, notification);
+        }
+        if (previous != null) {
+            published.decrementAndGet();
+            coalesced.incrementAndGet();
+        }
+    }
+
+    private boolean hasCoalesced() {
+        return !coalescedStatusChanges.isEmpty() || !coalescedEvents.isEmpty() || !coalescedReplacements.isEmpty()
+                || !unkeyedOverflow.isEmpty();
+    }
+
+    private void dispatch() {
+        List<Notification> pending = new ArrayList<>(MAX_BATCH_SIZE);
+        try {
+            while (true) {
+                Notification first = ring.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    pending.add(first);
+                    ring.drainTo(pending, MAX_BATCH_SIZE - 1);
+                }
+                if (overflowPolicy == OverflowPolicy.COALESCE) {
+                    mergeCoalesced(pending);
+                }
+
+                if (pending.isEmpty()) {
+                    if (closed && isDrained()) {
+                        return;
+                    }
+                    continue;
+                }
+                deliver(pending);
+                pending.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Moves merged notifications into the batch in sequence order. A merged
+     * notification is held back while the ring still has older ones, so it
+     * never overtakes notifications published before it.
+     */
+    private void mergeCoalesced(List<Notification> pending) {
+        synchronized (coalescedEvents) {
+            if (hasCoalesced()) {
+                // Everything merged since the last call was numbered after what is already held
+                int start = overflow.size();
+                overflow.addAll(coalescedStatusChanges.values());
+                overflow.addAll(coalescedEvents.values());
+                overflow.addAll(coalescedReplacements.values());
+                overflow.addAll(unkeyedOverflow);
+                overflow.subList(start, overflow.size()).sort(Comparator.comparingLong(n -> n.sequence));
+                coalescedStatusChanges.clear();
+                coalescedEvents.clear();
+                coalescedReplacements.clear();
+                unkeyedOverflow.clear();
+            }
+        }
+        if (overflow.isEmpty()) {
+            return;
+        }
+
+        Notification next = ring.peek();
+        long limit = next != null ? next.sequence : Long.MAX_VALUE;
+        List<Notification> merged = new ArrayList<>(pending.size() + overflow.size());
+        int taken = 0;
+        for (Notification notification : pending) {
+            while (taken < overflow.size() && overflow.get(taken).sequence < notification.sequence) {
+                merged.add(overflow.get(taken++));
+            }
+            merged.add(notification);
+        }
+        while (taken < overflow.size() && overflow.get(taken).sequence < limit) {
+            merged.add(overflow.get(taken++));
+        }
+        overflow.subList(0, taken).clear();
+        overflowOldestNanos = oldestEnqueuedNanos(overflow, System.nanoTime());
+        overflowDepth = overflow.size();
+        pending.clear();
+        pending.addAll(merged);
+    }
+
+    /**
+     * Checks, once closed, that nothing is left to deliver. Coalescing
+     * publishers check {@code closed} under the same lock, so none can add a
+     * notification after this returns true.
+     */
+    private boolean isDrained() {
+        if (overflowPolicy != OverflowPolicy.COALESCE) {
+            return ring.isEmpty();
+        }
+        synchronized (coalescedEvents) {
+            return ring.isEmpty() && overflow.isEmpty() && !hasCoalesced();
+        }
+    }
+
+    private void deliver(List<Notification> pending) {
+        List<BatchOrderObserver.ProcessedEvent> batch = null;
+        for (Notification notification : pending) {
+            try {
+                if (notification.replaced != null) {
+                    flushBatch(batch);
+                    batch = null;
+                    delegate.onOrderReplaced(notification.event, notification.replaced, notification.order);
+                } else if (notification.event == null) {
+                    flushBatch(batch);
+                    batch = null;
+                    delegate.onOrderStatusChanged(notification.order,
+                            notification.previousStatus, notification.newStatus);
+                } else if (delegate instanceof BatchOrderObserver) {
+                    if (batch == null) {
+                        batch = new ArrayList<>();
+                    }
+                    batch.add(new BatchOrderObserver.ProcessedEvent(notification.event, notification.order));
+                } else {
+                    delegate.onEventProcessed(notification.event, notification.order);
+                }
+            } catch (RuntimeException e) {
+                reportFailure(e);
+            }
+        }
+        try {
+            flushBatch(batch);
+        } catch (RuntimeException e) {
+            reportFailure(e);
+        }
+        delivered.addAndGet(pending.size());
+    }
+
+    private void reportFailure(RuntimeException e) {
+        if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+            diagnostics.log(DiagnosticLevel.ERROR,
+                    String.format("Observer %s failed: %s", OrderObserver.nameOf(delegate), e.getMessage()));
+        }
+    }
+
+    private void flushBatch(List<BatchOrderObserver.ProcessedEvent> batch) {
+        if (batch != null) {
+            ((BatchOrderObserver) delegate).onEventsProcessed(batch);
+        }
+    }
+
+    /**
+     * Returns the number of notifications waiting to be delivered.
+     * 
+     * @return current queue depth
+     */
+    public int getQueueDepth() {
+        synchronized (coalescedEvents) {
+            return ring.size() + coalescedStatusChanges.size() + coalescedEvents.size()
+                    + coalescedReplacements.size() + unkeyedOverflow.size() + overflowDepth;
+        }
+    }
+
+    /**
+     * Returns how many accepted notifications have not been delivered yet.
+     * 
+     * @return lag in notifications
+     */
+    public long getLag() {
+        return published.get() - delivered.get();
+    }
+
+    /**
+     * Returns how long the oldest undelivered notification has been waiting,
+     * including merged and held-back ones under {@link OverflowPolicy#COALESCE}.
+     * A merged notification counts from when the first notification merged
+     * into it was published.
+     * 
+     * @return lag in nanoseconds, or 0 if nothing is pending
+     */
+    public long getLagNanos() {
+        long now = System.nanoTime();
+        long oldest = now;
+        Notification head = ring.peek();
+        if (head != null) {
+            oldest = head.enqueuedNanos;
+        }
+        if (overflowPolicy == OverflowPolicy.COALESCE) {
+            if (overflowDepth > 0) {
+                oldest = earlier(oldest, overflowOldestNanos);
+            }
+            synchronized (coalescedEvents) {
+                oldest = oldestEnqueuedNanos(coalescedStatusChanges.values(), oldest);
+                oldest = oldestEnqueuedNanos(coalescedEvents.values(), oldest);
+                oldest = oldestEnqueuedNanos(coalescedReplacements.values(), oldest);
+                oldest = oldestEnqueuedNanos(unkeyedOverflow, oldest);
+            }
+        }
+        return Math.max(0, now - oldest);
+    }
+
+    private static long oldestEnqueuedNanos(Collection<Notification> notifications, long oldest) {
+        for (Notification notification : notifications) {
+            oldest = earlier(oldest, notification.enqueuedNanos);
+        }
+        return oldest;
+    }
+
+    /** Compares nanoTime values by difference, as they may wrap. */
+    private static long earlier(long a, long b) {
+        return a - b <= 0 ? a : b;
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Stops accepting notifications, delivers everything already queued and
+     * stops the dispatch thread. If the calling thread is interrupted, it
+     * stops waiting and returns with its interrupt status set; the dispatch
+     * thread finishes delivering in the background.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A queued observer callback.
+     */
+    private static final class Notification {
+        private final Order order;
+        private final Event event;
+        private final Order replaced;
+        private final OrderStatus previousStatus;
+        private final OrderStatus newStatus;
+        /** When published, or when the first notification merged into it was. */
+        private long enqueuedNanos;
+        /** Publication order, assigned under the COALESCE policy only. */
+        private long sequence;
+
+        Notification(Order order, Event event, Order replaced, OrderStatus previousStatus, OrderStatus newStatus) {
+            this.order = order;
+            this.event = event;
+            this.replaced = replaced;
+            this.previousStatus = previousStatus;
+            this.newStatus = newStatus;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+}
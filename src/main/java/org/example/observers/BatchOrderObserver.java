@@ -0,0 +1,52 @@
+package org.example.observers;
+
+import org.example.domain.Order;
+import org.example.events.Event;
+
+import java.util.List;
+
+/**
+ * Observer that can receive processed events in batches. When dispatched
+ * asynchronously, consecutive event notifications are handed over in one
+ * call instead of one {@link #onEventProcessed} call per event.
+ */
+public interface BatchOrderObserver extends OrderObserver {
+    /**
+     * Called with a batch of processed events, in processing order.
+     * 
+     * @param events the processed events and their related orders
+     */
+    void onEventsProcessed(List<ProcessedEvent> events);
+
+    /**
+     * Delivers a single processed event as a batch of one.
+     */
+    @Override
+    default void onEventProcessed(Event event, Order order) {
+        onEventsProcessed(List.of(new ProcessedEvent(event, order)));
+    }
+
+    /**
+     * A processed event paired with its related order.
+     */
+    final class ProcessedEvent {
+        private final Event event;
+        private final Order order;
+
+        public ProcessedEvent(Event event, Order order) {
+            this.event = event;
+            this.order = order;
+        }
+
+        public Event getEvent() {
+            return event;
+        }
+
+        /**
+         * @return the related order (may be null)
+         */
+        public Order getOrder() {
+            return order;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package org.example.observers;
 
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
 import org.example.domain.Order;
+import org.example.domain.OrderStatus;
 import org.example.events.Event;
 import java.time.format.DateTimeFormatter;
 
@@ -10,13 +14,36 @@ import java.time.format.DateTimeFormatter;
 public class LoggerObserver implements OrderObserver {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private final DiagnosticSink diagnostics;
+
+    public LoggerObserver() {
+        this(new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * Creates a logger that writes INFO messages to the given sink; nothing is
+     * formatted while INFO is disabled.
+     * 
+     * @param diagnostics the sink for log messages
+     */
+    public LoggerObserver(DiagnosticSink diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
     /**
      * Logs order status changes.
      */
+    @Override
+    public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        if (diagnostics.isEnabled(DiagnosticLevel.INFO)) {
+            diagnostics.log(DiagnosticLevel.INFO, String.format("[LOGGER] Order %s status changed from %s to %s",
+                    order.getOrderId(), previousStatus, newStatus));
+        }
+    }
+
     @Override
     public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
-        System.out.printf("[LOGGER] Order %s status changed from %s to %s%n",
-                order.getOrderId(), previousStatus, newStatus);
+        onOrderStatusChanged(order, OrderStatus.fromName(previousStatus), OrderStatus.fromName(newStatus));
     }
 
     /**
@@ -24,9 +51,12 @@ public class LoggerObserver implements OrderObserver {
      */
     @Override
     public void onEventProcessed(Event event, Order order) {
-        System.out.printf("[LOGGER] Event processed - Type: %s, EventId: %s, OrderId: %s at %s%n",
-                event.getEventType(), event.getEventId(),
-                order != null ? order.getOrderId() : "N/A",
-                event.getTimestamp().format(FORMATTER));
+        if (diagnostics.isEnabled(DiagnosticLevel.INFO)) {
+            diagnostics.log(DiagnosticLevel.INFO, String.format(
+                    "[LOGGER] Event processed - Type: %s, EventId: %s, OrderId: %s at %s",
+                    event.getEventType(), event.getEventId(),
+                    order != null ? order.getOrderId() : "N/A",
+                    event.getTimestamp().format(FORMATTER)));
+        }
     }
 }
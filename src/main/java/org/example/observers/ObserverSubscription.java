@@ -0,0 +1,162 @@
+package org.example.observers;
+
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The notifications an observer wants: processed events of some event
+ * types, status transitions from some statuses into others, and optionally
+ * only those for orders matching a predicate. Subscriptions are immutable; each
+ * {@code with...} method returns a narrowed copy.
+ * <p>
+ * An {@link org.example.processing.EventProcessor} turns the event types and
+ * transitions into routing tables when the observer is registered, so an
+ * observer is never called for notifications outside them. The predicate
+ * is tested per notification, after routing.
+ */
+public final class ObserverSubscription {
+    /** Every processed event and every status change. */
+    public static final ObserverSubscription ALL =
+            new ObserverSubscription(null, EnumSet.allOf(OrderStatus.class), EnumSet.allOf(OrderStatus.class), null);
+
+    private final Set<String> eventTypes;
+    private final EnumSet<OrderStatus> previousStatuses;
+    private final EnumSet<OrderStatus> statuses;
+    private final Predicate<? super Order> filter;
+
+    private ObserverSubscription(Set<String> eventTypes, EnumSet<OrderStatus> previousStatuses,
+            EnumSet<OrderStatus> statuses, Predicate<? super Order> filter) {
+        this.eventTypes = eventTypes;
+        this.previousStatuses = previousStatuses;
+        this.statuses = statuses;
+        this.filter = filter;
+    }
+
+    /**
+     * @param eventTypes the eventType values to receive processed events for;
+     *                   none means no processed events at all
+     * @return a copy that receives processed events of only these types
+     */
+    public ObserverSubscription withEventTypes(String... eventTypes) {
+        Set<String> types = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(eventTypes)));
+        return new ObserverSubscription(types, previousStatuses, statuses, filter);
+    }
+
+    /**
+     * @param statuses the statuses whose entry should be reported, from any
+     *                 status; an empty set means no status changes at all
+     * @return a copy that receives only status changes into these statuses
+     */
+    public ObserverSubscription withStatuses(Set<OrderStatus> statuses) {
+        return withTransitions(EnumSet.allOf(OrderStatus.class), statuses);
+    }
+
+    /**
+     * @param from the statuses an order may change from
+     * @param to   the statuses an order may change to
+     * @return a copy that receives only status changes from one of the first
+     *         statuses into one of the second
+     */
+    public ObserverSubscription withTransitions(Set<OrderStatus> from, Set<OrderStatus> to) {
+        EnumSet<OrderStatus> fromCopy = EnumSet.noneOf(OrderStatus.class);
+        fromCopy.addAll(from);
+        EnumSet<OrderStatus> toCopy = EnumSet.noneOf(OrderStatus.class);
+        toCopy.addAll(to);
+        return new ObserverSubscription(eventTypes, fromCopy, toCopy, filter);
+    }
+
+    /**
+     * Restricts notifications to orders matching a predicate. Processed events
+     * without an order are not delivered to a filtered subscription.
+     * 
+     * @param filter tested with the notification's order, on the processing
+     *               thread
+     * @return a copy that receives only notifications for matching orders
+     */
+    public ObserverSubscription withFilter(Predicate<? super Order> filter) {
+        return new ObserverSubscription(eventTypes, previousStatuses, statuses, filter);
+    }
+
+    /**
+     * @param eventType an eventType value, possibly null
+     * @return true if processed events of this type are routed to the observer
+     */
+    public boolean includesEventType(String eventType) {
+        return eventTypes == null || (eventType != null && eventTypes.contains(eventType));
+    }
+
+    /**
+     * @param newStatus the status an order changed to
+     * @return true if status changes into it from at least one status are
+     *         routed to the observer
+     */
+    public boolean includesStatus(OrderStatus newStatus) {
+        return !previousStatuses.isEmpty() && statuses.contains(newStatus);
+    }
+
+    /**
+     * @param previousStatus the status an order changed from, or null if
+     *                       unknown, which only unrestricted origins accept
+     * @param newStatus      the status an order changed to
+     * @return true if this transition is routed to the observer
+     */
+    public boolean includesTransition(OrderStatus previousStatus, OrderStatus newStatus) {
+        boolean fromIncluded = previousStatus != null
+                ? previousStatuses.contains(previousStatus)
+                : previousStatuses.size() == OrderStatus.values().length;
+        return fromIncluded && statuses.contains(newStatus);
+    }
+
+    /**
+     * @return the order predicate, or null if notifications are not filtered
+     *         by order
+     */
+    public Predicate<? super Order> getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return true if this subscription receives every notification
+     */
+    public boolean isUnrestricted() {
+        int all = OrderStatus.values().length;
+        return eventTypes == null && previousStatuses.size() == all && statuses.size() == all && filter == null;
+    }
+
+    /**
+     * Checks a processed event against the whole subscription, for callers
+     * without routing tables.
+     * 
+     * @param event the processed event
+     * @param order the related order (may be null)
+     * @return true if the observer should receive it
+     */
+    public boolean accepts(Event event, Order order) {
+        return includesEventType(event.getEventType()) && matches(order);
+    }
+
+    /**
+     * Checks a status change against the whole subscription, for callers
+     * without routing tables.
+     * 
+     * @param order          the order whose status changed
+     * @param previousStatus the previous status
+     * @param newStatus      the new status
+     * @return true if the observer should receive it
+     */
+    public boolean accepts(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        return includesTransition(previousStatus, newStatus) && matches(order);
+    }
+
+    private boolean matches(Order order) {
+        return filter == null || (order != null && filter.test(order));
+    }
+}
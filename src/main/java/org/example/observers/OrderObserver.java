@@ -1,6 +1,7 @@
 package org.example.observers;
 
 import org.example.domain.Order;
+import org.example.domain.OrderStatus;
 import org.example.events.Event;
 
 /**
@@ -9,13 +10,32 @@ import org.example.events.Event;
  */
 public interface OrderObserver {
     /**
-     * Called when an order's status changes.
+     * Called when an order's status changes. The default forwards to the
+     * String overload, so observers written against it keep working.
      * 
      * @param order          the order whose status changed
      * @param previousStatus the previous status
      * @param newStatus      the new status
      */
-    void onOrderStatusChanged(Order order, String previousStatus, String newStatus);
+    default void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        onOrderStatusChanged(order, previousStatus.name(), newStatus.name());
+    }
+
+    /**
+     * Called with the status names when an order's status changes, unless the
+     * enum overload is overridden. Does nothing by default.
+     * <p>
+     * Processors call the enum overload. Code that calls this one directly
+     * reaches only observers that override it; the built-in observers do, by
+     * forwarding to their enum overload, so observers overriding only the
+     * enum overload should do the same if they are called this way.
+     * 
+     * @param order          the order whose status changed
+     * @param previousStatus the previous status name
+     * @param newStatus      the new status name
+     */
+    default void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+    }
 
     /**
      * Called when an event is processed for an order.
@@ -24,4 +44,40 @@ public interface OrderObserver {
      * @param order the related order (may be null)
      */
     void onEventProcessed(Event event, Order order);
+
+    /**
+     * Called when an event replaces an order with a new instance under the
+     * same orderId, as a repeated OrderCreated does. Delivered just before
+     * {@link #onEventProcessed} for that event, to the observers that receive
+     * it. Does nothing by default.
+     * 
+     * @param event    the event that replaced the order
+     * @param replaced the order that was removed
+     * @param order    the order that took its place
+     */
+    default void onOrderReplaced(Event event, Order replaced, Order order) {
+    }
+
+    /**
+     * Declares which notifications this observer needs. Read once, when the
+     * observer is registered.
+     * 
+     * @return the subscription; every notification by default
+     */
+    default ObserverSubscription getSubscription() {
+        return ObserverSubscription.ALL;
+    }
+
+    /**
+     * Names an observer in diagnostics: its simple class name, or the full
+     * class name for anonymous and lambda observers, whose simple name is
+     * empty.
+     * 
+     * @param observer the observer
+     * @return a non-empty name for the observer's class
+     */
+    static String nameOf(OrderObserver observer) {
+        Class<?> type = observer.getClass();
+        return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
 }
@@ -0,0 +1,89 @@
+package org.example.observers;
+
+import org.example.domain.Order;
+import org.example.domain.OrderSnapshot;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free read model of the orders, for dashboards and other readers on
+ * threads other than the processor's.
+ * <p>
+ * Registered as an observer, it publishes a fresh immutable
+ * {@link OrderSnapshot} after every event applied to an order (copy on
+ * write of the order's scalar state only). Readers never lock or copy: each
+ * snapshot they see is internally consistent, and iteration is weakly
+ * consistent across orders. One view may be shared by several processors,
+ * for example the partitions of a {@code PartitionedEventProcessor}.
+ */
+public class OrderSnapshotView implements OrderObserver {
+    // Snapshots are published once the whole event has been applied, in
+    // onEventProcessed, so status changes are not needed
+    private static final ObserverSubscription SUBSCRIPTION =
+            ObserverSubscription.ALL.withStatuses(EnumSet.noneOf(OrderStatus.class));
+
+    private final Map<String, OrderSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, OrderSnapshot> readOnly = Collections.unmodifiableMap(snapshots);
+
+    @Override
+    public void onEventProcessed(Event event, Order order) {
+        if (order != null) {
+            publish(order);
+        }
+    }
+
+    @Override
+    public ObserverSubscription getSubscription() {
+        return SUBSCRIPTION;
+    }
+
+    /**
+     * Publishes the current state of an order, e.g. to seed the view with
+     * orders restored from a snapshot. Call on the order's processing thread.
+     * 
+     * @param order the order
+     */
+    public void publish(Order order) {
+        snapshots.put(order.getOrderId(), OrderSnapshot.of(order));
+    }
+
+    /**
+     * @param orderId the order ID
+     * @return the latest snapshot of the order, or null if none was published
+     */
+    public OrderSnapshot get(String orderId) {
+        return snapshots.get(orderId);
+    }
+
+    /**
+     * @return the number of orders in the view
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Visits the latest snapshot of every order.
+     * 
+     * @param action called once per order
+     */
+    public void forEach(Consumer<? super OrderSnapshot> action) {
+        snapshots.values().forEach(action);
+    }
+
+    /**
+     * Returns a live, read-only map of orderId to latest snapshot. It is not
+     * a copy and reflects later updates.
+     * 
+     * @return the snapshots keyed by orderId
+     */
+    public Map<String, OrderSnapshot> asMap() {
+        return readOnly;
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.persistence;
+
+import org.example.codec.BinaryEventCodec;
+import org.example.domain.HistoryArchive;
+import org.example.domain.Order;
+import org.example.events.Event;
+import org.example.processing.EventProcessor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Makes an {@link EventProcessor} durable by logging every event before it is
+ * applied and periodically snapshotting the resulting order state.
+ * 
+ * On restart, {@link #recover()} loads the newest snapshot and replays only
+ * the events logged after it, so recovery time depends on the number of
+ * events since the last snapshot rather than on the whole history. Log
+ * segments covered by every retained snapshot are deleted, so recovery can
+ * still fall back to an older snapshot if the newest one is unreadable.
+ * 
+ * To keep histories out of memory, spill them to
+ * {@link #getHistoryArchive()}: archived events are referenced by their
+ * position in this log rather than written again, and log segments stay
+ * until no retained snapshot references them.
+ * 
+ * Register observers on the wrapped processor after recovery if replayed
+ * events should not be reported again. Orders restored from the snapshot
+ * are installed without notifications, so observers that keep state, such
+ * as {@code OrderAggregates}, should be seeded with them: registered after
+ * recovery, from {@code getOrders()} once it returns.
+ */
+public class DurableEventProcessor implements AutoCloseable {
+    /** Default number of events between automatic snapshots. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private final EventProcessor processor;
+    private final EventLog eventLog;
+    private final SnapshotStore snapshotStore;
+    private final EventLogHistoryArchive historyArchive;
+    private final int snapshotInterval;
+    private long eventsSinceSnapshot;
+
+    public DurableEventProcessor(Path directory, EventProcessor processor) throws IOException {
+        this(processor, new EventLog(directory.resolve("log")),
+                new SnapshotStore(directory.resolve("snapshots")), DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public DurableEventProcessor(EventProcessor processor, EventLog eventLog, SnapshotStore snapshotStore,
+            int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("snapshotInterval must be positive");
+        }
+        this.processor = processor;
+        this.eventLog = eventLog;
+        this.snapshotStore = snapshotStore;
+        this.historyArchive = new EventLogHistoryArchive(eventLog);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Restores the processor from the latest snapshot and the log tail.
+     * 
+     * @return the number of logged events replayed after the snapshot
+     */
+    public long recover() throws IOException {
+        SnapshotStore.Snapshot snapshot = snapshotStore.loadLatest(processor.getHistoryRetention());
+        long fromSequence = 0;
+        if (snapshot != null) {
+            for (Order order : snapshot.getOrders()) {
+                processor.restoreOrder(order);
+            }
+            fromSequence = snapshot.getNextSequence();
+        }
+
+        long replayed = eventLog.replay(fromSequence, processor::processEvent);
+        eventsSinceSnapshot = replayed;
+        return replayed;
+    }
+
+    /**
+     * Logs the event and then applies it. Event types the log cannot encode
+     * are passed to the processor without being logged.
+     * 
+     * @param event the event to process
+     */
+    public void processEvent(Event event) throws IOException {
+        if (BinaryEventCodec.tagOf(event) != 0) {
+            eventLog.append(event);
+            eventsSinceSnapshot++;
+        }
+        processor.processEvent(event);
+
+        if (eventsSinceSnapshot >= snapshotInterval) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Flushes the log, writes a snapshot of the current orders and deletes
+     * log segments that no retained snapshot needs.
+     */
+    public void snapshot() throws IOException {
+        eventLog.flush();
+        long nextSequence = eventLog.getNextSequence();
+        snapshotStore.write(nextSequence, processor.getOrders().values());
+        eventLog.deleteSegmentsBefore(snapshotStore.getFirstRequiredSequence());
+        eventsSinceSnapshot = 0;
+    }
+
+    /**
+     * Forces logged events to disk.
+     */
+    public void flush() throws IOException {
+        eventLog.flush();
+    }
+
+    public EventProcessor getProcessor() {
+        return processor;
+    }
+
+    /**
+     * Returns an archive that holds history events by reference to this
+     * processor's log, for use with
+     * {@link org.example.domain.HistoryRetention#spillTo}. Set the policy
+     * before {@link #recover()}.
+     * 
+     * @return the archive
+     */
+    public HistoryArchive getHistoryArchive() {
+        return historyArchive;
+    }
+
+    @Override
+    public void close() throws IOException {
+        eventLog.close();
+    }
+}
@@ -0,0 +1,402 @@
+package org.example.persistence;
+
+import org.example.codec.BinaryEventCodec;
+import org.example.codec.BinaryInput;
+import org.example.codec.BinaryOutput;
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, segmented, append-only log of events.
+ * 
+ * Every appended event gets the next sequence number. Events are written in
+ * the compact format of {@link BinaryEventCodec}, framed as
+ * {@code [length][crc32][payload]}, to segment files named after the sequence
+ * number of their first record. A segment is closed and a new one started once
+ * it exceeds the configured size. When the log is reopened, a torn or corrupt
+ * record at the end of the last segment (from a crash mid-write) is truncated
+ * away, together with anything after it. Sealed segments are never truncated:
+ * a corrupt or missing record in one makes reads fail with an
+ * {@link IOException} rather than silently skipping the rest of the segment.
+ */
+public class EventLog implements AutoCloseable {
+    /** Default segment size before rolling over to a new file. */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final DiagnosticSink diagnostics;
+    private final long segmentSize;
+    private final List<Long> segmentBases;
+    private final BinaryEventCodec codec;
+    private final ByteArrayOutputStream recordBuffer;
+    private final BinaryOutput recordOut;
+    private FileOutputStream segmentFile;
+    private DataOutputStream segmentOut;
+    private long segmentBytes;
+    private long nextSequence;
+    /** The event most recently appended or replayed, and its sequence number. */
+    private Event currentEvent;
+    private long currentSequence;
+
+    public EventLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public EventLog(Path directory, long segmentSize) throws IOException {
+        this(directory, segmentSize, new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param directory   holds the log segments; created if missing
+     * @param segmentSize size at which a new segment is started
+     * @param diagnostics where corrupt records and torn tails found on
+     *                    opening are reported
+     */
+    public EventLog(Path directory, long segmentSize, DiagnosticSink diagnostics) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.diagnostics = diagnostics;
+        this.segmentSize = segmentSize;
+        this.segmentBases = listSegmentBases(directory);
+        this.codec = new BinaryEventCodec();
+        this.recordBuffer = new ByteArrayOutputStream(256);
+        this.recordOut = new BinaryOutput(recordBuffer);
+        openTail();
+    }
+
+    /**
+     * Appends an event to the log. The record is buffered; call
+     * {@link #flush()} to make it durable.
+     * 
+     * @param event the event to append
+     * @return the sequence number assigned to the event
+     * @throws IllegalArgumentException if the event type cannot be encoded
+     */
+    public synchronized long append(Event event) throws IOException {
+        recordBuffer.reset();
+        codec.writeEvent(recordOut, event);
+        recordOut.flush();
+
+        if (segmentBytes >= segmentSize) {
+            rollSegment();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(recordBuffer.toByteArray());
+        segmentOut.writeInt(recordBuffer.size());
+        segmentOut.writeInt((int) crc.getValue());
+        recordBuffer.writeTo(segmentOut);
+        segmentBytes += RECORD_HEADER_SIZE + recordBuffer.size();
+        currentEvent = event;
+        currentSequence = nextSequence;
+        return nextSequence++;
+    }
+
+    /**
+     * Returns the sequence number of an event while it is being applied: the
+     * event most recently appended, or the one being replayed. Lets code that
+     * applies it refer to the logged record instead of storing it again.
+     * 
+     * @param event the event
+     * @return its sequence number
+     * @throws IllegalStateException if the event is not the one most recently
+     *                               appended or replayed
+     */
+    public synchronized long sequenceOf(Event event) {
+        if (event != currentEvent) {
+            throw new IllegalStateException("Event " + event.getEventId()
+                    + " is not the event most recently logged or replayed");
+        }
+        return currentSequence;
+    }
+
+    /**
+     * Writes buffered records and forces them to disk.
+     */
+    public synchronized void flush() throws IOException {
+        segmentOut.flush();
+        segmentFile.getFD().sync();
+    }
+
+    /**
+     * Returns the sequence number the next appended event will receive.
+     * 
+     * @return the next sequence number
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Returns the sequence number of the oldest record still in the log.
+     * Earlier records were deleted with their segments.
+     * 
+     * @return the first sequence number that can be replayed
+     */
+    public synchronized long getFirstSequence() {
+        return segmentBases.get(0);
+    }
+
+    /**
+     * Replays every logged event with a sequence number at or above
+     * {@code fromSequence}, oldest first.
+     * 
+     * @param fromSequence the first sequence number to replay
+     * @param sink         receives each event in log order
+     * @return the number of events replayed
+     * @throws IOException if records from {@code fromSequence} on are no longer
+     *                     (or not yet) in the log, or a segment holds a corrupt
+     *                     record or fewer records than its sequence range
+     */
+    public synchronized long replay(long fromSequence, Consumer<? super Event> sink) throws IOException {
+        segmentOut.flush();
+        if (fromSequence < segmentBases.get(0) || fromSequence > nextSequence) {
+            throw new IOException(String.format("Log gap: replay from sequence %d, but the log holds %d to %d",
+                    fromSequence, segmentBases.get(0), nextSequence));
+        }
+
+        long replayed = 0;
+        for (int i = 0; i < segmentBases.size(); i++) {
+            long base = segmentBases.get(i);
+            long nextBase = i + 1 < segmentBases.size() ? segmentBases.get(i + 1) : Long.MAX_VALUE;
+            if (nextBase <= fromSequence) {
+                continue;
+            }
+
+            long sequence = base;
+            Path path = segmentPath(base);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                byte[] payload;
+                while ((payload = readRecord(in, path, sequence)) != null) {
+                    if (sequence++ >= fromSequence) {
+                        Event event = BinaryEventCodec.readEvent(new BinaryInput(payload, 0, payload.length));
+                        if (event != null) {
+                            currentEvent = event;
+                            currentSequence = sequence - 1;
+                            sink.accept(event);
+                            replayed++;
+                        }
+                    }
+                }
+            }
+            long end = nextBase == Long.MAX_VALUE ? nextSequence : nextBase;
+            if (sequence != end) {
+                throw new IOException(String.format("Segment %s ends at sequence %d instead of %d",
+                        path, sequence, end));
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Reads specific events by sequence number, scanning only the segments
+     * that hold them.
+     * 
+     * @param sequences sequence numbers in ascending order
+     * @param count     how many of the sequence numbers to read
+     * @return the events, in sequence order
+     * @throws IOException if a sequence number is not (or no longer) in the log
+     */
+    public synchronized List<Event> read(long[] sequences, int count) throws IOException {
+        segmentOut.flush();
+
+        List<Event> events = new ArrayList<>(count);
+        int next = 0;
+        while (next < count) {
+            int segment = segmentIndexOf(sequences[next]);
+            long sequence = segmentBases.get(segment);
+            Path path = segmentPath(sequence);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                byte[] payload;
+                while (next < count && (payload = readRecord(in, path, sequence)) != null) {
+                    if (sequence++ == sequences[next]) {
+                        events.add(BinaryEventCodec.readEvent(new BinaryInput(payload, 0, payload.length)));
+                        next++;
+                    }
+                }
+            }
+            if (next < count && segmentIndexOf(sequences[next]) == segment) {
+                throw new IOException("Sequence " + sequences[next] + " is missing from the log");
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Finds the segment holding a sequence number.
+     */
+    private int segmentIndexOf(long sequence) throws IOException {
+        if (sequence >= nextSequence || segmentBases.isEmpty() || sequence < segmentBases.get(0)) {
+            throw new IOException("Sequence " + sequence + " is not in the log");
+        }
+        int index = Collections.binarySearch(segmentBases, sequence);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Deletes whole segments whose events all precede {@code sequence}, e.g.
+     * once a snapshot covering them has been written. The active segment is
+     * never deleted.
+     * 
+     * @param sequence the first sequence number that must be kept
+     * @return the number of segments deleted
+     */
+    public synchronized int deleteSegmentsBefore(long sequence) throws IOException {
+        int deleted = 0;
+        while (segmentBases.size() > 1 && segmentBases.get(1) <= sequence) {
+            Files.deleteIfExists(segmentPath(segmentBases.remove(0)));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        segmentOut.close();
+    }
+
+    /**
+     * Opens the last segment for appending, recovering the next sequence
+     * number and truncating it at the first torn or corrupt record.
+     */
+    private void openTail() throws IOException {
+        if (segmentBases.isEmpty()) {
+            segmentBases.add(0L);
+            nextSequence = 0;
+            openSegment(0L);
+            FileSync.syncDirectory(directory);
+            return;
+        }
+
+        long base = segmentBases.get(segmentBases.size() - 1);
+        Path path = segmentPath(base);
+        long records = 0;
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] payload;
+            while ((payload = readRecord(in, path, base + records)) != null) {
+                records++;
+                validBytes += RECORD_HEADER_SIZE + payload.length;
+            }
+        } catch (CorruptRecordException e) {
+            diagnostics.log(DiagnosticLevel.WARN, e.getMessage());
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > validBytes) {
+                long tail = validBytes;
+                diagnostics.log(DiagnosticLevel.WARN,
+                        () -> "Truncating torn tail of " + path + " at " + tail + " bytes");
+                channel.truncate(validBytes);
+            }
+        }
+
+        nextSequence = base + records;
+        openSegment(base);
+        segmentBytes = validBytes;
+    }
+
+    private void rollSegment() throws IOException {
+        segmentOut.flush();
+        segmentFile.getFD().sync();
+        segmentOut.close();
+        segmentBases.add(nextSequence);
+        openSegment(nextSequence);
+        FileSync.syncDirectory(directory);
+    }
+
+    private void openSegment(long base) throws IOException {
+        segmentFile = new FileOutputStream(segmentPath(base).toFile(), true);
+        segmentOut = new DataOutputStream(new BufferedOutputStream(segmentFile, 64 * 1024));
+        segmentBytes = 0;
+    }
+
+    /**
+     * Reads one framed record, returning null at the end of the segment.
+     * 
+     * @throws CorruptRecordException if the record is incomplete, has an
+     *                                impossible length or fails its checksum
+     */
+    private static byte[] readRecord(DataInputStream in, Path path, long sequence) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        byte[] payload;
+        int checksum;
+        try {
+            int length = (first << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+            checksum = in.readInt();
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                throw new CorruptRecordException(path, sequence, "invalid length " + length);
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+        } catch (EOFException e) {
+            throw new CorruptRecordException(path, sequence, "incomplete record");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            throw new CorruptRecordException(path, sequence, "checksum mismatch");
+        }
+        return payload;
+    }
+
+    /**
+     * A record that cannot be read back. At the end of the active segment
+     * this is a torn write to truncate; anywhere else it is data loss.
+     */
+    private static final class CorruptRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptRecordException(Path path, long sequence, String reason) {
+            super(String.format("Corrupt record %d in %s: %s", sequence, path, reason));
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> listSegmentBases(Path directory) throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                bases.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(bases);
+        return bases;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.persistence;
+
+import org.example.domain.HistoryArchive;
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Archives order history by reference into the {@link EventLog} that events
+ * are appended to before they are applied, such as the one a
+ * {@link DurableEventProcessor} writes. An archived event's reference is its
+ * sequence number: nothing is written again, so spilling history costs no
+ * extra I/O on the processing thread. The archive owns no resources of its
+ * own; the log's owner flushes and closes it, and keeps every record a
+ * snapshot still references (see {@link SnapshotStore#getFirstRequiredSequence()}).
+ * <p>
+ * Only events appended to or replayed from the log can be archived, while
+ * they are being applied.
+ */
+public class EventLogHistoryArchive implements HistoryArchive {
+    private final EventLog log;
+
+    public EventLogHistoryArchive(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * @throws IllegalStateException if the event is not the one the log most
+     *                               recently appended or replayed
+     */
+    @Override
+    public long archive(Event event) {
+        return log.sequenceOf(event);
+    }
+
+    @Override
+    public List<Event> load(long[] references, int count) {
+        try {
+            return log.read(references, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load archived history", e);
+        }
+    }
+}
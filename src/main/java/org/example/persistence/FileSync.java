@@ -0,0 +1,32 @@
+package org.example.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Forces directory entries to disk, so that files created, renamed or
+ * deleted in a directory survive a crash along with their contents.
+ */
+final class FileSync {
+    /** Windows cannot open a directory as a channel; NTFS journals renames itself. */
+    private static final boolean SUPPORTED = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private FileSync() {
+    }
+
+    /**
+     * Forces the entries of a directory to disk.
+     * 
+     * @param directory the directory whose entries changed
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        if (!SUPPORTED) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
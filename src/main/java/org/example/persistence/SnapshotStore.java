@@ -0,0 +1,420 @@
+package org.example.persistence;
+
+import org.example.codec.BinaryEventCodec;
+import org.example.codec.BinaryInput;
+import org.example.codec.BinaryOutput;
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.EventHistory;
+import org.example.domain.HistoryRetention;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Stores point-in-time snapshots of order state.
+ * 
+ * A snapshot records every order, including its event count and the status
+ * after each retained history event, together with the sequence number of
+ * the first event log record it does not cover. A history spilled to a
+ * {@link org.example.domain.HistoryArchive} is stored as its archive
+ * references rather than loaded and written again, so it can only be
+ * restored under a policy that spills to the same archive.
+ * Snapshots are written to a temporary file, forced to disk and atomically
+ * renamed, with the directory synced before and after the rename, and end
+ * with a CRC32 checksum, so a crash never leaves a half-written snapshot that
+ * would be mistaken for a valid one. Several snapshots are kept so that
+ * loading can fall back to an older one; the event log must be kept from
+ * {@link #getFirstRequiredSequence()} onwards for that fallback to be
+ * complete and for archived history to stay loadable.
+ */
+public class SnapshotStore {
+    /** Default number of snapshots kept on disk. */
+    public static final int DEFAULT_RETAINED_SNAPSHOTS = 2;
+
+    private static final long MAGIC = 0x4F50534E41503031L;
+    private static final int VERSION = 4;
+    private static final int INLINE_HISTORY = 0;
+    private static final int ARCHIVED_HISTORY = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int retainedSnapshots;
+    private final DiagnosticSink diagnostics;
+
+    public SnapshotStore(Path directory) throws IOException {
+        this(directory, DEFAULT_RETAINED_SNAPSHOTS);
+    }
+
+    public SnapshotStore(Path directory, int retainedSnapshots) throws IOException {
+        this(directory, retainedSnapshots, new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param directory         holds the snapshot files; created if missing
+     * @param retainedSnapshots how many of the newest snapshots are kept
+     * @param diagnostics       where unreadable snapshots are reported
+     */
+    public SnapshotStore(Path directory, int retainedSnapshots, DiagnosticSink diagnostics) throws IOException {
+        if (retainedSnapshots <= 0) {
+            throw new IllegalArgumentException("retainedSnapshots must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.retainedSnapshots = retainedSnapshots;
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * A loaded snapshot: the orders and the log position to resume from.
+     */
+    public static final class Snapshot {
+        private final long nextSequence;
+        private final List<Order> orders;
+
+        Snapshot(long nextSequence, List<Order> orders) {
+            this.nextSequence = nextSequence;
+            this.orders = orders;
+        }
+
+        /**
+         * @return the first event log sequence number not reflected in the orders
+         */
+        public long getNextSequence() {
+            return nextSequence;
+        }
+
+        public List<Order> getOrders() {
+            return orders;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given orders and prunes old snapshots.
+     * 
+     * @param nextSequence the first log sequence number not reflected in the orders
+     * @param orders       the orders to save
+     */
+    public void write(long nextSequence, Collection<Order> orders) throws IOException {
+        Path target = snapshotPath(nextSequence);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        CRC32 crc = new CRC32();
+        BinaryEventCodec codec = new BinaryEventCodec();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024)) {
+            BinaryOutput out = new BinaryOutput(new CheckedOutputStream(file, crc));
+            out.writeLong(MAGIC);
+            out.writeVarLong(VERSION);
+            out.writeVarLong(nextSequence);
+            out.writeVarLong(firstRequiredSequence(nextSequence, orders));
+            out.writeVarLong(orders.size());
+            for (Order order : orders) {
+                writeOrder(out, codec, order);
+            }
+            out.flush();
+            // The checksum trails the data it covers and is written outside the checked stream
+            new DataOutputStream(file).writeLong(crc.getValue());
+            file.flush();
+            channel.force(true);
+        }
+
+        FileSync.syncDirectory(directory);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileSync.syncDirectory(directory);
+        prune();
+    }
+
+    /**
+     * Returns the first event log record any retained snapshot needs: its
+     * own log position, or an older archived history event it references.
+     * Loading may fall back to any retained snapshot, so log records from
+     * here on must be kept. Snapshots whose header cannot be read are
+     * ignored, as they cannot be loaded either.
+     * 
+     * @return the first required sequence number, or 0 if there is no snapshot
+     */
+    public long getFirstRequiredSequence() throws IOException {
+        List<Long> sequences = listSnapshotSequences();
+        if (sequences.isEmpty()) {
+            return 0;
+        }
+        long required = Long.MAX_VALUE;
+        for (long sequence : sequences) {
+            Path path = snapshotPath(sequence);
+            try (BinaryInput in = new BinaryInput(Files.newInputStream(path))) {
+                if (in.readLong() == MAGIC && in.readVarLong() == VERSION) {
+                    in.readVarLong();
+                    required = Math.min(required, in.readVarLong());
+                }
+            } catch (IOException e) {
+                reportUnreadable(path, e);
+            }
+        }
+        return required == Long.MAX_VALUE ? 0 : required;
+    }
+
+    private void reportUnreadable(Path path, IOException e) {
+        if (diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+            diagnostics.log(DiagnosticLevel.WARN,
+                    String.format("Skipping unreadable snapshot %s: %s", path, e.getMessage()));
+        }
+    }
+
+    /**
+     * The oldest log record the snapshot depends on: where replay resumes,
+     * or the oldest archived history event, whichever comes first.
+     */
+    private static long firstRequiredSequence(long nextSequence, Collection<Order> orders) {
+        long required = nextSequence;
+        for (Order order : orders) {
+            EventHistory history = order.getHistory();
+            if (history.getArchive() != null) {
+                required = Math.min(required, history.getOldestArchiveReference());
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Loads the newest readable snapshot, skipping any that are corrupt. The
+     * orders keep all of their retained history.
+     * 
+     * @return the latest snapshot, or null if there is none
+     */
+    public Snapshot loadLatest() throws IOException {
+        return loadLatest(HistoryRetention.KEEP_ALL);
+    }
+
+    /**
+     * Loads the newest readable snapshot, skipping any that are corrupt.
+     * 
+     * @param retention the policy the restored orders' histories follow
+     * @return the latest snapshot, or null if there is none
+     */
+    public Snapshot loadLatest(HistoryRetention retention) throws IOException {
+        List<Long> sequences = listSnapshotSequences();
+        for (int i = sequences.size() - 1; i >= 0; i--) {
+            Path path = snapshotPath(sequences.get(i));
+            try {
+                return read(path, retention);
+            } catch (IOException e) {
+                reportUnreadable(path, e);
+            }
+        }
+        return null;
+    }
+
+    private Snapshot read(Path path, HistoryRetention retention) throws IOException {
+        verifyChecksum(path);
+        long dataLength = Files.size(path) - Long.BYTES;
+
+        try (BinaryInput in = new BinaryInput(new BoundedInputStream(Files.newInputStream(path), dataLength))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not a snapshot file");
+            }
+            long version = in.readVarLong();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long nextSequence = in.readVarLong();
+            in.readVarLong(); // first required sequence
+            int count = in.readVarInt();
+            List<Order> orders = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                orders.add(readOrder(in, retention));
+            }
+            return new Snapshot(nextSequence, orders);
+        }
+    }
+
+    /**
+     * Checks the trailing CRC32 against the rest of the file before any of it
+     * is decoded.
+     */
+    private static void verifyChecksum(Path path) throws IOException {
+        long dataLength = Files.size(path) - Long.BYTES;
+        if (dataLength < 0) {
+            throw new IOException("Snapshot is truncated");
+        }
+
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            byte[] chunk = new byte[64 * 1024];
+            long remaining = dataLength;
+            while (remaining > 0) {
+                int length = (int) Math.min(chunk.length, remaining);
+                in.readFully(chunk, 0, length);
+                crc.update(chunk, 0, length);
+                remaining -= length;
+            }
+            if (in.readLong() != crc.getValue()) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+        }
+    }
+
+    private static void writeOrder(BinaryOutput out, BinaryEventCodec codec, Order order) throws IOException {
+        out.writeString(order.getOrderId());
+        out.writeString(order.getCustomerId());
+        out.writeAmount(order.getTotalAmount());
+        out.writeByte(order.getStatus().ordinal());
+        BinaryEventCodec.writeItems(out, order.getItems());
+
+        EventHistory history = order.getHistory();
+        List<OrderStatus> statuses = history.getStatusesAfter();
+        out.writeVarLong(history.getRecordedCount());
+        if (history.getArchive() != null) {
+            long[] references = history.getArchiveReferences();
+            out.writeByte(ARCHIVED_HISTORY);
+            out.writeVarLong(references.length);
+            for (int i = 0; i < references.length; i++) {
+                out.writeByte(statuses.get(i).ordinal());
+                out.writeVarLong(references[i]);
+            }
+        } else {
+            List<Event> events = history.toList();
+            out.writeByte(INLINE_HISTORY);
+            out.writeVarLong(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                out.writeByte(statuses.get(i).ordinal());
+                codec.writeEvent(out, events.get(i));
+            }
+        }
+    }
+
+    private static Order readOrder(BinaryInput in, HistoryRetention retention) throws IOException {
+        String orderId = in.readString();
+        String customerId = in.readString();
+        double totalAmount = in.readAmount();
+        OrderStatus status = readStatus(in);
+
+        Order order = new Order(orderId, customerId, BinaryEventCodec.readItems(in), totalAmount, retention);
+        order.setStatus(status);
+
+        int recordedCount = in.readVarInt();
+        int kind = in.readByte();
+        int size = in.readVarInt();
+        List<OrderStatus> statuses = new ArrayList<>(size);
+        if (kind == ARCHIVED_HISTORY) {
+            if (order.getHistory().getArchive() == null) {
+                throw new IOException("Order " + orderId
+                        + " has archived history; restore it with a policy that spills to the same archive");
+            }
+            long[] references = new long[size];
+            for (int i = 0; i < size; i++) {
+                statuses.add(readStatus(in));
+                references[i] = in.readVarLong();
+            }
+            order.getHistory().restoreArchived(recordedCount, references, statuses);
+        } else if (kind == INLINE_HISTORY) {
+            List<Event> events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                OrderStatus statusAfter = readStatus(in);
+                Event event = BinaryEventCodec.readEvent(in);
+                if (event != null) {
+                    events.add(event);
+                    statuses.add(statusAfter);
+                }
+            }
+            order.getHistory().restore(recordedCount, events, statuses);
+        } else {
+            throw new IOException("Unknown history encoding " + kind + " for order " + orderId);
+        }
+        return order;
+    }
+
+    private static OrderStatus readStatus(BinaryInput in) throws IOException {
+        int ordinal = in.readByte();
+        OrderStatus[] statuses = OrderStatus.values();
+        if (ordinal < 0 || ordinal >= statuses.length) {
+            throw new IOException("Invalid order status " + ordinal);
+        }
+        return statuses[ordinal];
+    }
+
+    private void prune() throws IOException {
+        List<Long> sequences = listSnapshotSequences();
+        for (int i = 0; i < sequences.size() - retainedSnapshots; i++) {
+            Files.deleteIfExists(snapshotPath(sequences.get(i)));
+        }
+    }
+
+    private Path snapshotPath(long nextSequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, nextSequence, SNAPSHOT_SUFFIX));
+    }
+
+    private List<Long> listSnapshotSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                sequences.add(Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(),
+                        name.length() - SNAPSHOT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    /**
+     * Stops reading before the trailing checksum so it is never decoded as data.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.processing;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Detects redelivered events by eventId within a sliding window of the most
+ * recently applied IDs.
+ * <p>
+ * Membership is exact: the last {@code windowSize} IDs are held in a ring
+ * buffer backed by a hash set, so an event is never rejected unless its ID
+ * really is in the window. Memory is bounded by the window size no matter
+ * how many IDs pass through.
+ * <p>
+ * Checking and remembering are separate steps so that an ID is only
+ * remembered once its event has actually been applied; an event that failed
+ * is not mistaken for a duplicate when it is delivered again.
+ * <p>
+ * Not thread-safe; each processor owns its own instance.
+ */
+public class EventDeduplicator {
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 20;
+
+    /*
+     * Object sizes on a 64-bit HotSpot JVM with compressed references and
+     * compact strings, used by getEstimatedMemoryBytes().
+     */
+    /** HashMap.Node: 12-byte header, hash, key, value and next, padded to 8. */
+    private static final int NODE_BYTES = 32;
+    /** String: 12-byte header, value, hash, coder and hashIsZero, padded to 8. */
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final int windowSize;
+    private final String[] ring;
+    private final Set<String> window;
+    private final int tableSize;
+    private int ringHead;
+    private long windowStringBytes;
+
+    private long checkedCount;
+    private long duplicateCount;
+
+    public EventDeduplicator() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a deduplicator that remembers the given number of most recent
+     * eventIds.
+     * 
+     * @param windowSize how many distinct recent IDs to remember
+     */
+    public EventDeduplicator(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.windowSize = windowSize;
+        this.ring = new String[windowSize];
+        int initialCapacity = Math.max(16, (int) (windowSize / 0.75f) + 1);
+        this.window = new HashSet<>(initialCapacity);
+        // HashMap rounds its capacity up to a power of two; sized this way it never resizes
+        this.tableSize = Integer.highestOneBit(initialCapacity - 1) << 1;
+    }
+
+    /**
+     * Checks an eventId against the window and remembers it if it is new, in
+     * one step. Null IDs cannot be deduplicated and are always treated as new.
+     * 
+     * @param eventId the event's ID
+     * @return true if the ID is a duplicate and the event should be skipped
+     */
+    public boolean isDuplicate(String eventId) {
+        if (isSeen(eventId)) {
+            return true;
+        }
+        remember(eventId);
+        return false;
+    }
+
+    /**
+     * Checks an eventId against the window without remembering it. Null IDs
+     * are never seen.
+     * 
+     * @param eventId the event's ID
+     * @return true if the ID is in the window
+     */
+    public boolean isSeen(String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        checkedCount++;
+        if (window.contains(eventId)) {
+            duplicateCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the ID of an applied event, evicting the oldest ID once the
+     * window is full. IDs already in the window and null IDs are ignored.
+     * 
+     * @param eventId the event's ID
+     */
+    public void remember(String eventId) {
+        if (eventId == null || !window.add(eventId)) {
+            return;
+        }
+        String evicted = ring[ringHead];
+        if (evicted != null) {
+            window.remove(evicted);
+            windowStringBytes -= stringBytes(evicted);
+        }
+        ring[ringHead] = eventId;
+        ringHead = ringHead + 1 == windowSize ? 0 : ringHead + 1;
+        windowStringBytes += stringBytes(eventId);
+    }
+
+    /**
+     * @return the number of IDs remembered before the oldest are evicted
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return the number of IDs currently remembered
+     */
+    public int size() {
+        return window.size();
+    }
+
+    /**
+     * @return the number of non-null eventIds checked so far
+     */
+    public long getCheckedCount() {
+        return checkedCount;
+    }
+
+    /**
+     * @return the number of events reported as duplicates
+     */
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * @return duplicates as a fraction of checked events, or 0 before any
+     *         event has been checked
+     */
+    public double getDuplicateRate() {
+        return checkedCount == 0 ? 0.0 : (double) duplicateCount / checkedCount;
+    }
+
+    /**
+     * Estimates the heap held by the window: the ring, the hash set's table
+     * and nodes, and the remembered ID strings, assuming a 64-bit JVM with
+     * compressed references and Latin-1 IDs. ID strings are usually shared
+     * with the events themselves, so this is an upper bound.
+     * 
+     * @return the estimated footprint in bytes
+     */
+    public long getEstimatedMemoryBytes() {
+        long ringBytes = ARRAY_HEADER_BYTES + (long) windowSize * REFERENCE_BYTES;
+        long tableBytes = ARRAY_HEADER_BYTES + (long) tableSize * REFERENCE_BYTES;
+        long nodeBytes = (long) window.size() * NODE_BYTES;
+        return ringBytes + tableBytes + nodeBytes + windowStringBytes;
+    }
+
+    private static long stringBytes(String value) {
+        return STRING_BYTES + ((ARRAY_HEADER_BYTES + value.length() + 7) & ~7);
+    }
+}
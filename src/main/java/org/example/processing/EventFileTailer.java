@@ -0,0 +1,302 @@
+package org.example.processing;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Follows a JSON events file that is continuously appended to, handing each
+ * newly completed line to a sink as it arrives.
+ * <p>
+ * The byte offset just past the last line handed to the sink is written to a
+ * checkpoint file after every read, together with the identity of the file
+ * it belongs to, so a restarted tailer resumes where the previous one
+ * stopped. A line only counts once its newline has been written; a partial
+ * last line is left for the next read. Events handed to the sink before a
+ * crash but after the last checkpoint are read again on restart, so pair the
+ * processor with an {@link EventDeduplicator} if that matters.
+ * <p>
+ * Rotation is detected by the file at the path changing identity (it was
+ * renamed away and a new one created), in which case the rest of the old
+ * file is drained through the still-open handle before the new file is read
+ * from the start, or by the file shrinking below the offset (it was
+ * truncated in place), in which case reading restarts from the start.
+ * <p>
+ * {@link #poll()} reads whatever is new and returns; {@link #follow()} and
+ * {@link #start()} keep polling, woken by a {@link WatchService} on the
+ * file's directory with a polling interval as fallback for file systems
+ * that do not deliver watch events.
+ */
+public class EventFileTailer implements AutoCloseable {
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 500;
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final EventIngestionService ingestion;
+    private final Path file;
+    private final Path checkpointFile;
+    private final Consumer<? super Event> sink;
+    private final long pollIntervalMillis;
+
+    private FileChannel channel;
+    private String fileKey;
+    private long offset;
+    private long checkpointedOffset = -1;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long eventCount;
+
+    private volatile boolean closed;
+    private volatile WatchService watcher;
+    private Thread thread;
+
+    public EventFileTailer(EventIngestionService ingestion, Path file, Path checkpointFile,
+            Consumer<? super Event> sink) {
+        this(ingestion, file, checkpointFile, sink, DEFAULT_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param ingestion      parses each line
+     * @param file           the events file to follow; it need not exist yet
+     * @param checkpointFile where the read offset is persisted
+     * @param sink           receives each parsed event, in file order
+     * @param pollInterval   longest wait between checks for new data
+     * @param unit           unit of the poll interval
+     */
+    public EventFileTailer(EventIngestionService ingestion, Path file, Path checkpointFile,
+            Consumer<? super Event> sink, long pollInterval, TimeUnit unit) {
+        this.ingestion = ingestion;
+        this.file = file.toAbsolutePath();
+        this.checkpointFile = checkpointFile;
+        this.sink = sink;
+        this.pollIntervalMillis = unit.toMillis(pollInterval);
+    }
+
+    /**
+     * Reads every complete line appended since the last call, following a
+     * rotation if one happened, and checkpoints the new offset.
+     * 
+     * @return the number of events passed to the sink
+     * @throws IOException if the file or checkpoint cannot be read or written
+     */
+    public synchronized int poll() throws IOException {
+        long before = eventCount;
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Renamed away and not yet recreated: finish what was written to it
+            if (channel != null) {
+                readAvailable();
+                saveCheckpoint();
+            }
+            return (int) (eventCount - before);
+        }
+
+        String key = String.valueOf(attributes.fileKey());
+        if (channel != null && attributes.fileKey() != null && !key.equals(fileKey)) {
+            readAvailable();
+            closeChannel();
+        }
+        if (channel == null) {
+            open(key);
+        }
+        if (attributes.size() < offset) {
+            ingestion.getDiagnostics().log(DiagnosticLevel.WARN,
+                    () -> file + " was truncated, reading it again from the start");
+            offset = 0;
+        }
+
+        readAvailable();
+        saveCheckpoint();
+        return (int) (eventCount - before);
+    }
+
+    /**
+     * Polls until {@link #close()} is called, waiting between polls for the
+     * directory watcher to report a change or the poll interval to pass.
+     * Read errors are reported and retried on the next poll.
+     */
+    public void follow() {
+        try (WatchService watchService = file.getFileSystem().newWatchService()) {
+            watcher = watchService;
+            file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            while (!closed) {
+                try {
+                    poll();
+                } catch (IOException e) {
+                    ingestion.reportError("Error tailing file %s: %s", file, e);
+                }
+                WatchKey key = watchService.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close() was called while waiting
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            ingestion.reportError("Error watching file %s: %s", file, e);
+        }
+    }
+
+    /**
+     * Runs {@link #follow()} on a daemon thread of its own. The sink is then
+     * called from that thread.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Tailer already started");
+        }
+        thread = new Thread(this::follow, "event-file-tailer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the byte offset just past the last line handed to the sink
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of events passed to the sink since construction
+     */
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Asks {@link #follow()} to return once the poll in progress, if any, has
+     * checkpointed. Does not wait and keeps the file open, so it can be
+     * called from another thread, such as a shutdown hook, while the
+     * following thread finishes and closes the tailer.
+     * 
+     * @throws IOException if the directory watcher cannot be closed
+     */
+    public void stop() throws IOException {
+        closed = true;
+        WatchService watchService = watcher;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Stops following, waits for the background thread if there is one, and
+     * releases the file.
+     */
+    @Override
+    public void close() throws IOException {
+        stop();
+        Thread background;
+        synchronized (this) {
+            background = thread;
+        }
+        if (background != null) {
+            try {
+                background.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closeChannel();
+        }
+    }
+
+    private void open(String key) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        offset = 0;
+        checkpointedOffset = -1;
+        if (fileKey == null && Files.exists(checkpointFile)) {
+            // First open: resume from the checkpoint if it belongs to this file
+            List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            if (lines.size() == 2 && lines.get(1).equals(key)) {
+                offset = Long.parseLong(lines.get(0));
+                checkpointedOffset = offset;
+            }
+        }
+        fileKey = key;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Hands every complete line between the offset and the end of the open
+     * file to the sink, growing the buffer if a single line does not fit.
+     */
+    private void readAvailable() throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return;
+            }
+            int consumed = consumeLines(buffer.array(), read);
+            if (consumed == 0) {
+                if (read < buffer.capacity()) {
+                    return;
+                }
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                continue;
+            }
+            offset += consumed;
+        }
+    }
+
+    /**
+     * @return the number of bytes up to and including the last newline
+     */
+    private int consumeLines(byte[] bytes, int length) {
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                Event event = ingestion.parseLine(bytes, lineStart, i - lineStart);
+                if (event != null) {
+                    sink.accept(event);
+                    eventCount++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return lineStart;
+    }
+
+    private void saveCheckpoint() throws IOException {
+        if (offset == checkpointedOffset) {
+            return;
+        }
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(temp, (offset + "\n" + fileKey + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpointedOffset = offset;
+    }
+}
@@ -1,27 +1,128 @@
 package org.example.processing;
 
-import org.example.domain.OrderItem;
-import org.example.events.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.codec.BinaryEventReader;
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+import org.example.metrics.Instrumentation;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service for ingesting events from a JSON file and parsing them into event
  * objects.
  */
 public class EventIngestionService {
-    private final ObjectMapper objectMapper;
+
+    /**
+     * Selects how each JSON line is turned into an event.
+     */
+    public enum ParserMode {
+        /** Builds a JsonNode tree per line and reads fields from it. */
+        TREE,
+        /** Reads fields straight off the token stream with no intermediate tree. */
+        STREAMING
+    }
+
+    /**
+     * Selects the on-disk encoding of an events file.
+     */
+    public enum InputFormat {
+        /** One JSON object per line. */
+        JSON,
+        /** Compact binary records written by {@link org.example.codec.BinaryEventWriter}. */
+        BINARY
+    }
+
+    private final EventParser parser;
+    private final DiagnosticSink diagnostics;
+    private Instrumentation instrumentation = Instrumentation.DISABLED;
 
     public EventIngestionService() {
-        this.objectMapper = new ObjectMapper();
+        this(ParserMode.TREE);
+    }
+
+    public EventIngestionService(ParserMode parserMode) {
+        this(parserMode, new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param parserMode  how each JSON line is parsed
+     * @param diagnostics where unreadable files, unparseable lines and
+     *                    unknown event types are reported
+     */
+    public EventIngestionService(ParserMode parserMode, DiagnosticSink diagnostics) {
+        this(createParser(parserMode, diagnostics), diagnostics);
+    }
+
+    public EventIngestionService(EventParser parser) {
+        this(parser, new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * @param parser      parses each JSON line; it reports unknown event
+     *                    types through its own sink
+     * @param diagnostics where unreadable files and unparseable lines are
+     *                    reported
+     */
+    public EventIngestionService(EventParser parser, DiagnosticSink diagnostics) {
+        this.parser = parser;
+        this.diagnostics = diagnostics;
+    }
+
+    private static EventParser createParser(ParserMode parserMode, DiagnosticSink diagnostics) {
+        if (parserMode == ParserMode.STREAMING) {
+            StreamingEventParser parser = new StreamingEventParser();
+            parser.setDiagnostics(diagnostics);
+            return parser;
+        }
+        TreeEventParser parser = new TreeEventParser();
+        parser.setDiagnostics(diagnostics);
+        return parser;
+    }
+
+    /**
+     * Returns the sink this service and its readers report problems to.
+     * 
+     * @return the diagnostics sink
+     */
+    DiagnosticSink getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Reports a problem with a whole file at ERROR level.
+     * 
+     * @param format  the message format, without a trailing newline
+     * @param subject the file concerned
+     * @param cause   the failure
+     */
+    void reportError(String format, Object subject, Throwable cause) {
+        if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+            diagnostics.log(DiagnosticLevel.ERROR, String.format(format, subject, cause.getMessage()));
+        }
+    }
+
+    /**
+     * Records parse latency, parse errors and skipped unknown event types.
+     * Set before reading any file.
+     * 
+     * @param instrumentation where to record, or {@link Instrumentation#DISABLED}
+     */
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
     }
 
     /**
@@ -33,105 +134,232 @@ public class EventIngestionService {
      */
     public List<Event> readEventsFromFile(String filePath) {
         List<Event> events = new ArrayList<>();
+        readEventsFromFile(filePath, events::add);
+        return events;
+    }
+
+    /**
+     * Reads events from a JSON file and hands each one to the sink as soon as
+     * its line has been parsed. Only the current line is held in memory, so
+     * files of any size can be replayed in constant space.
+     * 
+     * @param filePath the path to the events file
+     * @param sink     receives each parsed event, in file order
+     * @return the number of events passed to the sink
+     */
+    public int readEventsFromFile(String filePath, Consumer<? super Event> sink) {
+        int count = 0;
 
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (!line.isEmpty()) {
-                    try {
-                        Event event = parseEventFromJson(line);
-                        if (event != null) {
-                            events.add(event);
-                        }
-                    } catch (Exception e) {
-                        System.err.printf("Error parsing event from line: %s - %s%n", line, e.getMessage());
-                    }
+                Event event = parseLine(line);
+                if (event != null) {
+                    sink.accept(event);
+                    count++;
                 }
             }
         } catch (IOException e) {
-            System.err.printf("Error reading file %s: %s%n", filePath, e.getMessage());
+            reportError("Error reading file %s: %s", filePath, e);
         }
 
-        return events;
+        return count;
     }
 
     /**
-     * Parses a JSON string into the appropriate Event subclass.
+     * Reads events from a file in the given format and hands each one to the
+     * sink as soon as it has been decoded.
      * 
-     * @param jsonLine the JSON string
-     * @return the parsed Event, or null if unknown type
-     * @throws Exception if parsing fails
+     * @param filePath the path to the events file
+     * @param format   the file's encoding
+     * @param sink     receives each event, in file order
+     * @return the number of events passed to the sink
      */
-    private Event parseEventFromJson(String jsonLine) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(jsonLine);
-
-        String eventId = rootNode.get("eventId").asText();
-        String eventType = rootNode.get("eventType").asText();
-        LocalDateTime timestamp = LocalDateTime.parse(rootNode.get("timestamp").asText(),
-                DateTimeFormatter.ISO_DATE_TIME);
-
-        switch (eventType) {
-            case "OrderCreated":
-                return parseOrderCreatedEvent(rootNode, eventId, timestamp);
-            case "PaymentReceived":
-                return parsePaymentReceivedEvent(rootNode, eventId, timestamp);
-            case "ShippingScheduled":
-                return parseShippingScheduledEvent(rootNode, eventId, timestamp);
-            case "OrderCancelled":
-                return parseOrderCancelledEvent(rootNode, eventId, timestamp);
-            default:
-                System.out.printf("Warning: Unknown event type '%s' for eventId '%s'%n", eventType, eventId);
-                return null;
+    public int readEventsFromFile(String filePath, InputFormat format, Consumer<? super Event> sink) {
+        if (format == InputFormat.BINARY) {
+            return new BinaryEventReader(diagnostics).readEvents(filePath, sink);
         }
+        return readEventsFromFile(filePath, sink);
     }
 
     /**
-     * Parses an OrderCreatedEvent from JSON.
+     * Reads events from a JSON file by parsing newline-aligned chunks of it in
+     * parallel on the common fork-join pool. Events are handed to the sink on
+     * the calling thread in their original file order.
+     * 
+     * @param filePath the path to the events file
+     * @param sink     receives each parsed event, in file order
+     * @return the number of events passed to the sink
+     * @see ParallelEventReader
      */
-    private OrderCreatedEvent parseOrderCreatedEvent(JsonNode node, String eventId, LocalDateTime timestamp) {
-        String orderId = node.get("orderId").asText();
-        String customerId = node.get("customerId").asText();
-        double totalAmount = node.get("totalAmount").asDouble();
+    public int readEventsFromFileParallel(String filePath, Consumer<? super Event> sink) {
+        return new ParallelEventReader(this, ForkJoinPool.commonPool()).readEvents(filePath, sink);
+    }
 
-        List<OrderItem> items = new ArrayList<>();
-        JsonNode itemsNode = node.get("items");
-        if (itemsNode.isArray()) {
-            for (JsonNode itemNode : itemsNode) {
-                String itemId = itemNode.get("itemId").asText();
-                int qty = itemNode.get("qty").asInt();
-                items.add(new OrderItem(itemId, qty));
-            }
+    /**
+     * Reads events from a JSON file through memory-mapped windows, handing the
+     * JSON parser byte slices of the mapping instead of decoded String lines.
+     * 
+     * @param filePath the path to the events file
+     * @param sink     receives each parsed event, in file order
+     * @return the number of events passed to the sink
+     * @see MappedEventReader
+     */
+    public int readEventsFromFileMapped(String filePath, Consumer<? super Event> sink) {
+        return new MappedEventReader(this).readEvents(filePath, sink);
+    }
+
+    /**
+     * Returns a lazily parsed stream of the events in a JSON file. Lines are
+     * only read as the stream is consumed; the stream must be closed to
+     * release the file handle.
+     * 
+     * @param filePath the path to the events file
+     * @return stream of parsed Event objects, empty if the file cannot be opened
+     */
+    public Stream<Event> streamEventsFromFile(String filePath) {
+        BufferedReader reader;
+        try {
+            reader = new BufferedReader(new FileReader(filePath));
+        } catch (IOException e) {
+            reportError("Error reading file %s: %s", filePath, e);
+            return Stream.empty();
         }
 
-        return new OrderCreatedEvent(eventId, timestamp, orderId, customerId, items, totalAmount);
+        return reader.lines()
+                .map(this::parseLine)
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        reportError("Error closing file %s: %s", filePath, e);
+                    }
+                });
     }
 
     /**
-     * Parses a PaymentReceivedEvent from JSON.
+     * Parses a single line of the events file, reporting and skipping lines
+     * that are blank or cannot be parsed.
+     * 
+     * @param line the raw line
+     * @return the parsed Event, or null if the line yields no event
      */
-    private PaymentReceivedEvent parsePaymentReceivedEvent(JsonNode node, String eventId, LocalDateTime timestamp) {
-        String orderId = node.get("orderId").asText();
-        double amountPaid = node.get("amountPaid").asDouble();
-        return new PaymentReceivedEvent(eventId, timestamp, orderId, amountPaid);
+    Event parseLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        return parseTimed(() -> parseEventFromJson(trimmed), () -> trimmed);
     }
 
     /**
-     * Parses a ShippingScheduledEvent from JSON.
+     * Parses a UTF-8 encoded line held in a byte array, reporting and skipping
+     * lines that are blank or cannot be parsed. Surrounding whitespace is
+     * skipped without copying the bytes.
+     * 
+     * @param buffer the bytes holding the line
+     * @param offset start of the line within the buffer
+     * @param length number of bytes in the line, excluding the newline
+     * @return the parsed Event, or null if the line yields no event
      */
-    private ShippingScheduledEvent parseShippingScheduledEvent(JsonNode node, String eventId, LocalDateTime timestamp) {
-        String orderId = node.get("orderId").asText();
-        LocalDateTime shippingDate = LocalDateTime.parse(node.get("shippingDate").asText(),
-                DateTimeFormatter.ISO_DATE_TIME);
-        return new ShippingScheduledEvent(eventId, timestamp, orderId, shippingDate);
+    Event parseLine(byte[] buffer, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && isWhitespace(buffer[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        int lineStart = start;
+        int lineLength = end - start;
+        return parseTimed(() -> parser.parse(buffer, lineStart, lineLength),
+                () -> new String(buffer, lineStart, lineLength, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a UTF-8 encoded line held in a byte buffer, such as a window of a
+     * memory-mapped file, reporting and skipping lines that are blank or
+     * cannot be parsed. The bytes are handed to the parser in place.
+     * 
+     * @param buffer the buffer holding the line
+     * @param offset absolute start of the line within the buffer
+     * @param length number of bytes in the line, excluding the newline
+     * @return the parsed Event, or null if the line yields no event
+     */
+    Event parseLine(ByteBuffer buffer, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+
+        ByteBuffer line = buffer.duplicate();
+        line.limit(end).position(start);
+        int lineStart = start;
+        int lineLength = end - start;
+        return parseTimed(() -> parser.parse(line), () -> {
+            byte[] bytes = new byte[lineLength];
+            line.clear().position(lineStart);
+            line.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Runs one parse of a trimmed, non-blank line, timing it and reporting
+     * and skipping a line that cannot be parsed.
+     * 
+     * @param parse    parses the line
+     * @param lineText renders the line for the error report; called only on failure
+     * @return the parsed Event, or null if the line yields no event
+     */
+    private Event parseTimed(LineParse parse, Supplier<String> lineText) {
+        long start = instrumentation.startTimer();
+        try {
+            Event event = parse.parse();
+            instrumentation.recordParse(start, event);
+            return event;
+        } catch (Exception e) {
+            instrumentation.recordParseError();
+            if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+                diagnostics.log(DiagnosticLevel.ERROR,
+                        String.format("Error parsing event from line: %s - %s", lineText.get(), e.getMessage()));
+            }
+            return null;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * Parses a JSON string into the appropriate Event subclass.
+     * 
+     * @param jsonLine the JSON string
+     * @return the parsed Event, or null if unknown type
+     * @throws Exception if parsing fails
+     */
+    private Event parseEventFromJson(String jsonLine) throws Exception {
+        return parser.parse(jsonLine);
     }
 
     /**
-     * Parses an OrderCancelledEvent from JSON.
+     * One parse of one line, by whichever parser overload suits its form.
      */
-    private OrderCancelledEvent parseOrderCancelledEvent(JsonNode node, String eventId, LocalDateTime timestamp) {
-        String orderId = node.get("orderId").asText();
-        String reason = node.get("reason").asText();
-        return new OrderCancelledEvent(eventId, timestamp, orderId, reason);
+    @FunctionalInterface
+    private interface LineParse {
+        Event parse() throws Exception;
     }
 }
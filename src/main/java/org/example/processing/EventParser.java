@@ -0,0 +1,56 @@
+package org.example.processing;
+
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Turns a single JSON-encoded event into the matching Event subclass.
+ * Implementations must be safe to share between threads.
+ */
+public interface EventParser {
+    /**
+     * Selects how parsed events carry their timestamp.
+     */
+    enum TimestampMode {
+        /** As a LocalDateTime, created while parsing. */
+        LOCAL_DATE_TIME,
+        /**
+         * As microseconds since the epoch (see {@link Event#getEpochMicros()});
+         * the LocalDateTime is only created if asked for.
+         */
+        EPOCH_MICROS
+    }
+
+    /**
+     * Parses a JSON string into an event.
+     * 
+     * @param json the JSON object text
+     * @return the parsed Event, or null if the event type is unknown
+     * @throws IOException if the JSON is malformed or a required field is missing
+     */
+    Event parse(String json) throws IOException;
+
+    /**
+     * Parses UTF-8 encoded JSON from a slice of a byte array into an event.
+     * 
+     * @param buffer the bytes holding the JSON object
+     * @param offset start of the JSON object within the buffer
+     * @param length number of bytes in the JSON object
+     * @return the parsed Event, or null if the event type is unknown
+     * @throws IOException if the JSON is malformed or a required field is missing
+     */
+    Event parse(byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Parses UTF-8 encoded JSON from the remaining bytes of a buffer into an
+     * event. The buffer may be a slice of a memory-mapped file; its contents
+     * are read in place rather than copied into a String first.
+     * 
+     * @param buffer the buffer whose remaining bytes hold the JSON object
+     * @return the parsed Event, or null if the event type is unknown
+     * @throws IOException if the JSON is malformed or a required field is missing
+     */
+    Event parse(ByteBuffer buffer) throws IOException;
+}
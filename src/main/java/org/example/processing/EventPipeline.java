@@ -0,0 +1,345 @@
+package org.example.processing;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.observers.ObserverSubscription;
+import org.example.observers.OrderObserver;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ingestion, processing and observer notification as separate stages
+ * connected by bounded queues:
+ * 
+ * <pre>
+ * read lines -> parse events -> process orders -> notify observers
+ * </pre>
+ * 
+ * Each stage runs on its own thread created by the configured
+ * {@link ThreadFactory}, so platform or virtual threads can be used. A full
+ * queue blocks the stage feeding it, which gives backpressure all the way
+ * back to the file reader; a slow observer therefore only delays parsing once
+ * the queues in front of it are full. When the file is exhausted an
+ * end-of-stream marker flows through every stage, so {@link #run} returns
+ * only after each queued item has been handled. A stage that stops early,
+ * because it was interrupted or failed, still passes the marker on and then
+ * discards the rest of its input, so no other stage is left blocked.
+ * 
+ * Observers registered on the pipeline run on the notifier thread. They see
+ * the previous and new status as they were when the event was applied, but
+ * the Order itself may already reflect later events.
+ */
+public class EventPipeline {
+    /** Default capacity of each inter-stage queue. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final Object END = new Object();
+
+    private final EventIngestionService ingestionService;
+    private final EventProcessor eventProcessor;
+    private final int queueCapacity;
+    private final ThreadFactory threadFactory;
+    private final List<OrderObserver> observers;
+    private final List<ObserverSubscription> subscriptions;
+
+    public EventPipeline(EventIngestionService ingestionService, EventProcessor eventProcessor) {
+        this(ingestionService, eventProcessor, DEFAULT_QUEUE_CAPACITY, defaultThreadFactory());
+    }
+
+    public EventPipeline(EventIngestionService ingestionService, EventProcessor eventProcessor,
+            int queueCapacity, ThreadFactory threadFactory) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.ingestionService = ingestionService;
+        this.eventProcessor = eventProcessor;
+        this.queueCapacity = queueCapacity;
+        this.threadFactory = threadFactory;
+        this.observers = new ArrayList<>();
+        this.subscriptions = new ArrayList<>();
+    }
+
+    /**
+     * Registers an observer that is notified on the pipeline's notifier stage
+     * rather than inline with event processing.
+     * 
+     * @param observer the observer to add
+     */
+    public void addObserver(OrderObserver observer) {
+        this.observers.add(observer);
+        this.subscriptions.add(observer.getSubscription());
+    }
+
+    /**
+     * Streams the file through all stages and waits for every stage to drain.
+     * 
+     * @param filePath the path to the events file
+     * @return the number of events applied to an order; events that were
+     *         skipped as duplicates or unsupported, named a missing order or
+     *         failed are not counted
+     * @throws InterruptedException if interrupted while waiting; all stages
+     *                              are interrupted as well
+     */
+    public int run(String filePath) throws InterruptedException {
+        BlockingQueue<Object> lines = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> events = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> notifications = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger applied = new AtomicInteger();
+
+        OrderObserver forwarder = new NotificationForwarder(notifications, applied);
+        eventProcessor.addObserver(forwarder);
+
+        List<Thread> stages = new ArrayList<>();
+        stages.add(threadFactory.newThread(() -> readLines(filePath, lines)));
+        stages.add(threadFactory.newThread(() -> parseLines(lines, events)));
+        stages.add(threadFactory.newThread(() -> processEvents(events, notifications)));
+        stages.add(threadFactory.newThread(() -> notifyObservers(notifications)));
+
+        try {
+            for (Thread stage : stages) {
+                stage.start();
+            }
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread stage : stages) {
+                stage.interrupt();
+            }
+            throw e;
+        } finally {
+            eventProcessor.removeObserver(forwarder);
+        }
+
+        return applied.get();
+    }
+
+    private void readLines(String filePath, BlockingQueue<Object> out) {
+        boolean completed = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                out.put(line);
+            }
+            completed = true;
+        } catch (IOException e) {
+            ingestionService.reportError("Error reading file %s: %s", filePath, e);
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endStage(null, out, completed);
+        }
+    }
+
+    private void parseLines(BlockingQueue<Object> in, BlockingQueue<Object> out) {
+        boolean completed = false;
+        try {
+            Object item;
+            while ((item = in.take()) != END) {
+                Event event = ingestionService.parseLine((String) item);
+                if (event != null) {
+                    out.put(event);
+                }
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endStage(in, out, completed);
+        }
+    }
+
+    private void processEvents(BlockingQueue<Object> in, BlockingQueue<Object> out) {
+        boolean completed = false;
+        try {
+            Object item;
+            while ((item = in.take()) != END) {
+                eventProcessor.processEvent((Event) item);
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endStage(in, out, completed);
+        }
+    }
+
+    private void notifyObservers(BlockingQueue<Object> in) {
+        boolean completed = false;
+        try {
+            Object item;
+            while ((item = in.take()) != END) {
+                Notification notification = (Notification) item;
+                for (int i = 0; i < observers.size(); i++) {
+                    if (notification.isAcceptedBy(subscriptions.get(i))) {
+                        deliver(notification, observers.get(i));
+                    }
+                }
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endStage(in, null, completed);
+        }
+    }
+
+    /**
+     * Delivers one notification, reporting rather than propagating observer
+     * failures so that one bad observer cannot stop the notifier stage and
+     * stall the stages feeding it.
+     */
+    private void deliver(Notification notification, OrderObserver observer) {
+        try {
+            notification.deliver(observer);
+        } catch (RuntimeException e) {
+            DiagnosticSink diagnostics = ingestionService.getDiagnostics();
+            if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+                diagnostics.log(DiagnosticLevel.ERROR,
+                        String.format("Observer %s failed: %s", OrderObserver.nameOf(observer), e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Ends a stage, whether its input ran out or it stopped early. END is
+     * always passed downstream; after an early stop the queued output is
+     * abandoned to make room for it, and the rest of the input is discarded
+     * up to the upstream stage's END so that stage cannot block on a full
+     * queue. The thread's interrupt status is kept.
+     * 
+     * @param in        the stage's input, or null for the first stage
+     * @param out       the stage's output, or null for the last stage
+     * @param completed whether the stage consumed all of its input
+     */
+    private static void endStage(BlockingQueue<Object> in, BlockingQueue<Object> out, boolean completed) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (out != null) {
+                boolean ended = false;
+                if (completed && !interrupted) {
+                    try {
+                        out.put(END);
+                        ended = true;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (!ended) {
+                    // Only this stage adds to out, so a cleared queue has room
+                    out.clear();
+                    out.offer(END);
+                }
+            }
+            if (in != null && !completed) {
+                while (true) {
+                    try {
+                        if (in.take() == END) {
+                            break;
+                        }
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory defaultThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "event-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An observer callback captured on the processing stage for later delivery.
+     */
+    private static final class Notification {
+        private final Order order;
+        private final Event event;
+        private final Order replaced;
+        private final OrderStatus previousStatus;
+        private final OrderStatus newStatus;
+
+        Notification(Order order, Event event, Order replaced, OrderStatus previousStatus, OrderStatus newStatus) {
+            this.order = order;
+            this.event = event;
+            this.replaced = replaced;
+            this.previousStatus = previousStatus;
+            this.newStatus = newStatus;
+        }
+
+        boolean isAcceptedBy(ObserverSubscription subscription) {
+            return event != null ? subscription.accepts(event, order) : subscription.accepts(order, previousStatus, newStatus);
+        }
+
+        void deliver(OrderObserver observer) {
+            if (replaced != null) {
+                observer.onOrderReplaced(event, replaced, order);
+            } else if (event != null) {
+                observer.onEventProcessed(event, order);
+            } else {
+                observer.onOrderStatusChanged(order, previousStatus, newStatus);
+            }
+        }
+    }
+
+    /**
+     * Registered on the processor; turns callbacks into queued notifications.
+     */
+    private static final class NotificationForwarder implements OrderObserver {
+        private final BlockingQueue<Object> out;
+        private final AtomicInteger applied;
+
+        NotificationForwarder(BlockingQueue<Object> out, AtomicInteger applied) {
+            this.out = out;
+            this.applied = applied;
+        }
+
+        @Override
+        public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+            enqueue(new Notification(order, null, null, previousStatus, newStatus));
+        }
+
+        @Override
+        public void onOrderReplaced(Event event, Order replaced, Order order) {
+            enqueue(new Notification(order, event, replaced, null, null));
+        }
+
+        @Override
+        public void onEventProcessed(Event event, Order order) {
+            // The processor reports every event it handles; only applied ones carry their order
+            if (order != null) {
+                applied.incrementAndGet();
+            }
+            enqueue(new Notification(order, event, null, null, null));
+        }
+
+        private void enqueue(Notification notification) {
+            try {
+                out.put(notification);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,34 +1,151 @@
 package org.example.processing;
 
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.HistoryRetention;
 import org.example.domain.Order;
 import org.example.domain.OrderStatus;
-import org.example.events.*;
+import org.example.events.Event;
+import org.example.handlers.EventHandler;
+import org.example.handlers.EventHandlerRegistry;
+import org.example.handlers.HandlerContext;
+import org.example.metrics.Instrumentation;
+import org.example.metrics.LatencyHistogram;
+import org.example.observers.AsyncObserver;
+import org.example.observers.BatchOrderObserver;
+import org.example.observers.ObserverSubscription;
 import org.example.observers.OrderObserver;
+import org.example.store.HashMapOrderStore;
+import org.example.store.OrderIndex;
+import org.example.store.OrderStore;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Processes events and updates orders, notifying observers of changes.
  */
 public class EventProcessor {
-    private final Map<String, Order> orders;
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+
+    private final OrderStore orders;
+    private final OrderIndex index = new OrderIndex();
     private final List<OrderObserver> observers;
+    private final DiagnosticSink diagnostics;
+    private final EventHandlerRegistry handlers;
+    private final HandlerContext handlerContext = new ProcessorContext();
+    private EventDeduplicator deduplicator;
+    private HistoryRetention historyRetention = HistoryRetention.KEEP_ALL;
+    private Instrumentation instrumentation = Instrumentation.DISABLED;
+    private LatencyHistogram[] observerLatencies = new LatencyHistogram[0];
+
+    // Routing tables built from the observers' subscriptions: the indexes of
+    // the observers to call per status transition, and per event class (by
+    // Event.typeOrdinal, filled in on first use along with the eventType the
+    // route was computed for)
+    private final List<ObserverSubscription> subscriptions = new ArrayList<>();
+    private int[][] statusRoutes;
+    private int[][] eventRoutes = new int[0][];
+    private String[] eventRouteTypes = new String[0];
+
+    // Scratch space for processBatch, reused between batches: an
+    // open-addressing table from orderId to group, and per-event links
+    private String[] groupKeys = new String[0];
+    private int[] groupIndexes = new int[0];
+    private final List<BatchGroup> batchGroups = new ArrayList<>();
+    private int[] nextInGroup = new int[0];
 
     public EventProcessor() {
-        this.orders = new HashMap<>();
+        this(new ConsoleDiagnosticSink());
+    }
+
+    /**
+     * Creates a processor that reports progress and problems to the given
+     * sink. Pass {@link DiagnosticSink#QUIET} to process events without any
+     * message formatting or console output.
+     * 
+     * @param diagnostics the sink for diagnostic messages
+     */
+    public EventProcessor(DiagnosticSink diagnostics) {
+        this(diagnostics, new HashMapOrderStore());
+    }
+
+    /**
+     * Creates a processor that keeps its orders in the given store, for
+     * example a {@link org.example.store.ColumnarOrderStore} when holding
+     * many open orders.
+     * 
+     * @param diagnostics the sink for diagnostic messages
+     * @param orderStore  where orders are kept
+     */
+    public EventProcessor(DiagnosticSink diagnostics, OrderStore orderStore) {
+        this(diagnostics, orderStore, EventHandlerRegistry.getDefault());
+    }
+
+    /**
+     * Creates a processor that dispatches events to the handlers in the
+     * given registry, for example one with handlers for additional event
+     * types.
+     * 
+     * @param diagnostics the sink for diagnostic messages
+     * @param orderStore  where orders are kept
+     * @param handlers    the handler for each event type
+     */
+    public EventProcessor(DiagnosticSink diagnostics, OrderStore orderStore, EventHandlerRegistry handlers) {
+        this.orders = orderStore;
         this.observers = new ArrayList<>();
+        this.diagnostics = diagnostics;
+        this.handlers = handlers;
+        buildRoutes();
     }
 
     /**
-     * Registers an observer to receive notifications.
+     * Registers an observer to receive the notifications its
+     * {@link OrderObserver#getSubscription() subscription} asks for.
      * 
      * @param observer the observer to add
      */
     public void addObserver(OrderObserver observer) {
+        addObserver(observer, observer.getSubscription());
+    }
+
+    /**
+     * Registers an observer to receive only the notifications in the given
+     * subscription, instead of the one the observer declares.
+     * 
+     * @param observer     the observer to add
+     * @param subscription the notifications to deliver to it
+     */
+    public void addObserver(OrderObserver observer, ObserverSubscription subscription) {
         this.observers.add(observer);
+        this.subscriptions.add(subscription);
+        resolveObserverLatencies();
+        buildRoutes();
+    }
+
+    /**
+     * Registers an observer that is notified asynchronously from its own
+     * dispatch thread instead of inline with event processing. The returned
+     * wrapper exposes queue depth and lag, and must be closed to stop the
+     * dispatch thread.
+     * 
+     * @param observer       the observer to add
+     * @param overflowPolicy what to do when the observer falls behind
+     * @param capacity       the observer's ring buffer capacity
+     * @return the registered asynchronous wrapper
+     */
+    public AsyncObserver addAsyncObserver(OrderObserver observer, AsyncObserver.OverflowPolicy overflowPolicy,
+            int capacity) {
+        AsyncObserver asyncObserver = new AsyncObserver(observer, overflowPolicy, capacity);
+        addObserver(asyncObserver);
+        return asyncObserver;
     }
 
     /**
@@ -37,7 +154,141 @@ public class EventProcessor {
      * @param observer the observer to remove
      */
     public void removeObserver(OrderObserver observer) {
-        this.observers.remove(observer);
+        int i = observers.indexOf(observer);
+        if (i < 0) {
+            return;
+        }
+        observers.remove(i);
+        subscriptions.remove(i);
+        resolveObserverLatencies();
+        buildRoutes();
+    }
+
+    /**
+     * Records handler and observer latencies, events by type, missing orders
+     * and unsupported event types.
+     * 
+     * @param instrumentation where to record, or {@link Instrumentation#DISABLED}
+     */
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        resolveObserverLatencies();
+    }
+
+    /**
+     * Looks up each observer's histogram once, so that notification does not
+     * need a map lookup per callback.
+     */
+    private void resolveObserverLatencies() {
+        LatencyHistogram[] latencies = new LatencyHistogram[observers.size()];
+        if (instrumentation.isEnabled()) {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = instrumentation.observerLatency(observers.get(i));
+            }
+        }
+        observerLatencies = latencies;
+    }
+
+    /**
+     * Precomputes which observers want each status transition, indexed by
+     * {@link #transitionIndex}; routes for processed events are computed per
+     * event class on first use.
+     */
+    private void buildRoutes() {
+        OrderStatus[] statuses = OrderStatus.values();
+        int[][] routes = new int[statuses.length * statuses.length][];
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                routes[transitionIndex(from, to)] = route(subscription -> subscription.includesTransition(from, to));
+            }
+        }
+        statusRoutes = routes;
+        eventRoutes = new int[eventRoutes.length][];
+        eventRouteTypes = new String[eventRouteTypes.length];
+    }
+
+    private static int transitionIndex(OrderStatus from, OrderStatus to) {
+        return from.ordinal() * STATUS_COUNT + to.ordinal();
+    }
+
+    private int[] route(Predicate<ObserverSubscription> included) {
+        int[] route = new int[subscriptions.size()];
+        int count = 0;
+        for (int i = 0; i < route.length; i++) {
+            if (included.test(subscriptions.get(i))) {
+                route[count++] = i;
+            }
+        }
+        return Arrays.copyOf(route, count);
+    }
+
+    /**
+     * Returns the observers that want events like this one, computing the
+     * route on the first event of its class.
+     */
+    private int[] eventRoute(Event event) {
+        int ordinal = event.typeOrdinal();
+        if (ordinal >= eventRoutes.length) {
+            int length = Math.max(ordinal + 1, eventRoutes.length * 2);
+            eventRoutes = Arrays.copyOf(eventRoutes, length);
+            eventRouteTypes = Arrays.copyOf(eventRouteTypes, length);
+        }
+        int[] route = eventRoutes[ordinal];
+        String eventType = event.getEventType();
+        // Event classes normally have one eventType, so this is a reference
+        // comparison; a class with several just recomputes when it changes
+        if (route == null || !Objects.equals(eventRouteTypes[ordinal], eventType)) {
+            route = route(subscription -> subscription.includesEventType(eventType));
+            eventRoutes[ordinal] = route;
+            eventRouteTypes[ordinal] = eventType;
+        }
+        return route;
+    }
+
+    /**
+     * Applies an observer's order predicate, if its subscription has one.
+     */
+    private boolean isFilteredOut(int observer, Order order) {
+        Predicate<? super Order> filter = subscriptions.get(observer).getFilter();
+        return filter != null && (order == null || !filter.test(order));
+    }
+
+    /**
+     * Enables idempotent processing: events whose eventId was already applied
+     * within the deduplicator's window are skipped without touching any order
+     * or notifying observers. An event is remembered only once it has been
+     * applied to an order, so one that failed or whose order did not exist
+     * yet is processed again when redelivered. Pass null to disable
+     * deduplication.
+     * 
+     * @param deduplicator the deduplication window, or null
+     */
+    public void setDeduplicator(EventDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * @return the deduplicator in use, or null if deduplication is disabled
+     */
+    public EventDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    /**
+     * Sets how much event history new and restored orders keep in memory.
+     * Orders already held by the processor keep their current policy.
+     * 
+     * @param historyRetention the retention policy
+     */
+    public void setHistoryRetention(HistoryRetention historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
+    /**
+     * @return the retention policy for new and restored orders
+     */
+    public HistoryRetention getHistoryRetention() {
+        return historyRetention;
     }
 
     /**
@@ -47,142 +298,451 @@ public class EventProcessor {
      * @param event the event to process
      */
     public void processEvent(Event event) {
+        if (isDuplicate(event)) {
+            return;
+        }
+
         try {
-            if (event instanceof OrderCreatedEvent) {
-                processOrderCreatedEvent((OrderCreatedEvent) event);
-            } else if (event instanceof PaymentReceivedEvent) {
-                processPaymentReceivedEvent((PaymentReceivedEvent) event);
-            } else if (event instanceof ShippingScheduledEvent) {
-                processShippingScheduledEvent((ShippingScheduledEvent) event);
-            } else if (event instanceof OrderCancelledEvent) {
-                processOrderCancelledEvent((OrderCancelledEvent) event);
-            } else {
-                System.out.printf("Warning: Unsupported event type '%s' with eventId '%s'%n",
-                        event.getEventType(), event.getEventId());
+            long start = instrumentation.startTimer();
+            EventHandler<Event> handler = handlers.forEvent(event);
+            if (handler == null) {
+                reportUnsupported(event);
                 return;
             }
+            Order current = orders.get(handler.getOrderId(event));
+            OrderStatus previousStatus = current != null ? current.getStatus() : null;
+            Order relatedOrder = handler.apply(event, current, handlerContext);
+            if (relatedOrder != null) {
+                store(current, relatedOrder, previousStatus);
+            }
+
+            instrumentation.recordHandled(event, start);
+            if (relatedOrder != null) {
+                rememberApplied(event);
+                // Report the replaced order or status change before the event
+                if (relatedOrder != current) {
+                    if (current != null) {
+                        notifyOrderReplaced(event, current, relatedOrder);
+                    }
+                } else {
+                    notifyStatusChanged(relatedOrder, previousStatus, relatedOrder.getStatus());
+                }
+            }
 
             // Notify observers that an event was processed
-            Order relatedOrder = getRelatedOrder(event);
             notifyEventProcessed(event, relatedOrder);
 
         } catch (Exception e) {
-            System.err.printf("Error processing event %s: %s%n", event.getEventId(), e.getMessage());
+            reportFailure(event, e);
         }
     }
 
     /**
-     * Handles OrderCreatedEvent: creates a new order.
+     * Stores the order an event was applied to: a new instance replaces the
+     * current one, and one changed in place is written back.
      */
-    private void processOrderCreatedEvent(OrderCreatedEvent event) {
-        Order order = new Order(event.getOrderId(), event.getCustomerId(),
-                event.getItems(), event.getTotalAmount());
-        order.addEventToHistory(event);
-        orders.put(order.getOrderId(), order);
+    private void store(Order current, Order order, OrderStatus previousStatus) {
+        if (order != current) {
+            replace(current, order);
+        } else {
+            writeBack(order, previousStatus);
+        }
+    }
 
-        System.out.printf("Created new order: %s%n", order);
+    /**
+     * Processes a block of events grouped by orderId. Each order's events
+     * are applied in their original relative order, and orders are processed
+     * one after another in the order they first appear in the block. Each
+     * order is looked up and written back once per batch rather than once
+     * per event.
+     * <p>
+     * Observers are notified once the whole block has been applied, one
+     * observer at a time. A {@link BatchOrderObserver} receives each run of
+     * processed events between two status changes in a single call. Because
+     * notification is deferred, the orders it carries may already reflect
+     * later events of the same block.
+     * 
+     * @param events the events to process
+     */
+    public void processBatch(List<? extends Event> events) {
+        int groupCount = groupByOrder(events);
+        BatchNotifications notifications = observers.isEmpty() ? null : new BatchNotifications(events.size());
+        for (int g = 0; g < groupCount; g++) {
+            BatchGroup group = batchGroups.get(g);
+            processOrderGroup(events, group, notifications);
+            group.orderId = null;
+        }
+        if (notifications != null) {
+            notifyBatch(notifications);
+        }
     }
 
     /**
-     * Handles PaymentReceivedEvent: updates order status to PAID or PARTIALLY_PAID.
+     * Chains each order's events together through {@link #nextInGroup},
+     * skipping unsupported types, without allocating a list per order.
+     * Duplicates are skipped when the group is applied, so that a repeat
+     * within the same batch sees the first copy already applied.
+     * 
+     * @return the number of groups filled in {@link #batchGroups}
      */
-    private void processPaymentReceivedEvent(PaymentReceivedEvent event) {
-        Order order = orders.get(event.getOrderId());
-        if (order == null) {
-            System.err.printf("Order not found for payment event: %s%n", event.getOrderId());
-            return;
+    private int groupByOrder(List<? extends Event> events) {
+        if (nextInGroup.length < events.size()) {
+            nextInGroup = new int[events.size()];
+        }
+        int tableSize = Integer.highestOneBit(Math.max(events.size(), 8) * 2 - 1) << 1;
+        if (groupKeys.length < tableSize) {
+            groupKeys = new String[tableSize];
+            groupIndexes = new int[tableSize];
         }
+        int mask = groupKeys.length - 1;
+
+        int groupCount = 0;
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            EventHandler<Event> handler = handlers.forEvent(event);
+            if (handler == null) {
+                reportUnsupported(event);
+                continue;
+            }
+            String orderId = handler.getOrderId(event);
+            nextInGroup[i] = -1;
+
+            int h = orderId.hashCode();
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (groupKeys[slot] != null && !groupKeys[slot].equals(orderId)) {
+                slot = (slot + 1) & mask;
+            }
+            if (groupKeys[slot] != null) {
+                BatchGroup group = batchGroups.get(groupIndexes[slot]);
+                nextInGroup[group.last] = i;
+                group.last = i;
+                continue;
+            }
 
-        String previousStatus = order.getStatus().name();
+            if (groupCount == batchGroups.size()) {
+                batchGroups.add(new BatchGroup());
+            }
+            BatchGroup group = batchGroups.get(groupCount);
+            group.orderId = orderId;
+            group.first = i;
+            group.last = i;
+            group.slot = slot;
+            groupKeys[slot] = orderId;
+            groupIndexes[slot] = groupCount++;
+        }
 
-        if (event.getAmountPaid() >= order.getTotalAmount()) {
-            order.setStatus(OrderStatus.PAID);
-        } else if (event.getAmountPaid() > 0) {
-            order.setStatus(OrderStatus.PARTIALLY_PAID);
+        for (int g = 0; g < groupCount; g++) {
+            groupKeys[batchGroups.get(g).slot] = null;
         }
+        return groupCount;
+    }
+
+    /**
+     * Applies one order's share of a batch to a single looked-up instance,
+     * writing it back to the store and index when the group is done.
+     */
+    private void processOrderGroup(List<? extends Event> events, BatchGroup group,
+            BatchNotifications notifications) {
+        Order order = orders.get(group.orderId);
+        OrderStatus storedStatus = order != null ? order.getStatus() : null;
+        boolean modified = false;
 
-        order.addEventToHistory(event);
-        notifyStatusChanged(order, previousStatus, order.getStatus().name());
+        for (int i = group.first; i != -1; i = nextInGroup[i]) {
+            Event event = events.get(i);
+            if (isDuplicate(event)) {
+                continue;
+            }
+            try {
+                long start = instrumentation.startTimer();
+                Order current = order;
+                OrderStatus previousStatus = current != null ? current.getStatus() : null;
+                Order result = handlers.forEvent(event).apply(event, current, handlerContext);
+                Order replaced = null;
+                if (result != null && result != current) {
+                    if (modified) {
+                        writeBack(current, storedStatus);
+                    }
+                    replace(current, result);
+                    replaced = current;
+                    order = result;
+                    storedStatus = result.getStatus();
+                    modified = false;
+                    previousStatus = null;
+                } else if (result != null) {
+                    modified = true;
+                } else {
+                    previousStatus = null;
+                }
+                instrumentation.recordHandled(event, start);
+                if (result != null) {
+                    rememberApplied(event);
+                }
+                if (notifications != null) {
+                    notifications.add(event, result, replaced, previousStatus,
+                            result != null ? result.getStatus() : null);
+                }
+            } catch (Exception e) {
+                reportFailure(event, e);
+            }
+        }
 
-        System.out.printf("Payment processed for order %s: $%.2f (Status: %s)%n",
-                order.getOrderId(), event.getAmountPaid(), order.getStatus());
+        if (modified) {
+            writeBack(order, storedStatus);
+        }
     }
 
     /**
-     * Handles ShippingScheduledEvent: updates order status to SHIPPED.
+     * Saves an order changed in place and moves it between status index
+     * entries if its status changed.
      */
-    private void processShippingScheduledEvent(ShippingScheduledEvent event) {
-        Order order = orders.get(event.getOrderId());
-        if (order == null) {
-            System.err.printf("Order not found for shipping event: %s%n", event.getOrderId());
-            return;
+    private void writeBack(Order order, OrderStatus storedStatus) {
+        orders.update(order);
+        index.updateStatus(order.getOrderId(), storedStatus, order.getStatus());
+    }
+
+    /**
+     * Checks an event against the deduplication window, if there is one.
+     */
+    private boolean isDuplicate(Event event) {
+        if (deduplicator == null || !deduplicator.isSeen(event.getEventId())) {
+            return false;
+        }
+        if (diagnostics.isEnabled(DiagnosticLevel.DEBUG)) {
+            diagnostics.log(DiagnosticLevel.DEBUG, String.format("Skipping duplicate event %s (%s)",
+                    event.getEventId(), event.getEventType()));
         }
+        return true;
+    }
 
-        String previousStatus = order.getStatus().name();
-        order.setStatus(OrderStatus.SHIPPED);
-        order.addEventToHistory(event);
+    /**
+     * Adds an applied event to the deduplication window, if there is one.
+     */
+    private void rememberApplied(Event event) {
+        if (deduplicator != null) {
+            deduplicator.remember(event.getEventId());
+        }
+    }
 
-        notifyStatusChanged(order, previousStatus, order.getStatus().name());
+    private void reportUnsupported(Event event) {
+        instrumentation.recordUnknownEventType();
+        if (diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+            diagnostics.log(DiagnosticLevel.WARN, String.format(
+                    "Warning: Unsupported event type '%s' with eventId '%s'",
+                    event.getEventType(), event.getEventId()));
+        }
+    }
 
-        System.out.printf("Shipping scheduled for order %s on %s%n",
-                order.getOrderId(), event.getShippingDate());
+    private void reportFailure(Event event, Exception e) {
+        if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+            diagnostics.log(DiagnosticLevel.ERROR, String.format("Error processing event %s: %s",
+                    event.getEventId(), e.getMessage()));
+        }
     }
 
     /**
-     * Handles OrderCancelledEvent: updates order status to CANCELLED.
+     * Reports an event whose order does not exist.
      */
-    private void processOrderCancelledEvent(OrderCancelledEvent event) {
-        Order order = orders.get(event.getOrderId());
-        if (order == null) {
-            System.err.printf("Order not found for cancellation event: %s%n", event.getOrderId());
+    private void reportOrderNotFound(String eventKind, String orderId) {
+        instrumentation.recordOrderNotFound();
+        if (diagnostics.isEnabled(DiagnosticLevel.ERROR)) {
+            diagnostics.log(DiagnosticLevel.ERROR,
+                    "Order not found for " + eventKind + " event: " + orderId);
+        }
+    }
+
+    /**
+     * Notifies the observers subscribed to the status transition.
+     */
+    private void notifyStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+        int[] route = statusRoutes[transitionIndex(previousStatus, newStatus)];
+        // Indexed loops avoid allocating an iterator per notification
+        if (instrumentation.isEnabled()) {
+            for (int r = 0; r < route.length; r++) {
+                int i = route[r];
+                if (!isFilteredOut(i, order)) {
+                    long start = System.nanoTime();
+                    observers.get(i).onOrderStatusChanged(order, previousStatus, newStatus);
+                    observerLatencies[i].record(System.nanoTime() - start);
+                }
+            }
             return;
         }
+        for (int r = 0; r < route.length; r++) {
+            int i = route[r];
+            if (!isFilteredOut(i, order)) {
+                observers.get(i).onOrderStatusChanged(order, previousStatus, newStatus);
+            }
+        }
+    }
 
-        String previousStatus = order.getStatus().name();
-        order.setStatus(OrderStatus.CANCELLED);
-        order.addEventToHistory(event);
+    /**
+     * Notifies the observers subscribed to the event's type that it replaced
+     * an order.
+     */
+    private void notifyOrderReplaced(Event event, Order replaced, Order order) {
+        int[] route = eventRoute(event);
+        for (int r = 0; r < route.length; r++) {
+            int i = route[r];
+            if (!isFilteredOut(i, order)) {
+                observers.get(i).onOrderReplaced(event, replaced, order);
+            }
+        }
+    }
 
-        notifyStatusChanged(order, previousStatus, order.getStatus().name());
+    /**
+     * Notifies the observers subscribed to the event's type.
+     */
+    private void notifyEventProcessed(Event event, Order order) {
+        if (observers.isEmpty()) {
+            return;
+        }
+        int[] route = eventRoute(event);
+        if (instrumentation.isEnabled()) {
+            for (int r = 0; r < route.length; r++) {
+                int i = route[r];
+                if (!isFilteredOut(i, order)) {
+                    long start = System.nanoTime();
+                    observers.get(i).onEventProcessed(event, order);
+                    observerLatencies[i].record(System.nanoTime() - start);
+                }
+            }
+            return;
+        }
+        for (int r = 0; r < route.length; r++) {
+            int i = route[r];
+            if (!isFilteredOut(i, order)) {
+                observers.get(i).onEventProcessed(event, order);
+            }
+        }
+    }
 
-        System.out.printf("Order %s cancelled. Reason: %s%n",
-                order.getOrderId(), event.getReason());
+    /**
+     * Delivers a batch's notifications observer by observer, in processing
+     * order. Batch observers receive each run of processed events between
+     * status changes in one call. With instrumentation enabled, each
+     * observer's whole share of the batch is recorded as one latency sample.
+     */
+    private void notifyBatch(BatchNotifications batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        for (int i = 0; i < observers.size(); i++) {
+            OrderObserver observer = observers.get(i);
+            long start = instrumentation.startTimer();
+            ObserverSubscription subscription = subscriptions.get(i);
+            if (observer instanceof BatchOrderObserver) {
+                batch.deliverBatched((BatchOrderObserver) observer, subscription);
+            } else {
+                batch.deliver(observer, subscription);
+            }
+            if (instrumentation.isEnabled()) {
+                observerLatencies[i].record(System.nanoTime() - start);
+            }
+        }
     }
 
     /**
-     * Gets the order related to the given event.
+     * Installs an order recovered from durable storage, replacing any order
+     * with the same orderId. An order whose history was created under a
+     * different policy is moved to this processor's retention policy,
+     * keeping its event count. Observers are not notified; observers that
+     * keep state, such as {@code OrderAggregates}, must be seeded with the
+     * restored orders.
      * 
-     * @param event the event
-     * @return the related order, or null if not found
+     * @param order the restored order
      */
-    private Order getRelatedOrder(Event event) {
-        if (event instanceof OrderCreatedEvent) {
-            return orders.get(((OrderCreatedEvent) event).getOrderId());
-        } else if (event instanceof PaymentReceivedEvent) {
-            return orders.get(((PaymentReceivedEvent) event).getOrderId());
-        } else if (event instanceof ShippingScheduledEvent) {
-            return orders.get(((ShippingScheduledEvent) event).getOrderId());
-        } else if (event instanceof OrderCancelledEvent) {
-            return orders.get(((OrderCancelledEvent) event).getOrderId());
+    public void restoreOrder(Order order) {
+        if (order.getHistoryRetention() != historyRetention) {
+            order.setHistoryRetention(historyRetention);
         }
-        return null;
+        replace(orders.get(order.getOrderId()), order);
     }
 
     /**
-     * Notifies observers of a status change.
+     * Stores an order, replacing the existing order with the same orderId in
+     * both the store and the secondary indexes.
+     * 
+     * @param existing the order currently stored under the orderId, or null
      */
-    private void notifyStatusChanged(Order order, String previousStatus, String newStatus) {
-        for (OrderObserver observer : observers) {
-            observer.onOrderStatusChanged(order, previousStatus, newStatus);
+    private void replace(Order existing, Order order) {
+        if (existing != null) {
+            index.remove(existing);
         }
+        orders.put(order);
+        index.add(order);
     }
 
     /**
-     * Notifies observers that an event was processed.
+     * @return the handlers this processor dispatches events to
      */
-    private void notifyEventProcessed(Event event, Order order) {
-        for (OrderObserver observer : observers) {
-            observer.onEventProcessed(event, order);
+    public EventHandlerRegistry getHandlerRegistry() {
+        return handlers;
+    }
+
+    /**
+     * Looks up one order without copying the others.
+     * 
+     * @param orderId the order ID
+     * @return the order, or null if there is none
+     */
+    public Order getOrder(String orderId) {
+        return orders.get(orderId);
+    }
+
+    /**
+     * @return the number of orders held by the processor
+     */
+    public int getOrderCount() {
+        return orders.size();
+    }
+
+    /**
+     * Returns the orders that currently have the given status, using the
+     * status index rather than scanning every order.
+     * 
+     * @param status the status to look for
+     * @return the matching orders, in no particular order
+     */
+    public List<Order> getOrdersByStatus(OrderStatus status) {
+        return lookup(index.orderIdsWithStatus(status));
+    }
+
+    /**
+     * Returns the orders placed by a customer, using the customer index
+     * rather than scanning every order.
+     * 
+     * @param customerId the customer ID
+     * @return the customer's orders, in no particular order
+     */
+    public List<Order> getOrdersForCustomer(String customerId) {
+        return lookup(index.orderIdsForCustomer(customerId));
+    }
+
+    /**
+     * @param status the status
+     * @return the number of orders that currently have it
+     */
+    public int countOrdersByStatus(OrderStatus status) {
+        return index.countWithStatus(status);
+    }
+
+    private List<Order> lookup(Set<String> orderIds) {
+        List<Order> result = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            result.add(orders.get(orderId));
         }
+        return result;
+    }
+
+    /**
+     * Visits every order without copying the collection. Like the rest of
+     * the processor this is not thread-safe; readers on other threads should
+     * use an {@link org.example.observers.OrderSnapshotView} instead.
+     * 
+     * @param action called once per order
+     */
+    public void forEachOrder(Consumer<? super Order> action) {
+        orders.forEach(action);
     }
 
     /**
@@ -191,6 +751,140 @@ public class EventProcessor {
      * @return map of orderId to Order
      */
     public Map<String, Order> getOrders() {
-        return new HashMap<>(orders);
+        return orders.toMap();
+    }
+
+    /**
+     * Gives handlers this processor's current settings.
+     */
+    private final class ProcessorContext implements HandlerContext {
+        @Override
+        public HistoryRetention getHistoryRetention() {
+            return historyRetention;
+        }
+
+        @Override
+        public DiagnosticSink getDiagnostics() {
+            return diagnostics;
+        }
+
+        @Override
+        public void reportOrderNotFound(String eventKind, String orderId) {
+            EventProcessor.this.reportOrderNotFound(eventKind, orderId);
+        }
+    }
+
+    /**
+     * One order's events within a batch: the first and last index, linked
+     * through {@link #nextInGroup}.
+     */
+    private static final class BatchGroup {
+        String orderId;
+        int first;
+        int last;
+        int slot;
+    }
+
+    /**
+     * The notifications produced by one batch, in processing order: each
+     * processed event, preceded by the order it replaced or the status
+     * change it made, if any.
+     */
+    private static final class BatchNotifications {
+        private final List<BatchOrderObserver.ProcessedEvent> processed;
+        private final List<Order> replacedOrders;
+        private final List<OrderStatus> previousStatuses;
+        private final List<OrderStatus> newStatuses;
+
+        BatchNotifications(int expectedSize) {
+            this.processed = new ArrayList<>(expectedSize);
+            this.replacedOrders = new ArrayList<>(expectedSize);
+            this.previousStatuses = new ArrayList<>(expectedSize);
+            this.newStatuses = new ArrayList<>(expectedSize);
+        }
+
+        void add(Event event, Order order, Order replaced, OrderStatus previousStatus, OrderStatus newStatus) {
+            processed.add(new BatchOrderObserver.ProcessedEvent(event, order));
+            replacedOrders.add(replaced);
+            previousStatuses.add(previousStatus);
+            newStatuses.add(newStatus);
+        }
+
+        int size() {
+            return processed.size();
+        }
+
+        void deliver(OrderObserver observer, ObserverSubscription subscription) {
+            for (int i = 0; i < processed.size(); i++) {
+                BatchOrderObserver.ProcessedEvent entry = processed.get(i);
+                if (isStatusChangeFor(i, subscription)) {
+                    observer.onOrderStatusChanged(entry.getOrder(), previousStatuses.get(i), newStatuses.get(i));
+                }
+                if (subscription.accepts(entry.getEvent(), entry.getOrder())) {
+                    if (replacedOrders.get(i) != null) {
+                        observer.onOrderReplaced(entry.getEvent(), replacedOrders.get(i), entry.getOrder());
+                    }
+                    observer.onEventProcessed(entry.getEvent(), entry.getOrder());
+                }
+            }
+        }
+
+        void deliverBatched(BatchOrderObserver observer, ObserverSubscription subscription) {
+            if (!subscription.isUnrestricted()) {
+                deliverFiltered(observer, subscription);
+                return;
+            }
+            int runStart = 0;
+            for (int i = 0; i < processed.size(); i++) {
+                if (previousStatuses.get(i) != null || replacedOrders.get(i) != null) {
+                    if (runStart < i) {
+                        observer.onEventsProcessed(processed.subList(runStart, i));
+                    }
+                    BatchOrderObserver.ProcessedEvent entry = processed.get(i);
+                    if (previousStatuses.get(i) != null) {
+                        observer.onOrderStatusChanged(entry.getOrder(), previousStatuses.get(i), newStatuses.get(i));
+                    } else {
+                        observer.onOrderReplaced(entry.getEvent(), replacedOrders.get(i), entry.getOrder());
+                    }
+                    runStart = i;
+                }
+            }
+            observer.onEventsProcessed(processed.subList(runStart, processed.size()));
+        }
+
+        /**
+         * Like {@link #deliverBatched} for a restricted subscription: each run
+         * holds only the accepted events, and empty runs are not delivered.
+         */
+        private void deliverFiltered(BatchOrderObserver observer, ObserverSubscription subscription) {
+            List<BatchOrderObserver.ProcessedEvent> run = new ArrayList<>();
+            for (int i = 0; i < processed.size(); i++) {
+                BatchOrderObserver.ProcessedEvent entry = processed.get(i);
+                boolean accepted = subscription.accepts(entry.getEvent(), entry.getOrder());
+                boolean replacedFor = accepted && replacedOrders.get(i) != null;
+                if (isStatusChangeFor(i, subscription) || replacedFor) {
+                    if (!run.isEmpty()) {
+                        observer.onEventsProcessed(run);
+                        run = new ArrayList<>();
+                    }
+                    if (replacedFor) {
+                        observer.onOrderReplaced(entry.getEvent(), replacedOrders.get(i), entry.getOrder());
+                    } else {
+                        observer.onOrderStatusChanged(entry.getOrder(), previousStatuses.get(i), newStatuses.get(i));
+                    }
+                }
+                if (accepted) {
+                    run.add(entry);
+                }
+            }
+            if (!run.isEmpty()) {
+                observer.onEventsProcessed(run);
+            }
+        }
+
+        private boolean isStatusChangeFor(int i, ObserverSubscription subscription) {
+            return previousStatuses.get(i) != null
+                    && subscription.accepts(processed.get(i).getOrder(), previousStatuses.get(i), newStatuses.get(i));
+        }
     }
 }
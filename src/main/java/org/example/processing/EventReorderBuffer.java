@@ -0,0 +1,302 @@
+package org.example.processing;
+
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+import org.example.handlers.EventHandler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reordering stage in front of an {@link EventProcessor} that holds back
+ * events which arrive before their order has been created.
+ * <p>
+ * An event for an order the processor does not know yet is parked under its
+ * orderId. When the event that creates the order arrives, it is
+ * processed first, followed by the parked events in timestamp order (ties
+ * keep arrival order). If the create fails to apply and leaves no order,
+ * the parked events are orphaned: they go to the {@link DeadLetterHandler}
+ * rather than to a processor that would reject each one. Parking is bounded in both space and time: once
+ * {@code maxParkedEvents} are held the oldest parked event is evicted, and
+ * events parked for longer than the time-to-live expire. Evicted and expired
+ * events go to a {@link DeadLetterHandler} instead of being dropped silently.
+ * <p>
+ * Not thread-safe; use it from the thread that feeds the processor.
+ */
+public class EventReorderBuffer {
+    public static final int DEFAULT_MAX_PARKED_EVENTS = 100_000;
+    public static final long DEFAULT_TTL_MILLIS = 30_000;
+
+    /** Why an event was sent to the dead-letter handler. */
+    public enum DeadLetterReason {
+        /** Parked for longer than the time-to-live. */
+        EXPIRED,
+        /** Evicted to make room once the buffer was full. */
+        EVICTED,
+        /** Still parked when the buffer was flushed. */
+        UNRESOLVED,
+        /** Parked for an order whose create event failed to apply. */
+        ORPHANED
+    }
+
+    /**
+     * Receives events that were parked but never released to the processor.
+     */
+    public interface DeadLetterHandler {
+        /**
+         * @param event  the event that could not be processed
+         * @param reason why it was given up on
+         */
+        void onDeadLetter(Event event, DeadLetterReason reason);
+    }
+
+    private static final Comparator<Parked> BY_TIMESTAMP = Comparator.comparing(
+            parked -> parked.event.getTimestamp(), Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()));
+
+    private final EventProcessor processor;
+    private final DeadLetterHandler deadLetters;
+    private final int maxParkedEvents;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final Map<String, List<Parked>> parkedByOrder = new HashMap<>();
+    private final ArrayDeque<Parked> arrivalOrder = new ArrayDeque<>();
+    private int parkedCount;
+    private long releasedCount;
+    private long deadLetterCount;
+
+    /**
+     * Creates a buffer with the default bounds that reports dead letters to
+     * the given sink at WARN level.
+     * 
+     * @param processor   the processor to feed
+     * @param diagnostics where dead letters are reported
+     */
+    public EventReorderBuffer(EventProcessor processor, DiagnosticSink diagnostics) {
+        this(processor, loggingHandler(processor, diagnostics), DEFAULT_MAX_PARKED_EVENTS, DEFAULT_TTL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public EventReorderBuffer(EventProcessor processor, DeadLetterHandler deadLetters, int maxParkedEvents,
+            long ttl, TimeUnit ttlUnit) {
+        this(processor, deadLetters, maxParkedEvents, ttl, ttlUnit, System::nanoTime);
+    }
+
+    /**
+     * @param processor       the processor to feed
+     * @param deadLetters     receives evicted, expired, unresolved and orphaned
+     *                        events
+     * @param maxParkedEvents how many events may be parked across all orders
+     * @param ttl             how long an event may stay parked
+     * @param ttlUnit         unit of the time-to-live
+     * @param clock           nanosecond time source, replaceable in tests
+     */
+    EventReorderBuffer(EventProcessor processor, DeadLetterHandler deadLetters, int maxParkedEvents,
+            long ttl, TimeUnit ttlUnit, LongSupplier clock) {
+        if (maxParkedEvents <= 0) {
+            throw new IllegalArgumentException("maxParkedEvents must be positive");
+        }
+        this.processor = processor;
+        this.deadLetters = deadLetters;
+        this.maxParkedEvents = maxParkedEvents;
+        this.ttlNanos = ttlUnit.toNanos(ttl);
+        this.clock = clock;
+    }
+
+    /**
+     * Processes an event now if its order exists (or it creates one),
+     * otherwise parks it until the order is created.
+     * 
+     * @param event the event to process
+     */
+    public void processEvent(Event event) {
+        long now = clock.getAsLong();
+        expireParked(now);
+
+        EventHandler<Event> handler = processor.getHandlerRegistry().forEvent(event);
+        String orderId = handler != null ? handler.getOrderId(event) : null;
+        if (handler != null && handler.createsOrder()) {
+            processor.processEvent(event);
+            if (orderId == null) {
+                return;
+            }
+            if (processor.getOrder(orderId) != null) {
+                release(orderId);
+            } else {
+                orphan(orderId);
+            }
+        } else if (orderId == null || processor.getOrder(orderId) != null) {
+            processor.processEvent(event);
+        } else {
+            park(event, orderId, now);
+        }
+    }
+
+    /**
+     * Dead-letters every parked event whose time-to-live has passed. Called
+     * on every {@link #processEvent(Event)}; call it periodically as well if
+     * events may stop arriving.
+     */
+    public void expireParked() {
+        expireParked(clock.getAsLong());
+    }
+
+    /**
+     * Dead-letters every event that is still parked, e.g. at the end of a
+     * replay when no more creates can arrive.
+     */
+    public void flush() {
+        Parked parked;
+        while ((parked = pollOldest()) != null) {
+            deadLetter(parked, DeadLetterReason.UNRESOLVED);
+        }
+    }
+
+    /**
+     * @return the number of events currently parked
+     */
+    public int getParkedCount() {
+        return parkedCount;
+    }
+
+    /**
+     * @return the number of parked events later released to the processor
+     */
+    public long getReleasedCount() {
+        return releasedCount;
+    }
+
+    /**
+     * @return the number of events sent to the dead-letter handler
+     */
+    public long getDeadLetterCount() {
+        return deadLetterCount;
+    }
+
+    private void park(Event event, String orderId, long now) {
+        if (parkedCount == maxParkedEvents) {
+            deadLetter(pollOldest(), DeadLetterReason.EVICTED);
+        }
+        Parked parked = new Parked(event, orderId, now);
+        parkedByOrder.computeIfAbsent(orderId, id -> new ArrayList<>(2)).add(parked);
+        arrivalOrder.addLast(parked);
+        parkedCount++;
+    }
+
+    private void release(String orderId) {
+        for (Parked entry : unpark(orderId)) {
+            releasedCount++;
+            processor.processEvent(entry.event);
+        }
+    }
+
+    private void orphan(String orderId) {
+        for (Parked entry : unpark(orderId)) {
+            deadLetter(entry, DeadLetterReason.ORPHANED);
+        }
+    }
+
+    /**
+     * Removes every event parked for an order.
+     * 
+     * @return the events in timestamp order, empty if none were parked
+     */
+    private List<Parked> unpark(String orderId) {
+        List<Parked> parked = parkedByOrder.remove(orderId);
+        if (parked == null) {
+            return Collections.emptyList();
+        }
+        parked.sort(BY_TIMESTAMP);
+        for (Parked entry : parked) {
+            entry.done = true;
+        }
+        parkedCount -= parked.size();
+        compactArrivalOrder();
+        return parked;
+    }
+
+    private void expireParked(long now) {
+        Parked oldest;
+        while ((oldest = peekOldest()) != null && now - oldest.parkedAt >= ttlNanos) {
+            deadLetter(pollOldest(), DeadLetterReason.EXPIRED);
+        }
+    }
+
+    /**
+     * Returns the longest-parked event still waiting, discarding released
+     * entries from the head of the arrival queue.
+     */
+    private Parked peekOldest() {
+        Parked head;
+        while ((head = arrivalOrder.peekFirst()) != null && head.done) {
+            arrivalOrder.pollFirst();
+        }
+        return head;
+    }
+
+    /**
+     * Removes the longest-parked event still waiting from both indexes.
+     */
+    private Parked pollOldest() {
+        Parked oldest = peekOldest();
+        if (oldest == null) {
+            return null;
+        }
+        arrivalOrder.pollFirst();
+        List<Parked> siblings = parkedByOrder.get(oldest.orderId);
+        siblings.remove(oldest);
+        if (siblings.isEmpty()) {
+            parkedByOrder.remove(oldest.orderId);
+        }
+        oldest.done = true;
+        parkedCount--;
+        return oldest;
+    }
+
+    /**
+     * Released entries are skipped lazily when they reach the head of the
+     * arrival queue; drop them eagerly if they come to dominate it.
+     */
+    private void compactArrivalOrder() {
+        if (arrivalOrder.size() > 2 * parkedCount + 1024) {
+            arrivalOrder.removeIf(parked -> parked.done);
+        }
+    }
+
+    private void deadLetter(Parked parked, DeadLetterReason reason) {
+        deadLetterCount++;
+        deadLetters.onDeadLetter(parked.event, reason);
+    }
+
+    private static DeadLetterHandler loggingHandler(EventProcessor processor, DiagnosticSink diagnostics) {
+        return (event, reason) -> {
+            if (diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+                diagnostics.log(DiagnosticLevel.WARN, String.format("Dead letter (%s): %s event %s for order %s",
+                        reason, event.getEventType(), event.getEventId(),
+                        processor.getHandlerRegistry().orderIdOf(event)));
+            }
+        };
+    }
+
+    private static final class Parked {
+        final Event event;
+        final String orderId;
+        final long parkedAt;
+        boolean done;
+
+        Parked(Event event, String orderId, long parkedAt) {
+            this.event = event;
+            this.orderId = orderId;
+            this.parkedAt = parkedAt;
+        }
+    }
+}
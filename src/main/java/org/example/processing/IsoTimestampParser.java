@@ -0,0 +1,193 @@
+package org.example.processing;
+
+import org.example.events.Event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses event timestamps with the same result as
+ * {@code LocalDateTime.parse(text, DateTimeFormatter.ISO_DATE_TIME)}, but
+ * without the general formatter's per-call allocations for the layouts
+ * events actually use:
+ * {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} optionally followed by {@code Z}
+ * or an offset {@code +HH:MM}. As with the JDK formatter, the offset is
+ * validated but does not change the local date-time. Anything else, and any
+ * out-of-range field, goes to the JDK formatter, which also produces the
+ * error for invalid input.
+ * <p>
+ * Events arrive in runs from the same day, so the last parsed date is
+ * cached and a timestamp with the same date prefix only has its time
+ * decoded. The cache is an immutable holder replaced as a whole, so one
+ * parser may be shared between threads.
+ */
+public final class IsoTimestampParser {
+    private static final int DATE_LENGTH = 10;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private CachedDate cachedDate;
+
+    /**
+     * @param text an ISO-8601 date-time
+     * @return the local date-time
+     * @throws java.time.format.DateTimeParseException if the text is not an
+     *                                                 ISO date-time
+     */
+    public LocalDateTime parse(String text) {
+        CachedDate date = dateOf(text);
+        long time = date != null ? timeOf(text) : -1;
+        if (time < 0) {
+            return LocalDateTime.parse(text, DateTimeFormatter.ISO_DATE_TIME);
+        }
+        return LocalDateTime.of(date.date, LocalTime.ofNanoOfDay(time));
+    }
+
+    /**
+     * Parses a timestamp straight to microseconds since the epoch, reading
+     * the local date-time as UTC like the binary codec does. Nothing is
+     * allocated unless the date differs from the previous call's.
+     * 
+     * @param text an ISO-8601 date-time
+     * @return microseconds since 1970-01-01T00:00, truncating sub-microsecond
+     *         digits
+     * @throws java.time.format.DateTimeParseException if the text is not an
+     *                                                 ISO date-time
+     */
+    public long parseEpochMicros(String text) {
+        CachedDate date = dateOf(text);
+        long time = date != null ? timeOf(text) : -1;
+        if (time < 0) {
+            return Event.toEpochMicros(LocalDateTime.parse(text, DateTimeFormatter.ISO_DATE_TIME));
+        }
+        return date.epochDay * SECONDS_PER_DAY * MICROS_PER_SECOND + time / 1000;
+    }
+
+    /**
+     * Returns the date of a timestamp from the cache, decoding and caching it
+     * on a miss, or null if the date is not in the plain yyyy-MM-dd layout.
+     */
+    private CachedDate dateOf(String text) {
+        if (text.length() < DATE_LENGTH + 6) {
+            return null;
+        }
+        CachedDate date = cachedDate;
+        if (date != null && text.regionMatches(0, date.prefix, 0, DATE_LENGTH)) {
+            return date;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return null;
+        }
+        date = new CachedDate(text.substring(0, DATE_LENGTH), LocalDate.of(year, month, day));
+        cachedDate = date;
+        return date;
+    }
+
+    /**
+     * Decodes the part after the date, returning nano-of-day, or -1 if it is
+     * not in a fast-path layout.
+     */
+    private static long timeOf(String text) {
+        int length = text.length();
+        if (text.charAt(DATE_LENGTH) != 'T' || text.charAt(DATE_LENGTH + 3) != ':') {
+            return -1;
+        }
+        int hour = digits(text, DATE_LENGTH + 1, 2);
+        int minute = digits(text, DATE_LENGTH + 4, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+
+        int pos = DATE_LENGTH + 6;
+        int second = 0;
+        long nano = 0;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = pos + 3 <= length ? digits(text, pos + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return -1;
+            }
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                int start = ++pos;
+                while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                    nano = nano * 10 + (text.charAt(pos++) - '0');
+                }
+                int fractionDigits = pos - start;
+                if (fractionDigits == 0) {
+                    return -1;
+                }
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if (!isPlainOffset(text, pos)) {
+            return -1;
+        }
+        return ((hour * 60L + minute) * 60 + second) * 1_000_000_000L + nano;
+    }
+
+    /**
+     * Accepts nothing, "Z" or "+HH:MM"/"-HH:MM" from pos to the end.
+     */
+    private static boolean isPlainOffset(String text, int pos) {
+        int remaining = text.length() - pos;
+        if (remaining == 0) {
+            return true;
+        }
+        if (remaining == 1) {
+            return text.charAt(pos) == 'Z';
+        }
+        if (remaining != 6) {
+            return false;
+        }
+        char sign = text.charAt(pos);
+        int hours = digits(text, pos + 1, 2);
+        int minutes = digits(text, pos + 4, 2);
+        return (sign == '+' || sign == '-') && text.charAt(pos + 3) == ':'
+                && hours >= 0 && hours <= 18 && minutes >= 0 && minutes <= 59
+                && (hours < 18 || minutes == 0);
+    }
+
+    /**
+     * @return the value of count decimal digits at start, or -1 if any is not
+     *         a digit
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * The most recently parsed date and its yyyy-MM-dd text.
+     */
+    private static final class CachedDate {
+        final String prefix;
+        final LocalDate date;
+        final long epochDay;
+
+        CachedDate(String prefix, LocalDate date) {
+            this.prefix = prefix;
+            this.date = date;
+            this.epochDay = date.toEpochDay();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.processing;
+
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads a line-delimited JSON events file through {@link FileChannel#map}.
+ * 
+ * Line boundaries are found directly in the mapped buffer and each line is
+ * passed to the parser as a slice of that buffer, so no per-line String is
+ * decoded. A single mapping is limited to 2 GB, so larger files are read
+ * through a sequence of windows; each new window starts at the first line
+ * that did not fit completely in the previous one.
+ */
+public class MappedEventReader {
+    /** Default window size; must stay below the 2 GB mapping limit. */
+    public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private final EventIngestionService ingestionService;
+    private final int windowSize;
+
+    public MappedEventReader(EventIngestionService ingestionService) {
+        this(ingestionService, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedEventReader(EventIngestionService ingestionService, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.ingestionService = ingestionService;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Parses the file window by window and hands events to the sink in file
+     * order.
+     * 
+     * @param filePath the path to the events file
+     * @param sink     receives each parsed event
+     * @return the number of events passed to the sink
+     */
+    public int readEvents(String filePath, Consumer<? super Event> sink) {
+        int count = 0;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int mapLength = windowSize;
+
+            while (position < size) {
+                int length = (int) Math.min(mapLength, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        count += emit(window, lineStart, i - lineStart, sink);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lastWindow) {
+                    count += emit(window, lineStart, length - lineStart, sink);
+                    position = size;
+                } else if (lineStart == 0) {
+                    // A single line is longer than the window: retry with a larger mapping
+                    if (mapLength == Integer.MAX_VALUE) {
+                        throw new IOException("Line at offset " + position + " exceeds the maximum mapping size");
+                    }
+                    mapLength = (int) Math.min((long) mapLength * 2, Integer.MAX_VALUE);
+                } else {
+                    position += lineStart;
+                    mapLength = windowSize;
+                }
+            }
+        } catch (IOException e) {
+            ingestionService.reportError("Error reading file %s: %s", filePath, e);
+        }
+
+        return count;
+    }
+
+    private int emit(MappedByteBuffer window, int offset, int length, Consumer<? super Event> sink) {
+        Event event = ingestionService.parseLine(window, offset, length);
+        if (event == null) {
+            return 0;
+        }
+        sink.accept(event);
+        return 1;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.processing;
+
+import org.example.events.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reads a line-delimited JSON events file by splitting it into byte ranges
+ * that end on a newline and parsing those chunks concurrently.
+ * 
+ * Chunks are submitted in file order and their results are drained in the
+ * same order, so the sink sees exactly the sequence a sequential read would
+ * produce; payment and shipping events therefore still follow their
+ * OrderCreated event. Only a bounded number of chunks is in flight at once,
+ * which keeps memory use independent of the file size.
+ */
+public class ParallelEventReader {
+    /** Default chunk size: large enough to amortize task overhead. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final int BOUNDARY_SCAN_SIZE = 8 * 1024;
+
+    private final EventIngestionService ingestionService;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    public ParallelEventReader(EventIngestionService ingestionService, ExecutorService executor) {
+        this(ingestionService, executor, DEFAULT_CHUNK_SIZE,
+                2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelEventReader(EventIngestionService ingestionService, ExecutorService executor,
+            int chunkSize, int maxChunksInFlight) {
+        if (chunkSize <= 0 || maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("chunkSize and maxChunksInFlight must be positive");
+        }
+        this.ingestionService = ingestionService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Parses the file in parallel and hands events to the sink in file order.
+     * 
+     * @param filePath the path to the events file
+     * @param sink     receives each parsed event on the calling thread
+     * @return the number of events passed to the sink
+     */
+    public int readEvents(String filePath, Consumer<? super Event> sink) {
+        int count = 0;
+        Deque<Future<List<Event>>> inFlight = new ArrayDeque<>();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = findChunkEnd(channel, start, size);
+                long chunkStart = start;
+                inFlight.addLast(executor.submit(() -> parseChunk(channel, chunkStart, end)));
+                start = end;
+
+                if (inFlight.size() >= maxChunksInFlight) {
+                    count += deliver(inFlight.removeFirst(), sink);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                count += deliver(inFlight.removeFirst(), sink);
+            }
+        } catch (IOException e) {
+            ingestionService.reportError("Error reading file %s: %s", filePath, e);
+        } catch (ExecutionException e) {
+            ingestionService.reportError("Error reading file %s: %s", filePath, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        return count;
+    }
+
+    private static int deliver(Future<List<Event>> chunk, Consumer<? super Event> sink)
+            throws ExecutionException, InterruptedException {
+        List<Event> events = chunk.get();
+        events.forEach(sink);
+        return events.size();
+    }
+
+    /**
+     * Returns the offset just past the first newline at or after
+     * {@code start + chunkSize}, or the file size if there is none.
+     */
+    private long findChunkEnd(FileChannel channel, long start, long size) throws IOException {
+        long position = start + chunkSize;
+        if (position >= size) {
+            return size;
+        }
+
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Reads the byte range [start, end) and parses each line in it.
+     */
+    private List<Event> parseChunk(FileChannel channel, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+
+        List<Event> events = new ArrayList<>();
+        int lineStart = 0;
+        int limit = buffer.position();
+        for (int i = 0; i <= limit; i++) {
+            if (i == limit || bytes[i] == '\n') {
+                Event event = ingestionService.parseLine(bytes, lineStart, i - lineStart);
+                if (event != null) {
+                    events.add(event);
+                }
+                lineStart = i + 1;
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.processing;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.events.Event;
+import org.example.handlers.EventHandlerRegistry;
+import org.example.observers.OrderObserver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Processes events on several threads by sharding them on orderId.
+ * 
+ * Each partition owns a single-threaded {@link EventProcessor} and therefore
+ * its own slice of the orders. All events for one order hash to the same
+ * partition and are applied in submission order, so order state is mutated
+ * without locks while independent orders are processed in parallel.
+ * 
+ * Lifecycle: register observers, {@link #submit} events, then
+ * {@link #drain} to wait for everything submitted so far to be applied, and
+ * finally {@link #close} to stop the partition threads. Observers are shared
+ * by all partitions and must be thread-safe.
+ * 
+ * Submitters hold a shared lock while queueing and close takes it
+ * exclusively, so the stop marker is always the last item a partition
+ * receives: a submit that races close either queues its event ahead of the
+ * marker or fails, and never blocks on a queue nobody is taking from.
+ */
+public class PartitionedEventProcessor implements AutoCloseable {
+    /** Default number of events that may be queued per partition before submit blocks. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    private static final Object STOP = new Object();
+
+    private final Partition[] partitions;
+    private final ReadWriteLock queueing = new ReentrantReadWriteLock();
+    private volatile boolean started;
+    private boolean closed;
+
+    public PartitionedEventProcessor(int partitionCount) {
+        this(partitionCount, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public PartitionedEventProcessor(int partitionCount, int queueCapacity) {
+        this(partitionCount, queueCapacity, new ConsoleDiagnosticSink());
+    }
+
+    public PartitionedEventProcessor(int partitionCount, int queueCapacity, DiagnosticSink diagnostics) {
+        if (partitionCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("partitionCount and queueCapacity must be positive");
+        }
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, queueCapacity, new EventProcessor(diagnostics));
+        }
+    }
+
+    /**
+     * Registers an observer with every partition. Observers must be added
+     * before the first event is submitted.
+     * 
+     * @param observer the observer to add; called from partition threads
+     */
+    public synchronized void addObserver(OrderObserver observer) {
+        if (started) {
+            throw new IllegalStateException("Observers must be registered before events are submitted");
+        }
+        for (Partition partition : partitions) {
+            partition.processor.addObserver(observer);
+        }
+    }
+
+    /**
+     * Queues an event on the partition that owns its order, blocking while
+     * that partition's queue is full.
+     * 
+     * @param event the event to process
+     * @throws InterruptedException if interrupted while waiting for queue space
+     * @throws IllegalStateException if the processor has been closed
+     */
+    public void submit(Event event) throws InterruptedException {
+        if (!started) {
+            start();
+        }
+        Partition partition = partitionFor(EventHandlerRegistry.getDefault().orderIdOf(event));
+        queueing.readLock().lockInterruptibly();
+        try {
+            ensureOpen();
+            partition.queue.put(event);
+        } finally {
+            queueing.readLock().unlock();
+        }
+    }
+
+    /**
+     * Blocks until every event submitted before this call has been processed.
+     * 
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the processor has been closed
+     */
+    public void drain() throws InterruptedException {
+        if (!started) {
+            start();
+        }
+        CountDownLatch latch = new CountDownLatch(partitions.length);
+        queueing.readLock().lockInterruptibly();
+        try {
+            ensureOpen();
+            for (Partition partition : partitions) {
+                partition.queue.put(latch);
+            }
+        } finally {
+            queueing.readLock().unlock();
+        }
+        latch.await();
+    }
+
+    /**
+     * Returns a combined copy of every partition's orders. Call after
+     * {@link #drain()} to see the effect of all submitted events.
+     * 
+     * @return map of orderId to Order
+     */
+    public Map<String, Order> getOrders() {
+        Map<String, Order> combined = new HashMap<>();
+        for (Partition partition : partitions) {
+            combined.putAll(partition.processor.getOrders());
+        }
+        return combined;
+    }
+
+    /**
+     * Returns the number of partitions.
+     * 
+     * @return the partition count
+     */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Drains outstanding events and stops the partition threads. If the
+     * calling thread is interrupted, it stops waiting and returns with its
+     * interrupt status set; partitions already told to stop finish draining
+     * in the background.
+     */
+    @Override
+    public synchronized void close() {
+        // Waits for submits and drains already queueing; later ones see closed
+        queueing.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            queueing.writeLock().unlock();
+        }
+        if (!started) {
+            return;
+        }
+        try {
+            for (Partition partition : partitions) {
+                partition.queue.put(STOP);
+            }
+            for (Partition partition : partitions) {
+                partition.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts the partition threads on the first submit or drain. Later calls
+     * only read the volatile flag and never take this lock.
+     */
+    private synchronized void start() {
+        ensureOpen();
+        if (!started) {
+            for (Partition partition : partitions) {
+                partition.thread.start();
+            }
+            started = true;
+        }
+    }
+
+    /**
+     * Called holding the queueing lock or this object's monitor, either of
+     * which makes close's write of {@code closed} visible.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Processor has been closed");
+        }
+    }
+
+    private Partition partitionFor(String orderId) {
+        if (orderId == null) {
+            return partitions[0];
+        }
+        int hash = orderId.hashCode();
+        hash ^= (hash >>> 16);
+        return partitions[Math.floorMod(hash, partitions.length)];
+    }
+
+    /**
+     * A single-threaded shard: one queue, one thread, one processor.
+     */
+    private static final class Partition {
+        private final EventProcessor processor;
+        private final BlockingQueue<Object> queue;
+        private final Thread thread;
+
+        Partition(int index, int queueCapacity, EventProcessor processor) {
+            this.processor = processor;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this::run, "order-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    Object item = queue.take();
+                    if (item == STOP) {
+                        return;
+                    } else if (item instanceof CountDownLatch) {
+                        ((CountDownLatch) item).countDown();
+                    } else {
+                        processor.processEvent((Event) item);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.processing;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.OrderItem;
+import org.example.events.Event;
+import org.example.handlers.EventFields;
+import org.example.handlers.EventHandler;
+import org.example.handlers.EventHandlerRegistry;
+import org.example.ids.IdDictionary;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser that reads events straight off Jackson's token stream. Fields may
+ * appear in any order; they are collected into a flat list while the object
+ * is scanned and the event's handler builds it once the closing brace is
+ * reached, so no JsonNode tree is ever allocated. orderId, customerId and
+ * itemId values are interned straight from Jackson's text buffer, so an ID
+ * already in the dictionary costs no string allocation.
+ */
+public class StreamingEventParser implements EventParser {
+    private final JsonFactory jsonFactory;
+    private final EventHandlerRegistry handlers;
+    private final IdDictionary ids;
+    private final IsoTimestampParser timestamps = new IsoTimestampParser();
+    private TimestampMode timestampMode = TimestampMode.LOCAL_DATE_TIME;
+    private DiagnosticSink diagnostics = new ConsoleDiagnosticSink();
+
+    public StreamingEventParser() {
+        this(new JsonFactory());
+    }
+
+    public StreamingEventParser(JsonFactory jsonFactory) {
+        this(jsonFactory, EventHandlerRegistry.getDefault());
+    }
+
+    /**
+     * @param jsonFactory creates the token parsers
+     * @param handlers    the handlers that build each event type
+     */
+    public StreamingEventParser(JsonFactory jsonFactory, EventHandlerRegistry handlers) {
+        this(jsonFactory, handlers, new IdDictionary());
+    }
+
+    /**
+     * @param jsonFactory creates the token parsers
+     * @param handlers    the handlers that build each event type
+     * @param ids         interns the IDs of parsed events; may be shared with
+     *                    other parsers
+     */
+    public StreamingEventParser(JsonFactory jsonFactory, EventHandlerRegistry handlers, IdDictionary ids) {
+        this.jsonFactory = jsonFactory;
+        this.handlers = handlers;
+        this.ids = ids;
+    }
+
+    /**
+     * Selects how parsed events carry their timestamp. Set before the parser
+     * is shared between threads.
+     * 
+     * @param timestampMode the timestamp representation
+     */
+    public void setTimestampMode(TimestampMode timestampMode) {
+        this.timestampMode = timestampMode;
+    }
+
+    /**
+     * Sets where skipped unknown event types are reported, at WARN level.
+     * Set before the parser is shared between threads.
+     * 
+     * @param diagnostics the sink, or {@link DiagnosticSink#QUIET}
+     */
+    public void setDiagnostics(DiagnosticSink diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public Event parse(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return readEvent(parser);
+        }
+    }
+
+    @Override
+    public Event parse(byte[] buffer, int offset, int length) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(buffer, offset, length)) {
+            return readEvent(parser);
+        }
+    }
+
+    @Override
+    public Event parse(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        try (JsonParser parser = jsonFactory.createParser(new ByteBufferBackedInputStream(buffer))) {
+            return readEvent(parser);
+        }
+    }
+
+    /**
+     * Reads one JSON object from the parser and builds the matching event.
+     */
+    private Event readEvent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+
+        StreamedFields fields = new StreamedFields(ids, timestamps);
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_ARRAY) {
+                fields.addItems(field, readItems(parser));
+            } else if (value == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+            } else if (value == JsonToken.VALUE_STRING && isIdField(field)) {
+                fields.add(field, internText(parser));
+            } else {
+                fields.add(field, parser.getValueAsString());
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected end of event object");
+        }
+
+        String eventId = fields.getString("eventId");
+        String eventType = fields.getString("eventType");
+        boolean micros = timestampMode == TimestampMode.EPOCH_MICROS;
+        long epochMicros = micros ? fields.getEpochMicros("timestamp") : Event.NO_TIMESTAMP;
+        LocalDateTime eventTime = micros ? null : fields.getDateTime("timestamp");
+
+        EventHandler<?> handler = handlers.forType(eventType);
+        if (handler == null) {
+            if (diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+                diagnostics.log(DiagnosticLevel.WARN,
+                        String.format("Warning: Unknown event type '%s' for eventId '%s'", eventType, eventId));
+            }
+            return null;
+        }
+        Event event = handler.parse(eventId, eventTime, fields);
+        if (micros) {
+            event.setEpochMicros(epochMicros);
+        }
+        return event;
+    }
+
+    /**
+     * Reads an array of item objects. Elements that are not objects are
+     * skipped; items without an itemId are kept with a null ID and rejected
+     * only if a handler asks for them.
+     */
+    private List<OrderItem> readItems(JsonParser parser) throws IOException {
+        List<OrderItem> items = new ArrayList<>();
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+            if (element != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String itemId = null;
+            int qty = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("itemId".equals(field)) {
+                    itemId = parser.currentToken() == JsonToken.VALUE_STRING
+                            ? internText(parser)
+                            : parser.getValueAsString();
+                } else if ("qty".equals(field)) {
+                    qty = parser.getValueAsInt();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            items.add(new OrderItem(itemId, qty));
+        }
+        return items;
+    }
+
+    private static boolean isIdField(String field) {
+        return "orderId".equals(field) || "customerId".equals(field);
+    }
+
+    private String internText(JsonParser parser) throws IOException {
+        return ids.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    /**
+     * Fields collected while scanning one object: scalar values as text and
+     * arrays as item lists, found by a linear scan since events have only a
+     * handful of fields.
+     */
+    private static final class StreamedFields implements EventFields {
+        private final IdDictionary ids;
+        private final IsoTimestampParser timestamps;
+        private String[] names = new String[8];
+        private Object[] values = new Object[8];
+        private int size;
+
+        StreamedFields(IdDictionary ids, IsoTimestampParser timestamps) {
+            this.ids = ids;
+            this.timestamps = timestamps;
+        }
+
+        void add(String name, String value) {
+            put(name, value);
+        }
+
+        void addItems(String name, List<OrderItem> items) {
+            put(name, items);
+        }
+
+        private void put(String name, Object value) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size++] = value;
+        }
+
+        @Override
+        public String getString(String name) throws IOException {
+            Object value = require(name);
+            if (!(value instanceof String)) {
+                throw new IOException("Field '" + name + "' is not a scalar");
+            }
+            return (String) value;
+        }
+
+        @Override
+        public String getId(String name) throws IOException {
+            // Already interned while scanning for the usual ID fields
+            return ids.intern(getString(name));
+        }
+
+        @Override
+        public double getDouble(String name) throws IOException {
+            String value = getString(name);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IOException("Field '" + name + "' is not a number: " + value, e);
+            }
+        }
+
+        @Override
+        public LocalDateTime getDateTime(String name) throws IOException {
+            try {
+                return timestamps.parse(getString(name));
+            } catch (DateTimeParseException e) {
+                throw new IOException("Invalid date-time in field '" + name + "': " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public long getEpochMicros(String name) throws IOException {
+            try {
+                return timestamps.parseEpochMicros(getString(name));
+            } catch (DateTimeParseException e) {
+                throw new IOException("Invalid date-time in field '" + name + "': " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<OrderItem> getItems(String name) throws IOException {
+            Object value = require(name);
+            if (!(value instanceof List)) {
+                return new ArrayList<>();
+            }
+            List<OrderItem> items = (List<OrderItem>) value;
+            for (OrderItem item : items) {
+                if (item.getItemId() == null) {
+                    throw new IOException("Missing field 'itemId'");
+                }
+            }
+            return items;
+        }
+
+        private Object require(String name) throws IOException {
+            // Later duplicates win, as they would when assigning locals
+            for (int i = size - 1; i >= 0; i--) {
+                if (name.equals(names[i])) {
+                    if (values[i] == null) {
+                        break;
+                    }
+                    return values[i];
+                }
+            }
+            throw new IOException("Missing field '" + name + "'");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.processing;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.OrderItem;
+import org.example.events.Event;
+import org.example.handlers.EventFields;
+import org.example.handlers.EventHandler;
+import org.example.handlers.EventHandlerRegistry;
+import org.example.ids.IdDictionary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser that reads each event into a Jackson JsonNode tree and then looks up
+ * the fields it needs.
+ */
+public class TreeEventParser implements EventParser {
+    private final ObjectMapper objectMapper;
+    private final EventHandlerRegistry handlers;
+    private final IdDictionary ids;
+    private final IsoTimestampParser timestamps = new IsoTimestampParser();
+    private TimestampMode timestampMode = TimestampMode.LOCAL_DATE_TIME;
+    private DiagnosticSink diagnostics = new ConsoleDiagnosticSink();
+
+    public TreeEventParser() {
+        this(EventHandlerRegistry.getDefault());
+    }
+
+    /**
+     * @param handlers the handlers that build each event type
+     */
+    public TreeEventParser(EventHandlerRegistry handlers) {
+        this(handlers, new IdDictionary());
+    }
+
+    /**
+     * @param handlers the handlers that build each event type
+     * @param ids      interns the IDs of parsed events; may be shared with
+     *                 other parsers
+     */
+    public TreeEventParser(EventHandlerRegistry handlers, IdDictionary ids) {
+        this.objectMapper = new ObjectMapper();
+        this.handlers = handlers;
+        this.ids = ids;
+    }
+
+    /**
+     * Selects how parsed events carry their timestamp. Set before the parser
+     * is shared between threads.
+     * 
+     * @param timestampMode the timestamp representation
+     */
+    public void setTimestampMode(TimestampMode timestampMode) {
+        this.timestampMode = timestampMode;
+    }
+
+    /**
+     * Sets where skipped unknown event types are reported, at WARN level.
+     * Set before the parser is shared between threads.
+     * 
+     * @param diagnostics the sink, or {@link DiagnosticSink#QUIET}
+     */
+    public void setDiagnostics(DiagnosticSink diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public Event parse(String json) throws IOException {
+        return parseTree(objectMapper.readTree(json));
+    }
+
+    @Override
+    public Event parse(byte[] buffer, int offset, int length) throws IOException {
+        return parseTree(objectMapper.readTree(buffer, offset, length));
+    }
+
+    @Override
+    public Event parse(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return parseTree(objectMapper.readTree(new ByteBufferBackedInputStream(buffer)));
+    }
+
+    /**
+     * Converts a parsed tree into the appropriate Event subclass.
+     */
+    private Event parseTree(JsonNode rootNode) throws IOException {
+        NodeFields fields = new NodeFields(rootNode, ids, timestamps);
+        String eventId = fields.getString("eventId");
+        String eventType = fields.getString("eventType");
+        boolean micros = timestampMode == TimestampMode.EPOCH_MICROS;
+        long epochMicros = micros ? fields.getEpochMicros("timestamp") : Event.NO_TIMESTAMP;
+        LocalDateTime timestamp = micros ? null : fields.getDateTime("timestamp");
+
+        EventHandler<?> handler = handlers.forType(eventType);
+        if (handler == null) {
+            if (diagnostics.isEnabled(DiagnosticLevel.WARN)) {
+                diagnostics.log(DiagnosticLevel.WARN,
+                        String.format("Warning: Unknown event type '%s' for eventId '%s'", eventType, eventId));
+            }
+            return null;
+        }
+        Event event = handler.parse(eventId, timestamp, fields);
+        if (micros) {
+            event.setEpochMicros(epochMicros);
+        }
+        return event;
+    }
+
+    /**
+     * Reads fields from a parsed tree.
+     */
+    private static final class NodeFields implements EventFields {
+        private final JsonNode node;
+        private final IdDictionary ids;
+        private final IsoTimestampParser timestamps;
+
+        NodeFields(JsonNode node, IdDictionary ids, IsoTimestampParser timestamps) {
+            this.node = node;
+            this.ids = ids;
+            this.timestamps = timestamps;
+        }
+
+        @Override
+        public String getString(String name) throws IOException {
+            return require(name).asText();
+        }
+
+        @Override
+        public String getId(String name) throws IOException {
+            return ids.intern(require(name).asText());
+        }
+
+        @Override
+        public double getDouble(String name) throws IOException {
+            return require(name).asDouble();
+        }
+
+        @Override
+        public LocalDateTime getDateTime(String name) throws IOException {
+            try {
+                return timestamps.parse(require(name).asText());
+            } catch (DateTimeParseException e) {
+                throw new IOException("Invalid date-time in field '" + name + "': " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public long getEpochMicros(String name) throws IOException {
+            try {
+                return timestamps.parseEpochMicros(require(name).asText());
+            } catch (DateTimeParseException e) {
+                throw new IOException("Invalid date-time in field '" + name + "': " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public List<OrderItem> getItems(String name) throws IOException {
+            List<OrderItem> items = new ArrayList<>();
+            JsonNode itemsNode = require(name);
+            if (itemsNode.isArray()) {
+                for (JsonNode itemNode : itemsNode) {
+                    JsonNode itemId = itemNode.get("itemId");
+                    if (itemId == null) {
+                        throw new IOException("Missing field 'itemId'");
+                    }
+                    JsonNode qty = itemNode.get("qty");
+                    items.add(new OrderItem(ids.intern(itemId.asText()), qty != null ? qty.asInt() : 0));
+                }
+            }
+            return items;
+        }
+
+        private JsonNode require(String name) throws IOException {
+            JsonNode value = node.get(name);
+            if (value == null) {
+                throw new IOException("Missing field '" + name + "'");
+            }
+            return value;
+        }
+    }
+}
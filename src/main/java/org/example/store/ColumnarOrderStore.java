@@ -0,0 +1,279 @@
+package org.example.store;
+
+import org.example.domain.EventHistory;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.ids.StructuredIds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Order store that keeps scalar order fields in parallel primitive arrays
+ * instead of one {@link Order} object per order.
+ * <p>
+ * Each order is a row: its orderId, an index into an interned customer
+ * dictionary, the total as a {@code double}, the status ordinal as a
+ * {@code byte}, and references to its item list and event history, which
+ * are held out of line. Rows are found through an open-addressing table of
+ * {@code int} row numbers, so there are no per-order map entries or boxed
+ * keys.
+ * <p>
+ * Structured orderIds such as "ORD001" are kept as a {@code long} key (see
+ * {@link StructuredIds}) and compared as primitives; the store keeps no
+ * string for them. Other orderIds are kept as strings.
+ * <p>
+ * On a 64-bit JVM with compressed references the columns and hash table
+ * take at least 41 bytes per order: 8 (orderId key) + 4 (fallback orderId
+ * reference) + 8 (hash slots at 50% load) + 4 (customer index) + 8 (total)
+ * + 1 (status) + 4 + 4 (item and history references). That is the minimum,
+ * reached when the columns are full. The columns grow by half and the
+ * table doubles, so just after growth it can rise to about 66 bytes.
+ * <p>
+ * The real per-order cost also includes what is held out of line. The item
+ * list costs 24 bytes for the {@code ArrayList}, 16 + 4 per slot for its
+ * array, and 24 per {@code OrderItem} plus its itemId string. The event
+ * history costs whatever its retention policy keeps. Orders whose IDs are
+ * not structured also hold their orderId string. A one-item order with a
+ * structured ID therefore costs well over 100 bytes before its history.
+ * The default {@link HashMapOrderStore} keeps the same item list and
+ * history, and costs about 77 bytes per order on top of them for the
+ * {@code Order} object and its map node. It also holds a separate
+ * customerId string per order, where this store shares one per customer.
+ * <p>
+ * {@link #get(String)} materializes a new {@code Order} view per call. The
+ * view shares the stored item list and history, so history appends are
+ * kept, but status and total changes must be written back with
+ * {@link #update(Order)}. Not thread-safe.
+ */
+public class ColumnarOrderStore implements OrderStore {
+    /**
+     * Minimum bytes per order in the columns and hash table alone, with full
+     * columns. Growth slack and the item lists, histories and ID strings
+     * held out of line come on top; see the class comment.
+     */
+    public static final int ROW_BYTES = 41;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int NO_CUSTOMER = -1;
+
+    private long[] orderKeys;
+    /** The orderIds that are not structured; null where the key encodes the ID. */
+    private String[] orderIds;
+    private int[] customerRefs;
+    private double[] totals;
+    private byte[] statuses;
+    private Object[] items;
+    private EventHistory[] histories;
+    private int size;
+
+    /** Row number + 1 per slot; 0 marks an empty slot. */
+    private int[] table;
+
+    private final List<String> customers = new ArrayList<>();
+    private final Map<String, Integer> customerIndex = new HashMap<>();
+
+    public ColumnarOrderStore() {
+        this(1024);
+    }
+
+    /**
+     * Creates a store sized for the given number of orders. It grows beyond
+     * that as needed.
+     * 
+     * @param initialCapacity the expected number of orders
+     */
+    public ColumnarOrderStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        orderKeys = new long[capacity];
+        orderIds = new String[capacity];
+        customerRefs = new int[capacity];
+        totals = new double[capacity];
+        statuses = new byte[capacity];
+        items = new Object[capacity];
+        histories = new EventHistory[capacity];
+        table = new int[tableSizeFor(capacity)];
+    }
+
+    @Override
+    public Order get(String orderId) {
+        int row = findRow(orderId);
+        return row < 0 ? null : materialize(row, orderId);
+    }
+
+    @Override
+    public void put(Order order) {
+        long key = StructuredIds.encode(order.getOrderId());
+        int row = findRow(order.getOrderId(), key);
+        if (row < 0) {
+            row = addRow(order.getOrderId(), key);
+        }
+        customerRefs[row] = intern(order.getCustomerId());
+        totals[row] = order.getTotalAmount();
+        statuses[row] = (byte) order.getStatus().ordinal();
+        items[row] = order.getItems();
+        histories[row] = order.getHistory();
+    }
+
+    @Override
+    public void update(Order order) {
+        int row = findRow(order.getOrderId());
+        if (row < 0) {
+            put(order);
+            return;
+        }
+        totals[row] = order.getTotalAmount();
+        statuses[row] = (byte) order.getStatus().ordinal();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Order> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(materialize(row, orderIdOf(row)));
+        }
+    }
+
+    @Override
+    public Map<String, Order> toMap() {
+        Map<String, Order> copy = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int row = 0; row < size; row++) {
+            String orderId = orderIdOf(row);
+            copy.put(orderId, materialize(row, orderId));
+        }
+        return copy;
+    }
+
+    /**
+     * @return the number of distinct customerIds in the interned dictionary
+     */
+    public int getCustomerCount() {
+        return customers.size();
+    }
+
+    /**
+     * Estimates the heap held by the columns and hash table at their current
+     * capacity, excluding the ID strings and the item and history lists.
+     * 
+     * @return the estimated footprint in bytes
+     */
+    public long getColumnBytes() {
+        long capacity = orderIds.length;
+        return capacity * (8 + 4 + 4 + 8 + 1 + 4 + 4) + (long) table.length * Integer.BYTES;
+    }
+
+    /**
+     * Builds an order view, reusing the caller's orderId string where there
+     * is one so that structured IDs need not be decoded.
+     */
+    @SuppressWarnings("unchecked")
+    private Order materialize(int row, String orderId) {
+        int customerRef = customerRefs[row];
+        return new Order(orderId, customerRef == NO_CUSTOMER ? null : customers.get(customerRef),
+                (List<OrderItem>) items[row], totals[row], STATUSES[statuses[row]], histories[row]);
+    }
+
+    private String orderIdOf(int row) {
+        String orderId = orderIds[row];
+        return orderId != null ? orderId : StructuredIds.decode(orderKeys[row]);
+    }
+
+    private int findRow(String orderId) {
+        return findRow(orderId, StructuredIds.encode(orderId));
+    }
+
+    private int findRow(String orderId, long key) {
+        int mask = table.length - 1;
+        for (int slot = slotFor(orderId, key, mask); ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            if (key != StructuredIds.NOT_ENCODABLE ? orderKeys[row] == key : orderId.equals(orderIds[row])) {
+                return row;
+            }
+        }
+    }
+
+    private int addRow(String orderId, long key) {
+        if (size == orderIds.length) {
+            growColumns();
+        }
+        int row = size++;
+        orderKeys[row] = key;
+        orderIds[row] = key == StructuredIds.NOT_ENCODABLE ? orderId : null;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insertSlot(row);
+        }
+        return row;
+    }
+
+    private void insertSlot(int row) {
+        int mask = table.length - 1;
+        int slot = slotFor(orderIds[row], orderKeys[row], mask);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        for (int row = 0; row < size; row++) {
+            insertSlot(row);
+        }
+    }
+
+    private void growColumns() {
+        int capacity = orderIds.length + (orderIds.length >> 1);
+        orderKeys = Arrays.copyOf(orderKeys, capacity);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        customerRefs = Arrays.copyOf(customerRefs, capacity);
+        totals = Arrays.copyOf(totals, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        items = Arrays.copyOf(items, capacity);
+        histories = Arrays.copyOf(histories, capacity);
+    }
+
+    private int intern(String customerId) {
+        if (customerId == null) {
+            return NO_CUSTOMER;
+        }
+        Integer ref = customerIndex.get(customerId);
+        if (ref == null) {
+            ref = customers.size();
+            customers.add(customerId);
+            customerIndex.put(customerId, ref);
+        }
+        return ref;
+    }
+
+    private static int slotFor(String orderId, long key, int mask) {
+        int h;
+        if (key != StructuredIds.NOT_ENCODABLE) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            h = (int) (mixed >>> 32);
+        } else {
+            h = orderId.hashCode();
+            h ^= h >>> 16;
+        }
+        return h & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        return Math.max(32, size);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.store;
+
+import org.example.domain.Order;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Default store: one {@link Order} object per order in a {@link HashMap}.
+ * Lookups return the stored instance, so {@link #update(Order)} has nothing
+ * to do.
+ */
+public class HashMapOrderStore implements OrderStore {
+    private final Map<String, Order> orders = new HashMap<>();
+
+    @Override
+    public Order get(String orderId) {
+        return orders.get(orderId);
+    }
+
+    @Override
+    public void put(Order order) {
+        orders.put(order.getOrderId(), order);
+    }
+
+    @Override
+    public void update(Order order) {
+        // The caller changed the stored instance directly
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Order> action) {
+        orders.values().forEach(action);
+    }
+
+    @Override
+    public Map<String, Order> toMap() {
+        return new HashMap<>(orders);
+    }
+}
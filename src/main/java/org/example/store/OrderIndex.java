@@ -0,0 +1,97 @@
+package org.example.store;
+
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary indexes of orderIds by status and by customerId, kept up to date
+ * incrementally as orders are added and change status, so that lookups cost
+ * O(result size) rather than a scan of every order. Not thread-safe; it is
+ * maintained on the processing thread alongside the {@link OrderStore}.
+ */
+public class OrderIndex {
+    private final Map<OrderStatus, Set<String>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<String, Set<String>> byCustomer = new HashMap<>();
+
+    public OrderIndex() {
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new HashSet<>());
+        }
+    }
+
+    /**
+     * Indexes a newly stored order.
+     * 
+     * @param order the order
+     */
+    public void add(Order order) {
+        byStatus.get(order.getStatus()).add(order.getOrderId());
+        if (order.getCustomerId() != null) {
+            byCustomer.computeIfAbsent(order.getCustomerId(), customerId -> new HashSet<>(4))
+                    .add(order.getOrderId());
+        }
+    }
+
+    /**
+     * Removes an order that is being replaced or discarded.
+     * 
+     * @param order the order as it was indexed
+     */
+    public void remove(Order order) {
+        byStatus.get(order.getStatus()).remove(order.getOrderId());
+        Set<String> orderIds = byCustomer.get(order.getCustomerId());
+        if (orderIds != null) {
+            orderIds.remove(order.getOrderId());
+            if (orderIds.isEmpty()) {
+                byCustomer.remove(order.getCustomerId());
+            }
+        }
+    }
+
+    /**
+     * Moves an order between status buckets.
+     * 
+     * @param orderId        the order ID
+     * @param previousStatus the status it was indexed under
+     * @param newStatus      its new status
+     */
+    public void updateStatus(String orderId, OrderStatus previousStatus, OrderStatus newStatus) {
+        if (previousStatus != newStatus) {
+            byStatus.get(previousStatus).remove(orderId);
+            byStatus.get(newStatus).add(orderId);
+        }
+    }
+
+    /**
+     * @param status the status
+     * @return a read-only live view of the IDs of orders with that status
+     */
+    public Set<String> orderIdsWithStatus(OrderStatus status) {
+        return Collections.unmodifiableSet(byStatus.get(status));
+    }
+
+    /**
+     * @param customerId the customer ID
+     * @return a read-only live view of the IDs of the customer's orders, empty
+     *         if the customer has none
+     */
+    public Set<String> orderIdsForCustomer(String customerId) {
+        Set<String> orderIds = byCustomer.get(customerId);
+        return orderIds == null ? Collections.emptySet() : Collections.unmodifiableSet(orderIds);
+    }
+
+    /**
+     * @param status the status
+     * @return the number of orders with that status
+     */
+    public int countWithStatus(OrderStatus status) {
+        return byStatus.get(status).size();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.store;
+
+import org.example.domain.Order;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Holds the orders maintained by an {@code EventProcessor}.
+ * <p>
+ * Implementations may hand out a fresh {@link Order} view from every
+ * {@link #get(String)} instead of a shared instance, so callers that change
+ * an order's status or total must write it back with {@link #update(Order)}.
+ * Events added to an order's history are always kept.
+ */
+public interface OrderStore {
+
+    /**
+     * Looks up an order.
+     * 
+     * @param orderId the order ID
+     * @return the order, or null if there is none
+     */
+    Order get(String orderId);
+
+    /**
+     * Inserts an order, replacing any existing order with the same ID.
+     * 
+     * @param order the order to store
+     */
+    void put(Order order);
+
+    /**
+     * Writes back the status and total of an order obtained from
+     * {@link #get(String)} after it has been changed.
+     * 
+     * @param order the changed order
+     */
+    void update(Order order);
+
+    /**
+     * @return the number of stored orders
+     */
+    int size();
+
+    /**
+     * Visits every stored order.
+     * 
+     * @param action called once per order
+     */
+    void forEach(Consumer<? super Order> action);
+
+    /**
+     * Returns a copy of the stored orders keyed by orderId.
+     * 
+     * @return map of orderId to Order
+     */
+    Map<String, Order> toMap();
+}
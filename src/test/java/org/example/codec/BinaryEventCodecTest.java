@@ -0,0 +1,137 @@
+package org.example.codec;
+
+import org.example.domain.OrderItem;
+import org.example.events.*;
+import org.example.processing.EventIngestionService;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinaryEventCodecTest {
+
+    @Test
+    public void testRoundTripPreservesAllEventTypes() throws IOException {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123456789);
+        List<Event> events = Arrays.asList(
+                new OrderCreatedEvent("e1", timestamp, "ORD-1", "CUST-1",
+                        Arrays.asList(new OrderItem("ITEM-1", 2), new OrderItem("ITEM-2", 1)), 99.99),
+                new PaymentReceivedEvent("e2", timestamp.plusMinutes(1), "ORD-1", 1.0 / 3.0),
+                new ShippingScheduledEvent("e3", timestamp.plusHours(1), "ORD-1", timestamp.plusDays(2)),
+                new OrderCancelledEvent("e4", timestamp.minusYears(60), "ORD-1", null));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryEventCodec codec = new BinaryEventCodec();
+        try (BinaryOutput out = new BinaryOutput(bytes)) {
+            for (Event event : events) {
+                codec.writeEvent(out, event);
+            }
+        }
+
+        byte[] data = bytes.toByteArray();
+        BinaryInput in = new BinaryInput(data, 0, data.length);
+
+        OrderCreatedEvent created = (OrderCreatedEvent) BinaryEventCodec.readEvent(in);
+        assertEquals("e1", created.getEventId());
+        assertEquals(timestamp, created.getTimestamp());
+        assertEquals("CUST-1", created.getCustomerId());
+        assertEquals(2, created.getItems().size());
+        assertEquals("ITEM-2", created.getItems().get(1).getItemId());
+        assertEquals(99.99, created.getTotalAmount(), 0.0);
+
+        PaymentReceivedEvent payment = (PaymentReceivedEvent) BinaryEventCodec.readEvent(in);
+        assertEquals(1.0 / 3.0, payment.getAmountPaid(), 0.0);
+
+        ShippingScheduledEvent shipping = (ShippingScheduledEvent) BinaryEventCodec.readEvent(in);
+        assertEquals(timestamp.plusDays(2), shipping.getShippingDate());
+
+        OrderCancelledEvent cancelled = (OrderCancelledEvent) BinaryEventCodec.readEvent(in);
+        assertEquals(timestamp.minusYears(60), cancelled.getTimestamp());
+        assertNull(cancelled.getReason());
+        assertFalse(in.hasMore());
+    }
+
+    @Test
+    public void testUnknownTagIsSkipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryOutput out = new BinaryOutput(bytes)) {
+            out.writeByte(42);
+            out.writeVarLong(3);
+            out.writeBytes(new byte[] {1, 2, 3}, 0, 3);
+            new BinaryEventCodec().writeEvent(out,
+                    new PaymentReceivedEvent("e1", LocalDateTime.now(), "ORD-1", 10.0));
+        }
+
+        byte[] data = bytes.toByteArray();
+        BinaryInput in = new BinaryInput(data, 0, data.length);
+        assertNull(BinaryEventCodec.readEvent(in));
+        assertEquals("e1", BinaryEventCodec.readEvent(in).getEventId());
+    }
+
+    @Test
+    public void testConvertedFileReadsBackThroughIngestionService() throws IOException {
+        Path json = Files.createTempFile("events", ".json");
+        Path binary = Files.createTempFile("events", ".bin");
+        try {
+            Files.write(json, Arrays.asList(
+                    "{\"eventId\":\"e1\",\"timestamp\":\"2024-03-15T10:30:00\",\"eventType\":\"OrderCreated\","
+                            + "\"orderId\":\"ORD-1\",\"customerId\":\"CUST-1\","
+                            + "\"items\":[{\"itemId\":\"ITEM-1\",\"qty\":3}],\"totalAmount\":150.0}",
+                    "{\"eventId\":\"e2\",\"timestamp\":\"2024-03-15T10:31:00\",\"eventType\":\"PaymentReceived\","
+                            + "\"orderId\":\"ORD-1\",\"amountPaid\":150.0}"),
+                    StandardCharsets.UTF_8);
+
+            EventIngestionService service = new EventIngestionService();
+            assertEquals(2, new NdjsonToBinaryConverter(service).convert(json, binary));
+            assertTrue(Files.size(binary) < Files.size(json));
+
+            List<Event> events = new ArrayList<>();
+            int count = service.readEventsFromFile(binary.toString(),
+                    EventIngestionService.InputFormat.BINARY, events::add);
+
+            assertEquals(2, count);
+            assertEquals(service.readEventsFromFile(json.toString()).toString(), events.toString());
+        } finally {
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void testMalformedSchemaTableIsRejected() throws IOException {
+        assertEquals(0, readWithSchemaEntry(-1, "PaymentReceived"));
+        assertEquals(0, readWithSchemaEntry(0, null));
+    }
+
+    /**
+     * Writes a file whose schema table holds one entry, followed by one valid
+     * event, and reads it back.
+     */
+    private static int readWithSchemaEntry(long tag, String name) throws IOException {
+        Path binary = Files.createTempFile("events", ".bin");
+        try {
+            try (BinaryOutput out = new BinaryOutput(Files.newOutputStream(binary))) {
+                out.writeBytes(BinaryEventWriter.MAGIC, 0, BinaryEventWriter.MAGIC.length);
+                out.writeVarLong(BinaryEventCodec.FORMAT_VERSION);
+                out.writeVarLong(1);
+                out.writeVarLong(tag);
+                out.writeString(name);
+                out.writeVarLong(1);
+                new BinaryEventCodec().writeEvent(out,
+                        new PaymentReceivedEvent("e1", LocalDateTime.now(), "ORD-1", 10.0));
+            }
+            return new BinaryEventReader().readEvents(binary.toString(), event -> { });
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+}
@@ -2,9 +2,11 @@ package org.example.domain;
 
 import org.example.events.Event;
 import org.example.events.OrderCreatedEvent;
+import org.example.events.PaymentReceivedEvent;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -71,4 +73,113 @@ public class DomainModelTest {
         // Original order should still have 1 item
         assertEquals(1, order.getItems().size());
     }
+
+    @Test
+    public void testKeepLastRetainsMostRecentEvents() {
+        Order order = new Order("ORD001", "CUST001", Arrays.asList(new OrderItem("P001", 1)), 100.0,
+                HistoryRetention.keepLast(2));
+        for (int i = 1; i <= 5; i++) {
+            order.addEventToHistory(new PaymentReceivedEvent("e" + i, LocalDateTime.now(), "ORD001", 10.0));
+        }
+
+        assertEquals(5, order.getEventCount());
+        assertEquals(2, order.getEventHistory().size());
+        assertEquals("e4", order.getEventHistory().get(0).getEventId());
+        assertEquals("e5", order.getEventHistory().get(1).getEventId());
+    }
+
+    @Test
+    public void testStatusChangesOnlyDropsRepeatedStatuses() {
+        Order order = new Order("ORD001", "CUST001", Arrays.asList(new OrderItem("P001", 1)), 100.0,
+                HistoryRetention.statusChangesOnly());
+        LocalDateTime now = LocalDateTime.now();
+        order.addEventToHistory(new OrderCreatedEvent("e1", now, "ORD001", "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 100.0));
+        order.setStatus(OrderStatus.PARTIALLY_PAID);
+        order.addEventToHistory(new PaymentReceivedEvent("e2", now, "ORD001", 10.0));
+        order.addEventToHistory(new PaymentReceivedEvent("e3", now, "ORD001", 20.0));
+        order.setStatus(OrderStatus.PAID);
+        order.addEventToHistory(new PaymentReceivedEvent("e4", now, "ORD001", 100.0));
+
+        assertEquals(4, order.getEventCount());
+        List<Event> history = order.getEventHistory();
+        assertEquals(3, history.size());
+        assertEquals("e4", history.get(2).getEventId());
+    }
+
+    @Test
+    public void testSpilledHistoryKeepsOnlyReferences() {
+        List<Event> archived = new ArrayList<>();
+        HistoryArchive archive = listArchive(archived);
+
+        Order order = new Order("ORD001", "CUST001", Arrays.asList(new OrderItem("P001", 1)), 100.0,
+                HistoryRetention.spillTo(archive));
+        for (int i = 1; i <= 3; i++) {
+            order.addEventToHistory(new PaymentReceivedEvent("e" + i, LocalDateTime.now(), "ORD001", 10.0));
+        }
+
+        assertEquals(3, archived.size());
+        assertEquals(archived, order.getEventHistory());
+        assertEquals(3, order.getEventCount());
+    }
+
+    @Test
+    public void testChangingRetentionKeepsCountAndStatuses() {
+        Order order = new Order("ORD001", "CUST001", Arrays.asList(new OrderItem("P001", 1)), 100.0);
+        LocalDateTime now = LocalDateTime.now();
+        order.addEventToHistory(new OrderCreatedEvent("e1", now, "ORD001", "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 100.0));
+        order.setStatus(OrderStatus.PARTIALLY_PAID);
+        order.addEventToHistory(new PaymentReceivedEvent("e2", now, "ORD001", 10.0));
+        order.addEventToHistory(new PaymentReceivedEvent("e3", now, "ORD001", 20.0));
+        order.setStatus(OrderStatus.PAID);
+        order.addEventToHistory(new PaymentReceivedEvent("e4", now, "ORD001", 70.0));
+
+        order.setHistoryRetention(HistoryRetention.statusChangesOnly());
+        assertEquals(4, order.getEventCount());
+        assertEquals(3, order.getEventHistory().size());
+        assertEquals(Arrays.asList(OrderStatus.PENDING, OrderStatus.PARTIALLY_PAID, OrderStatus.PAID),
+                order.getHistory().getStatusesAfter());
+
+        order.setHistoryRetention(HistoryRetention.keepLast(2));
+        assertEquals(4, order.getEventCount());
+        assertEquals("e2", order.getEventHistory().get(0).getEventId());
+        assertEquals("e4", order.getEventHistory().get(1).getEventId());
+    }
+
+    @Test
+    public void testChangingToSameArchiveAdoptsReferences() {
+        List<Event> archived = new ArrayList<>();
+        HistoryRetention spill = HistoryRetention.spillTo(listArchive(archived));
+        Order order = new Order("ORD001", "CUST001", Arrays.asList(new OrderItem("P001", 1)), 100.0, spill);
+        for (int i = 1; i <= 3; i++) {
+            order.addEventToHistory(new PaymentReceivedEvent("e" + i, LocalDateTime.now(), "ORD001", 10.0));
+        }
+
+        order.setHistoryRetention(spill);
+        order.setHistoryRetention(HistoryRetention.spillTo(order.getHistory().getArchive()));
+
+        assertEquals(3, archived.size());
+        assertEquals(archived, order.getEventHistory());
+        assertEquals(3, order.getEventCount());
+    }
+
+    private static HistoryArchive listArchive(List<Event> archived) {
+        return new HistoryArchive() {
+            @Override
+            public long archive(Event event) {
+                archived.add(event);
+                return archived.size() - 1;
+            }
+
+            @Override
+            public List<Event> load(long[] references, int count) {
+                List<Event> events = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    events.add(archived.get((int) references[i]));
+                }
+                return events;
+            }
+        };
+    }
 }
@@ -0,0 +1,123 @@
+package org.example.handlers;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.events.PaymentReceivedEvent;
+import org.example.processing.EventParser;
+import org.example.processing.EventProcessor;
+import org.example.processing.StreamingEventParser;
+import org.example.processing.TreeEventParser;
+import org.example.store.HashMapOrderStore;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+public class EventHandlerRegistryTest {
+
+    @Test
+    public void testBuiltInHandlersAreFoundByTypeAndOrdinal() {
+        EventHandlerRegistry registry = EventHandlerRegistry.withDefaultHandlers();
+        PaymentReceivedEvent payment = new PaymentReceivedEvent("e1", LocalDateTime.now(), "ORD001", 10.0);
+
+        assertSame(registry.forType("PaymentReceived"), registry.forEvent(payment));
+        assertEquals("ORD001", registry.orderIdOf(payment));
+        assertEquals(payment.typeOrdinal(), Event.typeOrdinalOf(PaymentReceivedEvent.class));
+        assertNull(registry.forType("OrderReturned"));
+        assertTrue(registry.forType("OrderCreated").createsOrder());
+    }
+
+    @Test
+    public void testSubclassUsesSuperclassHandler() {
+        EventHandlerRegistry registry = EventHandlerRegistry.withDefaultHandlers();
+        PaymentReceivedEvent refund = new PaymentReceivedEvent("e1", LocalDateTime.now(), "ORD001", 10.0) {
+        };
+
+        assertSame(registry.forType("PaymentReceived"), registry.forEvent(refund));
+    }
+
+    @Test
+    public void testNewEventTypeIsParsedAndProcessedWithoutCoreChanges() throws IOException {
+        EventHandlerRegistry registry = EventHandlerRegistry.withDefaultHandlers();
+        registry.register(new OrderReturnedHandler());
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET, new HashMapOrderStore(), registry);
+
+        String created = "{\"eventId\":\"e1\",\"timestamp\":\"2025-07-29T10:00:00Z\",\"eventType\":\"OrderCreated\","
+                + "\"orderId\":\"ORD001\",\"customerId\":\"CUST001\",\"items\":[{\"itemId\":\"P001\",\"qty\":1}],"
+                + "\"totalAmount\":50.0}";
+        String returned = "{\"eventId\":\"e2\",\"timestamp\":\"2025-07-30T10:00:00Z\",\"eventType\":\"OrderReturned\","
+                + "\"orderId\":\"ORD001\",\"note\":\"damaged\"}";
+
+        for (EventParser parser : new EventParser[] {
+                new TreeEventParser(registry), new StreamingEventParser(new JsonFactory(), registry) }) {
+            processor.processEvent(parser.parse(created));
+            Event event = parser.parse(returned);
+            assertTrue(event instanceof OrderReturnedEvent);
+            assertEquals("damaged", ((OrderReturnedEvent) event).getNote());
+
+            processor.processEvent(event);
+            Order order = processor.getOrder("ORD001");
+            assertEquals(OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(2, order.getEventCount());
+            assertEquals(1, processor.countOrdersByStatus(OrderStatus.CANCELLED));
+        }
+    }
+
+    private static class OrderReturnedEvent extends Event {
+        private final String orderId;
+        private final String note;
+
+        OrderReturnedEvent(String eventId, LocalDateTime timestamp, String orderId, String note) {
+            super(eventId, timestamp, "OrderReturned");
+            this.orderId = orderId;
+            this.note = note;
+        }
+
+        String getOrderId() {
+            return orderId;
+        }
+
+        String getNote() {
+            return note;
+        }
+    }
+
+    private static class OrderReturnedHandler implements EventHandler<OrderReturnedEvent> {
+        @Override
+        public String getEventType() {
+            return "OrderReturned";
+        }
+
+        @Override
+        public Class<OrderReturnedEvent> getEventClass() {
+            return OrderReturnedEvent.class;
+        }
+
+        @Override
+        public OrderReturnedEvent parse(String eventId, LocalDateTime timestamp, EventFields fields)
+                throws IOException {
+            return new OrderReturnedEvent(eventId, timestamp, fields.getString("orderId"), fields.getString("note"));
+        }
+
+        @Override
+        public String getOrderId(OrderReturnedEvent event) {
+            return event.getOrderId();
+        }
+
+        @Override
+        public Order apply(OrderReturnedEvent event, Order order, HandlerContext context) {
+            if (order == null) {
+                context.reportOrderNotFound("return", event.getOrderId());
+                return null;
+            }
+            order.setStatus(OrderStatus.CANCELLED);
+            order.addEventToHistory(event);
+            return order;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.ids;
+
+import org.example.events.OrderCreatedEvent;
+import org.example.events.PaymentReceivedEvent;
+import org.example.handlers.EventHandlerRegistry;
+import org.example.processing.EventParser;
+import org.example.processing.StreamingEventParser;
+import org.example.processing.TreeEventParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class IdDictionaryTest {
+
+    @Test
+    public void testEqualIdsShareOneInstance() {
+        IdDictionary ids = new IdDictionary(16);
+        String first = ids.intern(new String("ORD001"));
+
+        assertSame(first, ids.intern(new String("ORD001")));
+        assertSame(first, ids.intern("xORD001x".toCharArray(), 1, 6));
+        assertNull(ids.intern(null));
+    }
+
+    @Test
+    public void testTableStaysBoundedAndStillReturnsEqualIds() {
+        IdDictionary ids = new IdDictionary(64);
+        for (int i = 0; i < 10_000; i++) {
+            String id = "ORD" + i;
+            assertEquals(id, ids.intern(id));
+            assertEquals(id, ids.intern(id.toCharArray(), 0, id.length()));
+        }
+
+        assertEquals(64, ids.capacity());
+        String recent = ids.intern(new String("ORD9999"));
+        assertSame(recent, ids.intern(new String("ORD9999")));
+    }
+
+    @Test
+    public void testParsersInternIdsAcrossEvents() throws IOException {
+        String created = "{\"eventId\":\"e1\",\"timestamp\":\"2025-07-29T10:00:00Z\",\"eventType\":\"OrderCreated\","
+                + "\"orderId\":\"ORD001\",\"customerId\":\"CUST001\",\"items\":[{\"itemId\":\"P001\",\"qty\":1}],"
+                + "\"totalAmount\":50.0}";
+        String payment = "{\"eventId\":\"e2\",\"timestamp\":\"2025-07-29T11:00:00Z\",\"eventType\":\"PaymentReceived\","
+                + "\"orderId\":\"ORD001\",\"amountPaid\":50.0}";
+
+        for (EventParser parser : new EventParser[] {
+                new TreeEventParser(EventHandlerRegistry.getDefault(), new IdDictionary()),
+                new StreamingEventParser(new JsonFactory(), EventHandlerRegistry.getDefault(), new IdDictionary()) }) {
+            OrderCreatedEvent first = (OrderCreatedEvent) parser.parse(created);
+            OrderCreatedEvent second = (OrderCreatedEvent) parser.parse(created);
+            PaymentReceivedEvent paid = (PaymentReceivedEvent) parser.parse(payment.getBytes(), 0, payment.length());
+
+            assertEquals("ORD001", first.getOrderId());
+            assertSame(first.getOrderId(), second.getOrderId());
+            assertSame(first.getOrderId(), paid.getOrderId());
+            assertSame(first.getCustomerId(), second.getCustomerId());
+            assertSame(first.getItems().get(0).getItemId(), second.getItems().get(0).getItemId());
+        }
+    }
+}
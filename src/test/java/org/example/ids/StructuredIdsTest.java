@@ -0,0 +1,33 @@
+package org.example.ids;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StructuredIdsTest {
+
+    @Test
+    public void testStructuredIdsRoundTrip() {
+        String[] ids = {"ORD001", "ORD01", "ORD1", "CUST-42", "P7", "ITEM-00000000001", "12345", "ABCD99999999999"};
+        for (String id : ids) {
+            long key = StructuredIds.encode(id);
+            assertTrue(id, key >= 0);
+            assertEquals(id, StructuredIds.decode(key));
+        }
+        assertNotEquals(StructuredIds.encode("ORD001"), StructuredIds.encode("ORD01"));
+        assertNotEquals(StructuredIds.encode("ORD-1"), StructuredIds.encode("ORD1"));
+    }
+
+    @Test
+    public void testOtherIdsAreNotEncodable() {
+        String[] ids = {"", "ORD", "ORDER1", "ord1", "ORD-", "ORD1A", "ORD_1", "ORD123456789012", "A--1"};
+        for (String id : ids) {
+            assertEquals(id, StructuredIds.NOT_ENCODABLE, StructuredIds.encode(id));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeRejectsNotEncodable() {
+        StructuredIds.decode(StructuredIds.NOT_ENCODABLE);
+    }
+}
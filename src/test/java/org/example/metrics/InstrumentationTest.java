@@ -0,0 +1,142 @@
+package org.example.metrics;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.events.Event;
+import org.example.events.OrderCreatedEvent;
+import org.example.events.PaymentReceivedEvent;
+import org.example.observers.OrderObserver;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.processing.EventIngestionService;
+import org.example.processing.EventProcessor;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class InstrumentationTest {
+
+    @Test
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 100);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_050.0, histogram.getMean(), 1.0);
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+
+        for (int index = 1; index < 960; index++) {
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(index)));
+            assertEquals(index - 1, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(index) - 1));
+        }
+    }
+
+    @Test
+    public void testCountsParseAndProcessingProblems() throws Exception {
+        Path file = Files.createTempFile("instrumented", ".json");
+        try {
+            Files.write(file, Arrays.asList(
+                    "{\"eventId\":\"e1\",\"timestamp\":\"2024-03-15T10:30:00\",\"eventType\":\"OrderCreated\","
+                            + "\"orderId\":\"ORD-1\",\"customerId\":\"CUST-1\",\"items\":[],\"totalAmount\":10.0}",
+                    "{\"eventId\":\"e2\",\"timestamp\":\"2024-03-15T10:31:00\",\"eventType\":\"PaymentReceived\","
+                            + "\"orderId\":\"ORD-2\",\"amountPaid\":10.0}",
+                    "{\"eventId\":\"e3\",\"timestamp\":\"2024-03-15T10:32:00\",\"eventType\":\"Refund\"}",
+                    "{not json}"),
+                    StandardCharsets.UTF_8);
+
+            Instrumentation instrumentation = new Instrumentation();
+            EventIngestionService service = new EventIngestionService();
+            service.setInstrumentation(instrumentation);
+            EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+            processor.setInstrumentation(instrumentation);
+            processor.addObserver(new OrderObserver() {
+                @Override
+                public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+                }
+
+                @Override
+                public void onEventProcessed(Event event, Order order) {
+                }
+            });
+
+            assertEquals(2, service.readEventsFromFile(file.toString(), processor::processEvent));
+
+            assertEquals(2, instrumentation.getEventCount());
+            assertEquals(Long.valueOf(1), instrumentation.getEventsByType().get("PaymentReceived"));
+            assertEquals(1, instrumentation.getOrdersNotFound());
+            assertEquals(1, instrumentation.getParseErrors());
+            assertEquals(1, instrumentation.getUnknownEventTypes());
+            assertEquals(3, instrumentation.getStageLatencies().get("parse").getCount());
+            assertEquals(1, instrumentation.getStageLatencies().get("handle.OrderCreated").getCount());
+            assertTrue(instrumentation.getStageLatencies().keySet().stream().anyMatch(s -> s.startsWith("observer.")));
+            assertTrue(instrumentation.getReport().contains("handle.PaymentReceived"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testHandlerLatencyExcludesStatusChangeObservers() {
+        long observerMillis = 200;
+        Instrumentation instrumentation = new Instrumentation();
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setInstrumentation(instrumentation);
+        processor.addObserver(new OrderObserver() {
+            @Override
+            public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+                try {
+                    Thread.sleep(observerMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+            }
+        });
+
+        processor.processEvent(new OrderCreatedEvent("e1", null, "ORD-1", "CUST-1",
+                Arrays.asList(new OrderItem("P001", 1)), 10.0));
+        processor.processEvent(new PaymentReceivedEvent("e2", null, "ORD-1", 10.0));
+
+        LatencySummary handled = instrumentation.getStageLatencies().get("handle.PaymentReceived");
+        assertEquals(1, handled.getCount());
+        assertTrue(handled.getMax() < TimeUnit.MILLISECONDS.toNanos(observerMillis));
+    }
+
+    @Test
+    public void testExposedThroughJmx() throws Exception {
+        Instrumentation instrumentation = new Instrumentation();
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setInstrumentation(instrumentation);
+        processor.processEvent(new PaymentReceivedEvent("e1", null, "ORD-1", 1.0));
+
+        ObjectName name = instrumentation.registerMBean("jmx-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "OrdersNotFound"));
+            TabularData stages = (TabularData) server.getAttribute(name, "StageLatencies");
+            CompositeData row = stages.get(new Object[] {"handle.PaymentReceived"});
+            assertEquals(1L, ((CompositeData) row.get("value")).get("count"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
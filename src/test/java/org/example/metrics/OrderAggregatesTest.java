@@ -0,0 +1,154 @@
+package org.example.metrics;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.*;
+import org.example.processing.EventProcessor;
+import org.example.processing.PartitionedEventProcessor;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class OrderAggregatesTest {
+    private static final List<OrderItem> ITEMS = Arrays.asList(new OrderItem("P001", 1));
+
+    @Test
+    public void testTracksStatusCountsAmountsAndPayments() {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        OrderAggregates aggregates = new OrderAggregates();
+        processor.addObserver(aggregates);
+
+        LocalDateTime now = LocalDateTime.now();
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD1", "CUST1", ITEMS, 100.0));
+        processor.processEvent(new OrderCreatedEvent("e2", now, "ORD2", "CUST1", ITEMS, 50.0));
+        processor.processEvent(new OrderCreatedEvent("e3", now, "ORD3", "CUST2", ITEMS, 25.0));
+        AggregateSnapshot before = aggregates.snapshot();
+
+        processor.processEvent(new PaymentReceivedEvent("e4", now, "ORD1", 40.0));
+        processor.processEvent(new PaymentReceivedEvent("e5", now, "ORD2", 50.0));
+        processor.processEvent(new ShippingScheduledEvent("e6", now, "ORD2", now.plusDays(1)));
+        processor.processEvent(new OrderCancelledEvent("e7", now, "ORD3", "Changed mind"));
+        processor.processEvent(new PaymentReceivedEvent("e8", now, "ORD-MISSING", 10.0));
+        AggregateSnapshot after = aggregates.snapshot();
+
+        assertTrue(after.isConsistent());
+        assertEquals(3, before.getOrderCount(OrderStatus.PENDING));
+        assertEquals(175.0, before.getOutstandingAmount(), 0.001);
+
+        assertEquals(1, after.getOrderCount(OrderStatus.PARTIALLY_PAID));
+        assertEquals(1, after.getOrderCount(OrderStatus.SHIPPED));
+        assertEquals(1, after.getOrderCount(OrderStatus.CANCELLED));
+        assertEquals(0, after.getOrderCount(OrderStatus.PENDING));
+        assertEquals(3, after.getOrderCount());
+        assertEquals(175.0, after.getTotalAmount(), 0.001);
+        assertEquals(100.0, after.getOutstandingAmount(), 0.001);
+        assertEquals(2, after.getPaymentCount());
+        assertEquals(90.0, after.getPaymentAmount(), 0.001);
+        assertEquals(Long.valueOf(3), after.getEventsByType().get("PaymentReceived"));
+        assertEquals(8, after.getEventCount());
+        assertTrue(after.totalEventsPerSecondSince(before) > 0);
+    }
+
+    @Test
+    public void testRepeatedCreateReplacesCountedOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = Arrays.asList(
+                new OrderCreatedEvent("e1", now, "ORD1", "CUST1", ITEMS, 100.0),
+                new PaymentReceivedEvent("e2", now, "ORD1", 40.0),
+                new OrderCreatedEvent("e3", now, "ORD1", "CUST1", ITEMS, 60.0));
+
+        EventProcessor single = new EventProcessor(DiagnosticSink.QUIET);
+        OrderAggregates singleAggregates = new OrderAggregates();
+        single.addObserver(singleAggregates);
+        events.forEach(single::processEvent);
+
+        EventProcessor batched = new EventProcessor(DiagnosticSink.QUIET);
+        OrderAggregates batchedAggregates = new OrderAggregates();
+        batched.addObserver(batchedAggregates);
+        batched.processBatch(events);
+
+        for (AggregateSnapshot snapshot : Arrays.asList(singleAggregates.snapshot(), batchedAggregates.snapshot())) {
+            assertEquals(1, snapshot.getOrderCount());
+            assertEquals(1, snapshot.getOrderCount(OrderStatus.PENDING));
+            assertEquals(0, snapshot.getOrderCount(OrderStatus.PARTIALLY_PAID));
+            assertEquals(60.0, snapshot.getTotalAmount(), 0.001);
+            assertEquals(60.0, snapshot.getOutstandingAmount(), 0.001);
+        }
+    }
+
+    @Test
+    public void testSeedCountsRestoredOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        EventProcessor original = new EventProcessor(DiagnosticSink.QUIET);
+        original.processEvent(new OrderCreatedEvent("e1", now, "ORD1", "CUST1", ITEMS, 100.0));
+        original.processEvent(new OrderCreatedEvent("e2", now, "ORD2", "CUST1", ITEMS, 50.0));
+        original.processEvent(new PaymentReceivedEvent("e3", now, "ORD2", 50.0));
+
+        EventProcessor recovered = new EventProcessor(DiagnosticSink.QUIET);
+        original.getOrders().values().forEach(recovered::restoreOrder);
+        OrderAggregates aggregates = new OrderAggregates();
+        recovered.getOrders().values().forEach(aggregates::seed);
+        recovered.addObserver(aggregates);
+        recovered.processEvent(new PaymentReceivedEvent("e4", now, "ORD1", 30.0));
+
+        AggregateSnapshot snapshot = aggregates.snapshot();
+        assertEquals(2, snapshot.getOrderCount());
+        assertEquals(1, snapshot.getOrderCount(OrderStatus.PARTIALLY_PAID));
+        assertEquals(1, snapshot.getOrderCount(OrderStatus.PAID));
+        assertEquals(150.0, snapshot.getTotalAmount(), 0.001);
+        assertEquals(100.0, snapshot.getOutstandingAmount(), 0.001);
+        assertEquals(1, snapshot.getPaymentCount());
+    }
+
+    @Test
+    public void testConsistentSnapshotsUnderPartitionedProcessing() throws InterruptedException {
+        OrderAggregates aggregates = new OrderAggregates();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicInteger consistentReads = new AtomicInteger();
+
+        // Creating an order counts the event and the PENDING order in one update,
+        // so every consistent snapshot must agree on the two
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                AggregateSnapshot snapshot = aggregates.snapshot();
+                if (snapshot.isConsistent()) {
+                    consistentReads.incrementAndGet();
+                    long created = snapshot.getEventsByType().getOrDefault("OrderCreated", 0L);
+                    if (created != snapshot.getOrderCount()) {
+                        failure.set("Inconsistent snapshot " + snapshot);
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        LocalDateTime now = LocalDateTime.now();
+        try (PartitionedEventProcessor processor = new PartitionedEventProcessor(4, 1024, DiagnosticSink.QUIET)) {
+            processor.addObserver(aggregates);
+            for (int i = 0; i < 20_000; i++) {
+                processor.submit(new OrderCreatedEvent("c" + i, now, "ORD" + i, "CUST", ITEMS, 10.0));
+                processor.submit(new PaymentReceivedEvent("p" + i, now, "ORD" + i, i % 2 == 0 ? 10.0 : 5.0));
+            }
+            processor.drain();
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertTrue(consistentReads.get() > 0);
+        AggregateSnapshot snapshot = aggregates.snapshot();
+        assertEquals(10_000, snapshot.getOrderCount(OrderStatus.PAID));
+        assertEquals(10_000, snapshot.getOrderCount(OrderStatus.PARTIALLY_PAID));
+        assertEquals(100_000.0, snapshot.getOutstandingAmount(), 0.001);
+        assertEquals(150_000.0, snapshot.getPaymentAmount(), 0.001);
+    }
+}
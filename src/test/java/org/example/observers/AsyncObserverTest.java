@@ -0,0 +1,265 @@
+package org.example.observers;
+
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.events.PaymentReceivedEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncObserverTest {
+
+    private static Order order(String orderId) {
+        return new Order(orderId, "CUST001", Arrays.asList(new OrderItem("P001", 1)), 50.0);
+    }
+
+    private static Event payment(String eventId, String orderId) {
+        return new PaymentReceivedEvent(eventId, LocalDateTime.now(), orderId, 10.0);
+    }
+
+    @Test
+    public void testBlockingDeliversEverythingInOrder() throws InterruptedException {
+        RecordingObserver recorder = new RecordingObserver(null);
+        AsyncObserver async = new AsyncObserver(recorder, AsyncObserver.OverflowPolicy.BLOCK, 2);
+
+        Order order = order("ORD001");
+        for (int i = 0; i < 50; i++) {
+            async.onEventProcessed(payment("e" + i, "ORD001"), order);
+        }
+        async.onOrderStatusChanged(order, "PENDING", "PAID");
+        async.close();
+
+        assertEquals(51, recorder.calls.size());
+        assertEquals("e0", recorder.calls.get(0));
+        assertEquals("e49", recorder.calls.get(49));
+        assertEquals("ORD001:PENDING->PAID", recorder.calls.get(50));
+        assertEquals(51, async.getDeliveredCount());
+        assertEquals(0, async.getLag());
+        assertEquals(0, async.getQueueDepth());
+    }
+
+    @Test
+    public void testDropAndCoalesceWhenObserverIsStalled() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver dropRecorder = new RecordingObserver(release);
+        RecordingObserver coalesceRecorder = new RecordingObserver(release);
+        AsyncObserver dropping = new AsyncObserver(dropRecorder, AsyncObserver.OverflowPolicy.DROP, 1);
+        AsyncObserver coalescing = new AsyncObserver(coalesceRecorder, AsyncObserver.OverflowPolicy.COALESCE, 1);
+
+        Order order = order("ORD001");
+        // The first notification is taken by the (stalled) dispatcher, the second fills the buffer
+        for (AsyncObserver async : Arrays.asList(dropping, coalescing)) {
+            async.onOrderStatusChanged(order, "PENDING", "PARTIALLY_PAID");
+            while (async.getQueueDepth() > 0) {
+                Thread.sleep(1);
+            }
+            async.onOrderStatusChanged(order, "PARTIALLY_PAID", "PAID");
+            async.onOrderStatusChanged(order, "PAID", "SHIPPED");
+            async.onOrderStatusChanged(order, "SHIPPED", "CANCELLED");
+        }
+
+        assertEquals(2, dropping.getDroppedCount());
+        assertEquals(1, coalescing.getCoalescedCount());
+        assertEquals(2, coalescing.getQueueDepth());
+        assertTrue(coalescing.getLag() > 0);
+
+        release.countDown();
+        dropping.close();
+        coalescing.close();
+
+        assertEquals(Arrays.asList("ORD001:PENDING->PARTIALLY_PAID", "ORD001:PARTIALLY_PAID->PAID"),
+                dropRecorder.calls);
+        assertEquals(Arrays.asList("ORD001:PENDING->PARTIALLY_PAID", "ORD001:PARTIALLY_PAID->PAID",
+                "ORD001:PAID->CANCELLED"), coalesceRecorder.calls);
+    }
+
+    @Test
+    public void testCoalescedNotificationsWaitForOlderQueuedOnes() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(release);
+        AsyncObserver async = new AsyncObserver(recorder, AsyncObserver.OverflowPolicy.COALESCE, 600);
+
+        Order order = order("ORD001");
+        async.onEventProcessed(payment("e0", "ORD001"), order);
+        while (async.getQueueDepth() > 0) {
+            Thread.sleep(1);
+        }
+        // More queued notifications than the dispatcher takes in one batch
+        for (int i = 1; i <= 600; i++) {
+            async.onEventProcessed(payment("e" + i, "ORD001"), order);
+        }
+        async.onOrderStatusChanged(order, OrderStatus.PENDING, OrderStatus.PAID);
+        async.onEventProcessed(payment("e601", "ORD001"), order);
+        release.countDown();
+        async.close();
+
+        assertEquals(603, recorder.calls.size());
+        assertEquals("e600", recorder.calls.get(600));
+        assertEquals("ORD001:PENDING->PAID", recorder.calls.get(601));
+        assertEquals("e601", recorder.calls.get(602));
+    }
+
+    @Test
+    public void testOrderlessNotificationsAreNotCoalesced() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(release);
+        AsyncObserver async = new AsyncObserver(recorder, AsyncObserver.OverflowPolicy.COALESCE, 1);
+
+        async.onEventProcessed(payment("e0", "ORD-MISSING"), null);
+        recorder.stalled.await();
+        for (int i = 1; i <= 5; i++) {
+            async.onEventProcessed(payment("e" + i, "ORD-MISSING"), null);
+        }
+        assertEquals(5, async.getQueueDepth());
+        release.countDown();
+        async.close();
+
+        assertEquals(0, async.getCoalescedCount());
+        assertEquals(Arrays.asList("e0", "e1", "e2", "e3", "e4", "e5"), recorder.calls);
+    }
+
+    @Test
+    public void testLagCoversCoalescedNotifications() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(release);
+        AsyncObserver async = new AsyncObserver(recorder, AsyncObserver.OverflowPolicy.COALESCE, 1);
+
+        Order order = order("ORD001");
+        async.onEventProcessed(payment("e0", "ORD001"), order);
+        recorder.stalled.await();
+        async.onEventProcessed(payment("e1", "ORD002"), order("ORD002"));
+        async.onEventProcessed(payment("e2", "ORD001"), order);
+        Thread.sleep(20);
+        // Merging a newer notification keeps the earlier publication time
+        async.onEventProcessed(payment("e3", "ORD001"), order);
+
+        assertEquals(1, async.getCoalescedCount());
+        assertTrue(async.getLagNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        release.countDown();
+        async.close();
+
+        assertEquals(Arrays.asList("e0", "e1", "e3"), recorder.calls);
+        assertEquals(0, async.getLagNanos());
+    }
+
+    @Test
+    public void testNotificationsAfterCloseAreDropped() throws InterruptedException {
+        RecordingObserver recorder = new RecordingObserver(null);
+        AsyncObserver async = new AsyncObserver(recorder, AsyncObserver.OverflowPolicy.BLOCK, 1);
+        Order order = order("ORD001");
+        async.onEventProcessed(payment("e0", "ORD001"), order);
+        async.close();
+
+        async.onEventProcessed(payment("e1", "ORD001"), order);
+        async.onOrderStatusChanged(order, (String) null, "PAID");
+
+        assertEquals(Arrays.asList("e0"), recorder.calls);
+        assertEquals(2, async.getDroppedCount());
+        assertEquals(0, async.getLag());
+    }
+
+    @Test
+    public void testBatchObserverReceivesBatches() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        BatchOrderObserver batchObserver = new BatchOrderObserver() {
+            @Override
+            public void onEventsProcessed(List<ProcessedEvent> events) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                batchSizes.add(events.size());
+            }
+
+            @Override
+            public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+            }
+        };
+
+        AsyncObserver async = new AsyncObserver(batchObserver, AsyncObserver.OverflowPolicy.BLOCK, 64);
+        Order order = order("ORD001");
+        async.onEventProcessed(payment("e0", "ORD001"), order);
+        while (async.getQueueDepth() > 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i < 40; i++) {
+            async.onEventProcessed(payment("e" + i, "ORD001"), order);
+        }
+        release.countDown();
+        async.close();
+
+        assertEquals(Arrays.asList(1, 39), batchSizes);
+    }
+
+    @Test
+    public void testObserverFailuresGoToTheSinkUnderAClassName() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        OrderObserver failing = new OrderObserver() {
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        AsyncObserver async = new AsyncObserver(failing, AsyncObserver.OverflowPolicy.BLOCK, 4,
+                new ConsoleDiagnosticSink(DiagnosticLevel.ERROR, new PrintStream(out), new PrintStream(err)));
+        async.onEventProcessed(payment("e0", "ORD001"), order("ORD001"));
+        async.close();
+
+        assertEquals("", out.toString());
+        assertEquals("Observer " + failing.getClass().getName() + " failed: boom",
+                err.toString().trim());
+        assertEquals(1, async.getDeliveredCount());
+    }
+
+    private static class RecordingObserver implements OrderObserver {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        /** Counted down once the dispatcher is held at the gate. */
+        final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch gate;
+
+        RecordingObserver(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+            await();
+            calls.add(order.getOrderId() + ":" + previousStatus + "->" + newStatus);
+        }
+
+        @Override
+        public void onEventProcessed(Event event, Order order) {
+            await();
+            calls.add(event.getEventId());
+        }
+
+        private void await() {
+            if (gate == null) {
+                return;
+            }
+            stalled.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.observers;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.events.OrderCancelledEvent;
+import org.example.events.OrderCreatedEvent;
+import org.example.events.PaymentReceivedEvent;
+import org.example.events.ShippingScheduledEvent;
+import org.example.processing.EventProcessor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ObserverSubscriptionTest {
+    private final LocalDateTime now = LocalDateTime.now();
+    private final List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+    private EventProcessor processor;
+
+    @Before
+    public void setUp() {
+        processor = new EventProcessor(DiagnosticSink.QUIET);
+    }
+
+    @Test
+    public void testObserverOnlyReceivesSubscribedTypesAndStatuses() {
+        RecordingObserver observer = new RecordingObserver(ObserverSubscription.ALL
+                .withEventTypes("OrderCancelled")
+                .withStatuses(EnumSet.of(OrderStatus.CANCELLED, OrderStatus.SHIPPED)));
+        processor.addObserver(observer);
+
+        processLifecycle();
+
+        assertEquals(Arrays.asList("PAID->SHIPPED", "SHIPPED->CANCELLED", "event e5"), observer.calls);
+    }
+
+    @Test
+    public void testTransitionSubscriptionChecksPreviousStatus() {
+        ObserverSubscription subscription = ObserverSubscription.ALL.withEventTypes()
+                .withTransitions(EnumSet.of(OrderStatus.SHIPPED), EnumSet.of(OrderStatus.CANCELLED));
+        RecordingObserver observer = new RecordingObserver(subscription);
+        processor.addObserver(observer);
+
+        processor.processEvent(new OrderCreatedEvent("e0", now, "ORD002", "CUST001", items, 100.0));
+        processor.processEvent(new OrderCancelledEvent("e6", now, "ORD002", "Changed mind"));
+        processLifecycle();
+
+        assertEquals(Arrays.asList("SHIPPED->CANCELLED"), observer.calls);
+        assertTrue(subscription.includesStatus(OrderStatus.CANCELLED));
+        assertFalse(subscription.accepts(null, OrderStatus.PENDING, OrderStatus.CANCELLED));
+    }
+
+    @Test
+    public void testFilterRestrictsNotificationsToMatchingOrders() {
+        RecordingObserver observer = new RecordingObserver(ObserverSubscription.ALL);
+        processor.addObserver(observer, ObserverSubscription.ALL.withFilter(order -> order.getTotalAmount() > 100));
+
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD001", "CUST001", items, 50.0));
+        processor.processEvent(new OrderCreatedEvent("e2", now, "ORD002", "CUST001", items, 500.0));
+        processor.processEvent(new PaymentReceivedEvent("e3", now, "ORD001", 50.0));
+        processor.processEvent(new PaymentReceivedEvent("e4", now, "ORD002", 500.0));
+        processor.processEvent(new PaymentReceivedEvent("e5", now, "MISSING", 1.0));
+
+        assertEquals(Arrays.asList("event e2", "PENDING->PAID", "event e4"), observer.calls);
+    }
+
+    @Test
+    public void testBatchDeliveryHonoursSubscriptions() {
+        List<String> calls = new ArrayList<>();
+        processor.addObserver(new BatchOrderObserver() {
+            @Override
+            public void onEventsProcessed(List<ProcessedEvent> events) {
+                StringBuilder ids = new StringBuilder("events");
+                for (ProcessedEvent processed : events) {
+                    ids.append(' ').append(processed.getEvent().getEventId());
+                }
+                calls.add(ids.toString());
+            }
+
+            @Override
+            public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+                calls.add(previousStatus + "->" + newStatus);
+            }
+
+            @Override
+            public ObserverSubscription getSubscription() {
+                return ObserverSubscription.ALL
+                        .withEventTypes("PaymentReceived", "ShippingScheduled")
+                        .withStatuses(EnumSet.of(OrderStatus.SHIPPED));
+            }
+        });
+
+        processor.processBatch(Arrays.asList(
+                new OrderCreatedEvent("e1", now, "ORD001", "CUST001", items, 100.0),
+                new PaymentReceivedEvent("e2", now, "ORD001", 100.0),
+                new ShippingScheduledEvent("e3", now, "ORD001", now.plusDays(1))));
+
+        assertEquals(Arrays.asList("events e2", "PAID->SHIPPED", "events e3"), calls);
+    }
+
+    @Test
+    public void testAlertObserverIsNotCalledForOtherNotifications() {
+        List<String> calls = new ArrayList<>();
+        processor.addObserver(new AlertObserver(DiagnosticSink.QUIET) {
+            @Override
+            public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+                calls.add(previousStatus + "->" + newStatus);
+            }
+
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                calls.add("event " + event.getEventId());
+            }
+        });
+
+        processLifecycle();
+
+        assertEquals(Arrays.asList("PAID->SHIPPED", "SHIPPED->CANCELLED", "event e5"), calls);
+    }
+
+    @Test
+    public void testStringCallbacksStillReceiveStatusNames() {
+        List<String> calls = new ArrayList<>();
+        processor.addObserver(new OrderObserver() {
+            @Override
+            public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+                calls.add(previousStatus + "->" + newStatus);
+            }
+
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+            }
+        });
+
+        processLifecycle();
+
+        assertEquals(Arrays.asList("PENDING->PAID", "PAID->SHIPPED", "SHIPPED->CANCELLED"), calls);
+    }
+
+    @Test
+    public void testRemovedObserverIsDroppedFromRoutes() {
+        RecordingObserver first = new RecordingObserver(ObserverSubscription.ALL);
+        RecordingObserver second = new RecordingObserver(ObserverSubscription.ALL.withEventTypes("OrderCreated"));
+        processor.addObserver(first);
+        processor.addObserver(second);
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD001", "CUST001", items, 100.0));
+
+        processor.removeObserver(first);
+        processor.processEvent(new OrderCreatedEvent("e2", now, "ORD002", "CUST001", items, 100.0));
+
+        assertEquals(Arrays.asList("event e1"), first.calls);
+        assertEquals(Arrays.asList("event e1", "event e2"), second.calls);
+    }
+
+    private void processLifecycle() {
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD001", "CUST001", items, 100.0));
+        processor.processEvent(new PaymentReceivedEvent("e2", now, "ORD001", 100.0));
+        processor.processEvent(new ShippingScheduledEvent("e3", now, "ORD001", now.plusDays(1)));
+        processor.processEvent(new PaymentReceivedEvent("e4", now, "MISSING", 1.0));
+        processor.processEvent(new OrderCancelledEvent("e5", now, "ORD001", "Customer request"));
+    }
+
+    private static class RecordingObserver implements OrderObserver {
+        private final ObserverSubscription subscription;
+        private final List<String> calls = new ArrayList<>();
+
+        RecordingObserver(ObserverSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onOrderStatusChanged(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+            calls.add(previousStatus + "->" + newStatus);
+        }
+
+        @Override
+        public void onEventProcessed(Event event, Order order) {
+            calls.add("event " + event.getEventId());
+        }
+
+        @Override
+        public ObserverSubscription getSubscription() {
+            return subscription;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package org.example.observers;
 
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
 import org.example.domain.Order;
 import org.example.domain.OrderItem;
+import org.example.domain.OrderSnapshot;
+import org.example.domain.OrderStatus;
 import org.example.events.Event;
 import org.example.events.OrderCreatedEvent;
 import org.example.events.OrderCancelledEvent;
+import org.example.events.PaymentReceivedEvent;
+import org.example.processing.EventProcessor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +20,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -102,4 +111,63 @@ public class ObserversTest {
         assertTrue("Should alert on cancellation event",
                 output.contains("[ALERT] Critical event: Order ORD001 has been cancelled"));
     }
+
+    @Test
+    public void testQuietObserversWriteNothing() {
+        Order order = new Order("ORD001", "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 50.0);
+        Event cancelEvent = new OrderCancelledEvent("e1", LocalDateTime.now(),
+                "ORD001", "Customer request");
+
+        new LoggerObserver(DiagnosticSink.QUIET).onEventProcessed(cancelEvent, order);
+        new AlertObserver(DiagnosticSink.QUIET).onEventProcessed(cancelEvent, order);
+        new AlertObserver(new ConsoleDiagnosticSink(DiagnosticLevel.ERROR))
+                .onOrderStatusChanged(order, "PAID", "SHIPPED");
+
+        assertEquals("", outputStream.toString());
+    }
+
+    @Test
+    public void testSnapshotViewPublishesConsistentStateToReaders() throws InterruptedException {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        OrderSnapshotView view = new OrderSnapshotView();
+        processor.addObserver(view);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            int lastVersion = 0;
+            while (!done.get()) {
+                OrderSnapshot snapshot = view.get("ORD001");
+                if (snapshot == null) {
+                    continue;
+                }
+                if (snapshot.getVersion() < lastVersion
+                        || (snapshot.getVersion() > 1 && snapshot.getStatus() != OrderStatus.PARTIALLY_PAID)) {
+                    failure.set("Inconsistent snapshot " + snapshot);
+                }
+                lastVersion = snapshot.getVersion();
+            }
+        });
+        reader.start();
+
+        processor.processEvent(new OrderCreatedEvent("e0", LocalDateTime.now(), "ORD001", "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 1_000_000.0));
+        for (int i = 1; i <= 10_000; i++) {
+            processor.processEvent(new PaymentReceivedEvent("e" + i, LocalDateTime.now(), "ORD001", 1.0));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        OrderSnapshot snapshot = view.asMap().get("ORD001");
+        assertEquals(10_001, snapshot.getVersion());
+        assertEquals(1, snapshot.getItems().size());
+        try {
+            view.asMap().clear();
+            fail("View should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(1, view.size());
+        }
+    }
 }
@@ -0,0 +1,324 @@
+package org.example.persistence;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.HistoryRetention;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.*;
+import org.example.processing.EventProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DurableEventProcessorTest {
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable-events");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testSpilledHistoryReferencesTheDurableLog() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        EventLog log = new EventLog(directory.resolve("log"), 256);
+        try (DurableEventProcessor durable = openSpilling(log, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                for (Event event : eventsFor("ORD-" + i, time)) {
+                    durable.processEvent(event);
+                }
+            }
+
+            Order order = durable.getProcessor().getOrders().get("ORD-7");
+            List<Event> history = order.getEventHistory();
+            assertEquals(order.getEventCount(), history.size());
+            assertEquals(eventsFor("ORD-7", time).toString(), history.toString());
+            // Each event is written once, to the durable log
+            assertEquals(40, log.getNextSequence());
+        }
+    }
+
+    @Test
+    public void testSnapshotKeepsEventCountAndStatusesOfTrimmedHistory() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        List<OrderStatus> statuses;
+        try (DurableEventProcessor durable = open(1000, HistoryRetention.keepLast(3))) {
+            durable.processEvent(new OrderCreatedEvent("c", time, "ORD001", "CUST001",
+                    Arrays.asList(new OrderItem("P001", 1)), 90.0));
+            for (int i = 1; i <= 9; i++) {
+                durable.processEvent(new PaymentReceivedEvent("p" + i, time.plusMinutes(i), "ORD001", i < 9 ? 10.0 : 90.0));
+            }
+            Order order = durable.getProcessor().getOrder("ORD001");
+            assertEquals(10, order.getEventCount());
+            statuses = order.getHistory().getStatusesAfter();
+            durable.snapshot();
+        }
+
+        try (DurableEventProcessor recovered = open(1000, HistoryRetention.keepLast(3))) {
+            assertEquals(0, recovered.recover());
+            Order order = recovered.getProcessor().getOrder("ORD001");
+            assertEquals(10, order.getEventCount());
+            assertEquals(OrderStatus.PAID, order.getStatus());
+            assertEquals(Arrays.asList(OrderStatus.PARTIALLY_PAID, OrderStatus.PARTIALLY_PAID, OrderStatus.PAID),
+                    statuses);
+            assertEquals(statuses, order.getHistory().getStatusesAfter());
+            assertEquals("p7", order.getEventHistory().get(0).getEventId());
+        }
+    }
+
+    @Test
+    public void testSnapshotStoresSpilledHistoryAsReferences() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        try (DurableEventProcessor durable = openSpilling(new EventLog(directory.resolve("log"), 256), 10)) {
+            for (int i = 0; i < 12; i++) {
+                for (Event event : eventsFor("ORD-" + i, time)) {
+                    durable.processEvent(event);
+                }
+            }
+            durable.snapshot();
+        }
+
+        EventLog log = new EventLog(directory.resolve("log"), 256);
+        try (DurableEventProcessor recovered = openSpilling(log, 10)) {
+            assertEquals(0, recovered.recover());
+            // Segments holding ORD-0's events were kept for its archived history
+            assertEquals(0, log.getFirstSequence());
+            Order order = recovered.getProcessor().getOrder("ORD-0");
+            assertEquals(4, order.getEventCount());
+            assertEquals(eventsFor("ORD-0", time).toString(), order.getEventHistory().toString());
+        }
+    }
+
+    @Test
+    public void testLogIsTruncatedOnceArchivedHistoryIsNoLongerReferenced() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        EventLog log = new EventLog(directory.resolve("log"), 256);
+        try (DurableEventProcessor durable = openSpilling(log, 1000)) {
+            for (Event event : eventsFor("ORD-0", time)) {
+                durable.processEvent(event);
+            }
+            durable.getProcessor().setHistoryRetention(HistoryRetention.KEEP_ALL);
+            for (int i = 1; i < 12; i++) {
+                for (Event event : eventsFor("ORD-" + i, time)) {
+                    durable.processEvent(event);
+                }
+            }
+            durable.snapshot();
+            assertEquals(0, log.getFirstSequence());
+
+            // Once ORD-0's history is back in memory, no snapshot needs the old records
+            durable.getProcessor().getOrder("ORD-0").setHistoryRetention(HistoryRetention.KEEP_ALL);
+            durable.snapshot();
+            durable.snapshot();
+            assertTrue(log.getFirstSequence() > 0);
+            assertEquals(eventsFor("ORD-0", time).toString(),
+                    durable.getProcessor().getOrder("ORD-0").getEventHistory().toString());
+        }
+    }
+
+    private DurableEventProcessor openSpilling(EventLog log, int snapshotInterval) throws IOException {
+        DurableEventProcessor durable = new DurableEventProcessor(new EventProcessor(DiagnosticSink.QUIET), log,
+                new SnapshotStore(directory.resolve("snapshots")), snapshotInterval);
+        durable.getProcessor().setHistoryRetention(HistoryRetention.spillTo(durable.getHistoryArchive()));
+        return durable;
+    }
+
+    private DurableEventProcessor open(int snapshotInterval, HistoryRetention retention) throws IOException {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setHistoryRetention(retention);
+        return new DurableEventProcessor(processor, new EventLog(directory.resolve("log"), 512),
+                new SnapshotStore(directory.resolve("snapshots")), snapshotInterval);
+    }
+
+    private DurableEventProcessor open(int snapshotInterval) throws IOException {
+        return new DurableEventProcessor(new EventProcessor(DiagnosticSink.QUIET),
+                new EventLog(directory.resolve("log"), 512),
+                new SnapshotStore(directory.resolve("snapshots")), snapshotInterval);
+    }
+
+    private static List<Event> eventsFor(String orderId, LocalDateTime time) {
+        return Arrays.asList(
+                new OrderCreatedEvent("c-" + orderId, time, orderId, "CUST001",
+                        Arrays.asList(new OrderItem("P001", 2)), 100.0),
+                new PaymentReceivedEvent("p-" + orderId, time.plusMinutes(1), orderId, 40.0),
+                new ShippingScheduledEvent("s-" + orderId, time.plusMinutes(2), orderId, time.plusDays(1)),
+                new OrderCancelledEvent("x-" + orderId, time.plusMinutes(3), orderId, "Changed mind"));
+    }
+
+    @Test
+    public void testRecoverFromSnapshotAndLogTail() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0, 0, 123_456_789);
+        try (DurableEventProcessor durable = open(10)) {
+            for (int i = 0; i < 7; i++) {
+                for (Event event : eventsFor("ORD" + i, time)) {
+                    durable.processEvent(event);
+                }
+            }
+        }
+
+        try (DurableEventProcessor recovered = open(10)) {
+            // 28 events with a snapshot every 10: only the last 8 are replayed
+            assertEquals(8, recovered.recover());
+
+            Order order = recovered.getProcessor().getOrders().get("ORD6");
+            assertEquals(OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(4, order.getEventHistory().size());
+            assertEquals(7, recovered.getProcessor().getOrders().size());
+
+            OrderCreatedEvent created = (OrderCreatedEvent) recovered.getProcessor()
+                    .getOrders().get("ORD0").getEventHistory().get(0);
+            assertEquals(time, created.getTimestamp());
+            assertEquals("P001", created.getItems().get(0).getItemId());
+            assertEquals(2, created.getItems().get(0).getQuantity());
+            assertEquals(100.0, created.getTotalAmount(), 0.001);
+        }
+    }
+
+    @Test
+    public void testRecoverFallsBackToOlderSnapshotWithItsLog() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        try (DurableEventProcessor durable = open(10)) {
+            for (int i = 0; i < 7; i++) {
+                for (Event event : eventsFor("ORD" + i, time)) {
+                    durable.processEvent(event);
+                }
+            }
+        }
+
+        Path newest;
+        try (Stream<Path> files = Files.list(directory.resolve("snapshots"))) {
+            List<Path> snapshots = files.sorted().collect(Collectors.toList());
+            assertEquals(2, snapshots.size());
+            newest = snapshots.get(1);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(newest.toFile(), "rw")) {
+            file.seek(file.length() / 2);
+            int b = file.read();
+            file.seek(file.length() / 2);
+            file.write(b ^ 0xFF);
+        }
+
+        try (DurableEventProcessor recovered = open(10)) {
+            // The older snapshot covers 10 events, so the other 18 are replayed
+            assertEquals(18, recovered.recover());
+            assertEquals(7, recovered.getProcessor().getOrders().size());
+            assertEquals(OrderStatus.CANCELLED, recovered.getProcessor().getOrders().get("ORD6").getStatus());
+            assertEquals(4, recovered.getProcessor().getOrders().get("ORD2").getEventCount());
+        }
+    }
+
+    @Test
+    public void testEventLogRejectsReplayAcrossGap() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        try (EventLog log = new EventLog(directory.resolve("log"), 256)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(new PaymentReceivedEvent("p" + i, time, "ORD001", i));
+            }
+            assertTrue(log.deleteSegmentsBefore(15) > 0);
+            try {
+                log.replay(0, event -> { });
+                fail("Replaying deleted records must not succeed silently");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Log gap"));
+            }
+        }
+    }
+
+    @Test
+    public void testEventLogTruncatesTornTailAndDeletesOldSegments() throws IOException {
+        Path logDir = directory.resolve("log");
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        try (EventLog log = new EventLog(logDir, 256)) {
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, log.append(new PaymentReceivedEvent("p" + i, time, "ORD001", i)));
+            }
+        }
+
+        Path lastSegment;
+        try (Stream<Path> files = Files.list(logDir)) {
+            List<Path> segments = files.sorted().collect(Collectors.toList());
+            assertTrue("Log should have rolled over", segments.size() > 1);
+            lastSegment = segments.get(segments.size() - 1);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        try (EventLog log = new EventLog(logDir, 256)) {
+            assertEquals(19, log.getNextSequence());
+            assertEquals(19, log.append(new PaymentReceivedEvent("again", time, "ORD001", 1)));
+
+            List<String> ids = new ArrayList<>();
+            assertEquals(5, log.replay(15, event -> ids.add(event.getEventId())));
+            assertEquals(Arrays.asList("p15", "p16", "p17", "p18", "again"), ids);
+
+            assertTrue(log.deleteSegmentsBefore(15) > 0);
+            assertTrue(log.getFirstSequence() > 0);
+            List<String> remaining = new ArrayList<>();
+            log.replay(log.getFirstSequence(), event -> remaining.add(event.getEventId()));
+            assertEquals("again", remaining.get(remaining.size() - 1));
+            assertFalse(remaining.contains("p0"));
+            assertTrue(remaining.contains("p15"));
+        }
+    }
+
+    @Test
+    public void testEventLogRejectsCorruptSealedSegment() throws IOException {
+        Path logDir = directory.resolve("log");
+        LocalDateTime time = LocalDateTime.of(2025, 7, 29, 10, 0);
+        try (EventLog log = new EventLog(logDir, 256)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(new PaymentReceivedEvent("p" + i, time, "ORD001", i));
+            }
+        }
+
+        Path firstSegment;
+        try (Stream<Path> files = Files.list(logDir)) {
+            firstSegment = files.sorted().findFirst().get();
+        }
+        long sealedLength = Files.size(firstSegment);
+        try (RandomAccessFile file = new RandomAccessFile(firstSegment.toFile(), "rw")) {
+            // Flip a payload byte of the second record
+            long position = sealedLength / 2;
+            file.seek(position);
+            int b = file.read();
+            file.seek(position);
+            file.write(b ^ 0xFF);
+        }
+
+        try (EventLog log = new EventLog(logDir, 256)) {
+            assertEquals(20, log.getNextSequence());
+            try {
+                log.replay(0, event -> { });
+                fail("Corruption in a sealed segment must not end replay silently");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("Corrupt record"));
+            }
+        }
+        assertEquals(sealedLength, Files.size(firstSegment));
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.processing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EventDeduplicatorTest {
+
+    @Test
+    public void testDetectsDuplicatesWithinWindow() {
+        EventDeduplicator deduplicator = new EventDeduplicator(10);
+
+        assertFalse(deduplicator.isDuplicate("e1"));
+        assertFalse(deduplicator.isDuplicate("e2"));
+        assertTrue(deduplicator.isDuplicate("e1"));
+        assertTrue(deduplicator.isDuplicate("e2"));
+        assertFalse(deduplicator.isDuplicate(null));
+        assertFalse(deduplicator.isDuplicate(null));
+
+        assertEquals(4, deduplicator.getCheckedCount());
+        assertEquals(2, deduplicator.getDuplicateCount());
+        assertEquals(0.5, deduplicator.getDuplicateRate(), 0.0);
+    }
+
+    @Test
+    public void testMemoryIsBoundedByWindow() {
+        EventDeduplicator deduplicator = new EventDeduplicator(1000);
+        for (int i = 0; i < 50_000; i++) {
+            assertFalse(deduplicator.isDuplicate("event-" + i));
+        }
+        long footprint = deduplicator.getEstimatedMemoryBytes();
+
+        for (int i = 50_000; i < 100_000; i++) {
+            deduplicator.isDuplicate("event-" + i);
+        }
+
+        assertEquals(1000, deduplicator.size());
+        assertEquals(footprint, deduplicator.getEstimatedMemoryBytes(), footprint / 10);
+        // IDs inside the window are still recognised after many evictions
+        assertTrue(deduplicator.isDuplicate("event-99999"));
+        assertTrue(deduplicator.isDuplicate("event-99001"));
+        // Evicted IDs are treated as new again
+        assertFalse(deduplicator.isDuplicate("event-0"));
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.processing;
+
+import org.example.events.Event;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class EventFileTailerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path eventsFile;
+    private Path checkpoint;
+    private List<Event> received;
+
+    @Before
+    public void setUp() {
+        eventsFile = folder.getRoot().toPath().resolve("events.json");
+        checkpoint = folder.getRoot().toPath().resolve("events.offset");
+        received = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    public void testPicksUpAppendedLinesAndWaitsForPartialOnes() throws IOException {
+        try (EventFileTailer tailer = newTailer()) {
+            assertEquals(0, tailer.poll());
+
+            append(created("e1", "ORD001") + "\n" + payment("e2", "ORD001"));
+            assertEquals(1, tailer.poll());
+
+            append("\n" + payment("e3", "ORD001") + "\n");
+            assertEquals(2, tailer.poll());
+            assertEquals(0, tailer.poll());
+        }
+        assertEquals(List.of("e1", "e2", "e3"), eventIds());
+    }
+
+    @Test
+    public void testResumesFromCheckpoint() throws IOException {
+        append(created("e1", "ORD001") + "\n");
+        try (EventFileTailer tailer = newTailer()) {
+            tailer.poll();
+        }
+
+        append(payment("e2", "ORD001") + "\n");
+        try (EventFileTailer tailer = newTailer()) {
+            assertEquals(1, tailer.poll());
+            assertEquals(Files.size(eventsFile), tailer.getOffset());
+        }
+        assertEquals(List.of("e1", "e2"), eventIds());
+    }
+
+    @Test
+    public void testFollowsRenameRotation() throws IOException {
+        try (EventFileTailer tailer = newTailer()) {
+            append(created("e1", "ORD001") + "\n");
+            tailer.poll();
+
+            // Written just before rotation, after the last poll
+            append(payment("e2", "ORD001") + "\n");
+            Files.move(eventsFile, eventsFile.resolveSibling("events.json.1"));
+            append(created("e3", "ORD002") + "\n");
+
+            assertEquals(2, tailer.poll());
+        }
+        assertEquals(List.of("e1", "e2", "e3"), eventIds());
+    }
+
+    @Test
+    public void testRestartsAfterTruncation() throws IOException {
+        try (EventFileTailer tailer = newTailer()) {
+            append(created("e1", "ORD001") + "\n" + payment("e2", "ORD001") + "\n");
+            tailer.poll();
+
+            Files.write(eventsFile, (created("e3", "ORD002") + "\n").getBytes(StandardCharsets.UTF_8));
+            assertEquals(1, tailer.poll());
+        }
+        assertEquals(List.of("e1", "e2", "e3"), eventIds());
+    }
+
+    @Test
+    public void testBackgroundFollowStreamsNewLines() throws Exception {
+        try (EventFileTailer tailer = newTailer()) {
+            tailer.start();
+            append(created("e1", "ORD001") + "\n");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        assertEquals(List.of("e1"), eventIds());
+    }
+
+    @Test
+    public void testStopEndsFollowAndLeavesTheFileToTheFollowingThread() throws Exception {
+        append(created("e1", "ORD001") + "\n");
+        try (EventFileTailer tailer = newTailer()) {
+            Thread follower = new Thread(tailer::follow);
+            follower.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            tailer.stop();
+            follower.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(follower.isAlive());
+            assertEquals(List.of(Long.toString(tailer.getOffset())),
+                    Files.readAllLines(checkpoint, StandardCharsets.UTF_8).subList(0, 1));
+
+            // Still open: the owner can read what arrived before closing
+            append(payment("e2", "ORD001") + "\n");
+            assertEquals(1, tailer.poll());
+        }
+        assertEquals(List.of("e1", "e2"), eventIds());
+    }
+
+    private EventFileTailer newTailer() {
+        return new EventFileTailer(new EventIngestionService(), eventsFile, checkpoint, received::add,
+                20, TimeUnit.MILLISECONDS);
+    }
+
+    private List<String> eventIds() {
+        synchronized (received) {
+            return received.stream().map(Event::getEventId).collect(Collectors.toList());
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(eventsFile, text.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String created(String eventId, String orderId) {
+        return "{\"eventId\":\"" + eventId + "\",\"timestamp\":\"2024-01-01T10:00:00\",\"eventType\":\"OrderCreated\","
+                + "\"orderId\":\"" + orderId + "\",\"customerId\":\"CUST001\","
+                + "\"items\":[{\"itemId\":\"P001\",\"qty\":1}],\"totalAmount\":100.0}";
+    }
+
+    private static String payment(String eventId, String orderId) {
+        return "{\"eventId\":\"" + eventId + "\",\"timestamp\":\"2024-01-01T10:01:00\",\"eventType\":\"PaymentReceived\","
+                + "\"orderId\":\"" + orderId + "\",\"amountPaid\":100.0}";
+    }
+}
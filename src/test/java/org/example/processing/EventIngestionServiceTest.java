@@ -1,14 +1,25 @@
 package org.example.processing;
 
+import org.example.diagnostics.ConsoleDiagnosticSink;
+import org.example.diagnostics.DiagnosticLevel;
+import org.example.diagnostics.DiagnosticSink;
 import org.example.events.*;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.After;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -117,4 +128,168 @@ public class EventIngestionServiceTest {
         assertEquals(1, events.size());
         assertTrue(events.get(0) instanceof PaymentReceivedEvent); // Changed from index 1 to 0
     }
+
+    @Test
+    public void testProblemsAreReportedThroughTheInjectedSink() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("{\"eventId\": \"e1\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"UnknownEvent\", \"orderId\": \"ORD001\"}\n");
+            writer.write("{not json\n");
+        }
+
+        for (EventIngestionService.ParserMode mode : EventIngestionService.ParserMode.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            DiagnosticSink sink = new ConsoleDiagnosticSink(DiagnosticLevel.WARN, new PrintStream(out), new PrintStream(err));
+            EventIngestionService service = new EventIngestionService(mode, sink);
+
+            assertEquals(0, service.readEventsFromFile(testFile.getAbsolutePath(), event -> { }));
+            service.readEventsFromFile(testFile.getAbsolutePath() + ".missing", event -> { });
+
+            assertTrue(mode + ": " + out, out.toString().contains("Unknown event type 'UnknownEvent' for eventId 'e1'"));
+            assertTrue(mode + ": " + err, err.toString().contains("Error parsing event from line: {not json"));
+            assertTrue(mode + ": " + err, err.toString().contains("Error reading file " + testFile.getAbsolutePath() + ".missing"));
+
+            out.reset();
+            err.reset();
+            new EventIngestionService(mode, DiagnosticSink.QUIET).readEventsFromFile(testFile.getAbsolutePath());
+            assertEquals("", out.toString() + err.toString());
+        }
+    }
+
+    @Test
+    public void testReadEventsIntoSink() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("{\"eventId\": \"e1\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"OrderCreated\", \"orderId\": \"ORD001\", \"customerId\": \"CUST001\", \"items\": [{\"itemId\": \"P001\", \"qty\": 1}], \"totalAmount\": 50.0}\n");
+            writer.write("\n");
+            writer.write("{\"eventId\": \"e2\", \"invalidJson\": \n");
+            writer.write("{\"eventId\": \"e3\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD001\", \"amountPaid\": 50.0}\n");
+        }
+
+        List<String> seen = new ArrayList<>();
+        int count = ingestionService.readEventsFromFile(testFile.getAbsolutePath(),
+                event -> seen.add(event.getEventId()));
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("e1", "e3"), seen);
+    }
+
+    @Test
+    public void testStreamEventsFromFile() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("{\"eventId\": \"e1\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"OrderCancelled\", \"orderId\": \"ORD001\", \"reason\": \"Test\"}\n");
+            writer.write("{\"eventId\": \"e2\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD002\", \"amountPaid\": 50.0}\n");
+        }
+
+        try (Stream<Event> stream = ingestionService.streamEventsFromFile(testFile.getAbsolutePath())) {
+            List<String> ids = stream.map(Event::getEventId).collect(Collectors.toList());
+            assertEquals(Arrays.asList("e1", "e2"), ids);
+        }
+
+        try (Stream<Event> stream = ingestionService.streamEventsFromFile("non-existent-file.json")) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    public void testStreamingParserMatchesTreeParser() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("{\"eventId\": \"e1\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"OrderCreated\", \"orderId\": \"ORD001\", \"customerId\": \"CUST001\", \"items\": [{\"itemId\": \"P001\", \"qty\": 2}, {\"itemId\": \"P002\", \"qty\": 1}], \"totalAmount\": 100.0}\n");
+            writer.write("{\"eventType\": \"PaymentReceived\", \"amountPaid\": 40.0, \"orderId\": \"ORD001\", \"extra\": {\"nested\": [1, 2]}, \"eventId\": \"e2\", \"timestamp\": \"2025-07-29T10:05:00Z\"}\n");
+            writer.write("{\"eventId\": \"e3\", \"timestamp\": \"2025-07-29T10:10:00Z\", \"eventType\": \"ShippingScheduled\", \"orderId\": \"ORD001\", \"shippingDate\": \"2025-07-30T09:00:00Z\"}\n");
+            writer.write("{\"eventId\": \"e4\", \"timestamp\": \"2025-07-29T10:15:00Z\", \"eventType\": \"OrderCancelled\", \"orderId\": \"ORD001\", \"reason\": \"Test cancellation\"}\n");
+            writer.write("{\"eventId\": \"e5\", \"timestamp\": \"2025-07-29T10:20:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD001\"}\n");
+        }
+
+        List<Event> treeEvents = ingestionService.readEventsFromFile(testFile.getAbsolutePath());
+        List<Event> streamedEvents = new EventIngestionService(EventIngestionService.ParserMode.STREAMING)
+                .readEventsFromFile(testFile.getAbsolutePath());
+
+        // The event missing amountPaid is rejected by both parsers
+        assertEquals(4, treeEvents.size());
+        assertEquals(4, streamedEvents.size());
+
+        OrderCreatedEvent created = (OrderCreatedEvent) streamedEvents.get(0);
+        OrderCreatedEvent treeCreated = (OrderCreatedEvent) treeEvents.get(0);
+        assertEquals(treeCreated.getTimestamp(), created.getTimestamp());
+        assertEquals("CUST001", created.getCustomerId());
+        assertEquals(2, created.getItems().size());
+        assertEquals("P002", created.getItems().get(1).getItemId());
+        assertEquals(2, created.getItems().get(0).getQuantity());
+        assertEquals(100.0, created.getTotalAmount(), 0.01);
+
+        PaymentReceivedEvent payment = (PaymentReceivedEvent) streamedEvents.get(1);
+        assertEquals("e2", payment.getEventId());
+        assertEquals(40.0, payment.getAmountPaid(), 0.01);
+
+        ShippingScheduledEvent shipping = (ShippingScheduledEvent) streamedEvents.get(2);
+        assertEquals(((ShippingScheduledEvent) treeEvents.get(2)).getShippingDate(), shipping.getShippingDate());
+
+        OrderCancelledEvent cancelled = (OrderCancelledEvent) streamedEvents.get(3);
+        assertEquals("Test cancellation", cancelled.getReason());
+    }
+
+    @Test
+    public void testParallelReadPreservesFileOrder() throws Exception {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            for (int i = 0; i < 200; i++) {
+                if (i % 50 == 7) {
+                    writer.write("{\"eventId\": \"broken\", \r\n");
+                }
+                writer.write(String.format("{\"eventId\": \"e%d\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD%03d\", \"amountPaid\": %d.0}", i, i % 10, i));
+                writer.write(i % 3 == 0 ? "\r\n" : "\n");
+            }
+            // Final line without a trailing newline
+            writer.write("{\"eventId\": \"last\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"OrderCancelled\", \"orderId\": \"ORD001\", \"reason\": \"Test\"}");
+        }
+
+        List<String> expected = new ArrayList<>();
+        ingestionService.readEventsFromFile(testFile.getAbsolutePath(), event -> expected.add(event.getEventId()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> actual = new ArrayList<>();
+            ParallelEventReader reader = new ParallelEventReader(ingestionService, executor, 64, 3);
+            int count = reader.readEvents(testFile.getAbsolutePath(), event -> actual.add(event.getEventId()));
+
+            assertEquals(201, count);
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> defaults = new ArrayList<>();
+        ingestionService.readEventsFromFileParallel(testFile.getAbsolutePath(), event -> defaults.add(event.getEventId()));
+        assertEquals(expected, defaults);
+    }
+
+    @Test
+    public void testMappedReadAcrossWindows() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("{\"eventId\": \"e0\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"OrderCreated\", \"orderId\": \"ORD000\", \"customerId\": \"CUST000\", \"items\": [{\"itemId\": \"P001\", \"qty\": 2}, {\"itemId\": \"P002\", \"qty\": 1}, {\"itemId\": \"P003\", \"qty\": 4}], \"totalAmount\": 100.0}\n");
+            for (int i = 1; i < 50; i++) {
+                if (i == 20) {
+                    writer.write("  \r\n{not json}\n");
+                }
+                writer.write(String.format("{\"eventId\": \"e%d\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD000\", \"amountPaid\": %d.0}\r\n", i, i));
+            }
+            writer.write("{\"eventId\": \"last\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"OrderCancelled\", \"orderId\": \"ORD000\", \"reason\": \"Test\"}");
+        }
+
+        List<String> expected = new ArrayList<>();
+        ingestionService.readEventsFromFile(testFile.getAbsolutePath(), event -> expected.add(event.getEventId()));
+
+        // A window smaller than the first line forces both remapping and window growth
+        List<String> actual = new ArrayList<>();
+        int count = new MappedEventReader(ingestionService, 100)
+                .readEvents(testFile.getAbsolutePath(), event -> actual.add(event.getEventId()));
+
+        assertEquals(51, count);
+        assertEquals(expected, actual);
+
+        List<Event> streamed = new ArrayList<>();
+        new EventIngestionService(EventIngestionService.ParserMode.STREAMING)
+                .readEventsFromFileMapped(testFile.getAbsolutePath(), streamed::add);
+        assertEquals(51, streamed.size());
+        assertEquals(3, ((OrderCreatedEvent) streamed.get(0)).getItems().size());
+    }
 }
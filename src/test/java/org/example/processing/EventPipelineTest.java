@@ -0,0 +1,159 @@
+package org.example.processing;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderStatus;
+import org.example.events.Event;
+import org.example.observers.OrderObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class EventPipelineTest {
+    private File testFile;
+
+    @Before
+    public void setUp() throws IOException {
+        testFile = File.createTempFile("pipeline-events", ".json");
+        try (FileWriter writer = new FileWriter(testFile)) {
+            for (int i = 0; i < 20; i++) {
+                writer.write(String.format("{\"eventId\": \"c%d\", \"timestamp\": \"2025-07-29T10:00:00Z\", \"eventType\": \"OrderCreated\", \"orderId\": \"ORD%d\", \"customerId\": \"CUST001\", \"items\": [{\"itemId\": \"P001\", \"qty\": 1}], \"totalAmount\": 100.0}%n", i, i));
+                writer.write(String.format("{\"eventId\": \"p%d\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD%d\", \"amountPaid\": 100.0}%n", i, i));
+            }
+            writer.write("{broken\n");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        testFile.delete();
+    }
+
+    @Test
+    public void testPipelineDrainsThroughSlowObserver() throws InterruptedException {
+        EventProcessor processor = new EventProcessor();
+        EventPipeline pipeline = new EventPipeline(new EventIngestionService(), processor,
+                2, Executors.defaultThreadFactory());
+
+        List<String> delivered = new ArrayList<>();
+        pipeline.addObserver(new OrderObserver() {
+            @Override
+            public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+                delivered.add(order.getOrderId() + ":" + newStatus);
+            }
+
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.add(event.getEventId());
+            }
+        });
+
+        int processed = pipeline.run(testFile.getAbsolutePath());
+
+        assertEquals(40, processed);
+        assertEquals(60, delivered.size());
+        assertEquals("c0", delivered.get(0));
+        assertEquals("ORD0:PAID", delivered.get(1));
+        assertEquals("p0", delivered.get(2));
+        assertEquals(20, processor.getOrders().size());
+        assertEquals(OrderStatus.PAID, processor.getOrders().get("ORD19").getStatus());
+    }
+
+    @Test(timeout = 10000)
+    public void testPipelineSurvivesFailingObserver() throws InterruptedException {
+        EventProcessor processor = new EventProcessor();
+        EventPipeline pipeline = new EventPipeline(new EventIngestionService(), processor,
+                2, Executors.defaultThreadFactory());
+
+        List<String> delivered = new ArrayList<>();
+        pipeline.addObserver(new OrderObserver() {
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                throw new IllegalStateException("observer failure");
+            }
+        });
+        pipeline.addObserver(new OrderObserver() {
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                delivered.add(event.getEventId());
+            }
+        });
+
+        int processed = pipeline.run(testFile.getAbsolutePath());
+
+        assertEquals(40, processed);
+        assertEquals(40, delivered.size());
+    }
+
+    @Test
+    public void testPipelineWithMissingFile() throws InterruptedException {
+        EventPipeline pipeline = new EventPipeline(new EventIngestionService(), new EventProcessor());
+
+        assertEquals(0, pipeline.run("non-existent-file.json"));
+    }
+
+    @Test
+    public void testPipelineCountsOnlyAppliedEvents() throws IOException, InterruptedException {
+        try (FileWriter writer = new FileWriter(testFile, true)) {
+            writer.write("{\"eventId\": \"p0\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD0\", \"amountPaid\": 1.0}\n");
+            writer.write("{\"eventId\": \"m1\", \"timestamp\": \"2025-07-29T10:05:00Z\", \"eventType\": \"PaymentReceived\", \"orderId\": \"ORD-MISSING\", \"amountPaid\": 1.0}\n");
+        }
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET);
+        processor.setDeduplicator(new EventDeduplicator(64));
+        EventPipeline pipeline = new EventPipeline(new EventIngestionService(EventIngestionService.ParserMode.TREE,
+                DiagnosticSink.QUIET), processor);
+
+        assertEquals(40, pipeline.run(testFile.getAbsolutePath()));
+    }
+
+    @Test(timeout = 10000)
+    public void testPipelineEndsWhenAStageFails() throws InterruptedException {
+        EventProcessor processor = new EventProcessor(DiagnosticSink.QUIET) {
+            @Override
+            public void processEvent(Event event) {
+                if (event.getEventId().equals("c5")) {
+                    throw new IllegalStateException("stage failure");
+                }
+                super.processEvent(event);
+            }
+        };
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setUncaughtExceptionHandler((t, e) -> uncaught.set(e));
+            return thread;
+        };
+        EventPipeline pipeline = new EventPipeline(new EventIngestionService(EventIngestionService.ParserMode.TREE,
+                DiagnosticSink.QUIET), processor, 1, threadFactory);
+
+        List<String> delivered = new ArrayList<>();
+        pipeline.addObserver(new OrderObserver() {
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                delivered.add(event.getEventId());
+            }
+        });
+
+        int processed = pipeline.run(testFile.getAbsolutePath());
+
+        assertEquals(10, processed);
+        assertTrue(delivered.size() <= 10);
+        assertEquals("stage failure", uncaught.get().getMessage());
+    }
+}
@@ -1,14 +1,24 @@
 package org.example.processing;
 
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.HistoryRetention;
 import org.example.domain.Order;
 import org.example.domain.OrderItem;
 import org.example.domain.OrderStatus;
 import org.example.events.*;
+import org.example.observers.AlertObserver;
+import org.example.observers.BatchOrderObserver;
+import org.example.observers.LoggerObserver;
 import org.example.observers.OrderObserver;
+import org.example.store.HashMapOrderStore;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -27,6 +37,43 @@ public class EventProcessorTest {
         processor.addObserver(testObserver);
     }
 
+    @Test
+    public void testQuietProcessingDoesNotAllocatePerEvent() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        // Bounded history, so a recorded event does not grow any domain object
+        EventProcessor quiet = new EventProcessor(DiagnosticSink.QUIET);
+        quiet.setHistoryRetention(HistoryRetention.keepLast(8));
+        quiet.addObserver(new LoggerObserver(DiagnosticSink.QUIET));
+        quiet.addObserver(new AlertObserver(DiagnosticSink.QUIET));
+        quiet.processEvent(new OrderCreatedEvent("e0", LocalDateTime.now(), "ORD001", "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 1_000_000.0));
+
+        int eventCount = 10_000;
+        List<Event> payments = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            payments.add(new PaymentReceivedEvent("p" + i, LocalDateTime.now(), "ORD001", 1.0));
+        }
+        for (int round = 0; round < 5; round++) {
+            payments.forEach(quiet::processEvent);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < payments.size(); i++) {
+            quiet.processEvent(payments.get(i));
+        }
+        long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+
+        // Less than a byte per event: one stray allocation in the loop would exceed it
+        assertTrue("Allocated " + allocated + " bytes for " + eventCount + " events",
+                allocated < eventCount);
+    }
+
     @Test
     public void testOrderCreation() {
         List<OrderItem> items = Arrays.asList(new OrderItem("P001", 2));
@@ -169,6 +216,138 @@ public class EventProcessorTest {
                 testObserver.eventProcessedCount.get() > 0);
     }
 
+    @Test
+    public void testRedeliveredEventIsSkippedWithDeduplicator() {
+        processor.setDeduplicator(new EventDeduplicator(100));
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+        processor.processEvent(new OrderCreatedEvent("e1", LocalDateTime.now(), "ORD010", "CUST010", items, 100.0));
+
+        PaymentReceivedEvent payment = new PaymentReceivedEvent("e2", LocalDateTime.now(), "ORD010", 40.0);
+        processor.processEvent(payment);
+        processor.processEvent(payment);
+
+        Order order = processor.getOrders().get("ORD010");
+        assertEquals(2, order.getEventHistory().size());
+        assertEquals(2, testObserver.eventProcessedCount.get());
+        assertEquals(1, processor.getDeduplicator().getDuplicateCount());
+    }
+
+    @Test
+    public void testDeduplicatorOnlyRemembersAppliedEvents() {
+        processor.setDeduplicator(new EventDeduplicator(100));
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+        LocalDateTime now = LocalDateTime.now();
+
+        // The payment arrives before its order and is redelivered once the order exists
+        PaymentReceivedEvent payment = new PaymentReceivedEvent("e2", now, "ORD011", 100.0);
+        processor.processEvent(payment);
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD011", "CUST011", items, 100.0));
+        processor.processEvent(payment);
+        assertEquals(OrderStatus.PAID, processor.getOrder("ORD011").getStatus());
+
+        PaymentReceivedEvent repeated = new PaymentReceivedEvent("e3", now, "ORD011", 100.0);
+        processor.processBatch(Arrays.asList(repeated, repeated));
+        assertEquals(3, processor.getOrder("ORD011").getEventCount());
+        assertEquals(1, processor.getDeduplicator().getDuplicateCount());
+    }
+
+    @Test
+    public void testStatusAndCustomerIndexesFollowStatusChanges() {
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+        LocalDateTime now = LocalDateTime.now();
+        processor.processEvent(new OrderCreatedEvent("e1", now, "ORD101", "CUST-A", items, 100.0));
+        processor.processEvent(new OrderCreatedEvent("e2", now, "ORD102", "CUST-A", items, 100.0));
+        processor.processEvent(new OrderCreatedEvent("e3", now, "ORD103", "CUST-B", items, 100.0));
+        assertEquals(3, processor.countOrdersByStatus(OrderStatus.PENDING));
+
+        processor.processEvent(new PaymentReceivedEvent("e4", now, "ORD101", 40.0));
+        processor.processEvent(new PaymentReceivedEvent("e5", now, "ORD102", 40.0));
+        processor.processEvent(new ShippingScheduledEvent("e6", now, "ORD102", now.plusDays(1)));
+        processor.processEvent(new OrderCancelledEvent("e7", now, "ORD103", "Out of stock"));
+
+        assertEquals(1, processor.countOrdersByStatus(OrderStatus.PARTIALLY_PAID));
+        assertEquals("ORD101", processor.getOrdersByStatus(OrderStatus.PARTIALLY_PAID).get(0).getOrderId());
+        assertEquals("ORD102", processor.getOrdersByStatus(OrderStatus.SHIPPED).get(0).getOrderId());
+        assertEquals("ORD103", processor.getOrdersByStatus(OrderStatus.CANCELLED).get(0).getOrderId());
+        assertTrue(processor.getOrdersByStatus(OrderStatus.PENDING).isEmpty());
+
+        assertEquals(2, processor.getOrdersForCustomer("CUST-A").size());
+        assertEquals(1, processor.getOrdersForCustomer("CUST-B").size());
+        assertTrue(processor.getOrdersForCustomer("CUST-C").isEmpty());
+
+        // Re-creating an order replaces its index entries
+        processor.processEvent(new OrderCreatedEvent("e8", now, "ORD103", "CUST-C", items, 50.0));
+        assertTrue(processor.getOrdersForCustomer("CUST-B").isEmpty());
+        assertEquals(OrderStatus.PENDING, processor.getOrdersForCustomer("CUST-C").get(0).getStatus());
+        assertTrue(processor.getOrdersByStatus(OrderStatus.CANCELLED).isEmpty());
+    }
+
+    @Test
+    public void testProcessBatchGroupsByOrderAndLooksUpEachOrderOnce() {
+        AtomicInteger lookups = new AtomicInteger();
+        HashMapOrderStore store = new HashMapOrderStore() {
+            @Override
+            public Order get(String orderId) {
+                lookups.incrementAndGet();
+                return super.get(orderId);
+            }
+        };
+        EventProcessor batchProcessor = new EventProcessor(DiagnosticSink.QUIET, store);
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+        LocalDateTime now = LocalDateTime.now();
+        batchProcessor.processEvent(new OrderCreatedEvent("e0", now, "ORD201", "CUST-A", items, 100.0));
+        lookups.set(0);
+
+        batchProcessor.processBatch(Arrays.asList(
+                new PaymentReceivedEvent("e1", now, "ORD201", 40.0),
+                new OrderCreatedEvent("e2", now, "ORD202", "CUST-B", items, 80.0),
+                new PaymentReceivedEvent("e3", now, "ORD201", 100.0),
+                new ShippingScheduledEvent("e4", now, "ORD201", now.plusDays(1)),
+                new OrderCancelledEvent("e5", now, "ORD202", "Changed mind"),
+                new PaymentReceivedEvent("e6", now, "ORD999", 10.0)));
+
+        // One lookup per order
+        assertEquals(3, lookups.get());
+        assertEquals(OrderStatus.SHIPPED, batchProcessor.getOrder("ORD201").getStatus());
+        assertEquals(4, batchProcessor.getOrder("ORD201").getEventCount());
+        assertEquals(OrderStatus.CANCELLED, batchProcessor.getOrder("ORD202").getStatus());
+        assertEquals(1, batchProcessor.countOrdersByStatus(OrderStatus.SHIPPED));
+        assertEquals(1, batchProcessor.countOrdersByStatus(OrderStatus.CANCELLED));
+        assertEquals(0, batchProcessor.countOrdersByStatus(OrderStatus.PENDING));
+    }
+
+    @Test
+    public void testProcessBatchDeliversRunsToBatchObservers() {
+        List<String> calls = new ArrayList<>();
+        processor.addObserver(new BatchOrderObserver() {
+            @Override
+            public void onEventsProcessed(List<ProcessedEvent> events) {
+                StringBuilder ids = new StringBuilder("events");
+                for (ProcessedEvent processed : events) {
+                    ids.append(' ').append(processed.getEvent().getEventId());
+                }
+                calls.add(ids.toString());
+            }
+
+            @Override
+            public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+                calls.add(previousStatus + "->" + newStatus);
+            }
+        });
+        List<OrderItem> items = Arrays.asList(new OrderItem("P001", 1));
+        LocalDateTime now = LocalDateTime.now();
+
+        processor.processBatch(Arrays.asList(
+                new OrderCreatedEvent("e1", now, "ORD301", "CUST-A", items, 100.0),
+                new OrderCreatedEvent("e2", now, "ORD302", "CUST-A", items, 100.0),
+                new PaymentReceivedEvent("e3", now, "ORD301", 100.0)));
+
+        // ORD301's events are grouped ahead of ORD302's
+        assertEquals(Arrays.asList("events e1", "PENDING->PAID", "events e3 e2"), calls);
+        assertEquals(3, testObserver.eventProcessedCount.get());
+        assertEquals(1, testObserver.statusChangeCount.get());
+    }
+
     // Test helper class
     private static class TestObserver implements OrderObserver {
         AtomicInteger statusChangeCount = new AtomicInteger(0);
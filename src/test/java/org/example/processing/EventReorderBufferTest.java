@@ -0,0 +1,121 @@
+package org.example.processing;
+
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventReorderBufferTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private EventProcessor processor;
+    private List<String> deadLetters;
+    private long now;
+    private EventReorderBuffer buffer;
+
+    @Before
+    public void setUp() {
+        processor = new EventProcessor();
+        deadLetters = new ArrayList<>();
+        buffer = new EventReorderBuffer(processor,
+                (event, reason) -> deadLetters.add(event.getEventId() + ":" + reason),
+                3, 10, TimeUnit.SECONDS, () -> now);
+    }
+
+    @Test
+    public void testEarlyEventsReleasedInTimestampOrderOnCreate() {
+        buffer.processEvent(new ShippingScheduledEvent("e3", T0.plusMinutes(2), "ORD001", T0.plusDays(1)));
+        buffer.processEvent(new PaymentReceivedEvent("e2", T0.plusMinutes(1), "ORD001", 100.0));
+        assertEquals(2, buffer.getParkedCount());
+        assertNull(processor.getOrder("ORD001"));
+
+        buffer.processEvent(created("e1", "ORD001"));
+
+        assertEquals(0, buffer.getParkedCount());
+        assertEquals(2, buffer.getReleasedCount());
+        assertEquals(OrderStatus.SHIPPED, processor.getOrder("ORD001").getStatus());
+        assertEquals(3, processor.getOrder("ORD001").getEventHistory().size());
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    public void testParkedEventsOrphanedWhenCreateFails() {
+        buffer.processEvent(new PaymentReceivedEvent("e2", T0.plusMinutes(1), "ORD001", 100.0));
+        buffer.processEvent(new PaymentReceivedEvent("e3", T0.plusMinutes(2), "ORD002", 100.0));
+
+        // Without items the order cannot be built, so the create is reported and skipped
+        buffer.processEvent(new OrderCreatedEvent("e1", T0, "ORD001", "CUST001", null, 100.0));
+
+        assertNull(processor.getOrder("ORD001"));
+        assertEquals(1, buffer.getParkedCount());
+        assertEquals(0, buffer.getReleasedCount());
+        assertEquals(Arrays.asList("e2:ORPHANED"), deadLetters);
+
+        buffer.processEvent(created("e4", "ORD002"));
+        assertEquals(OrderStatus.PAID, processor.getOrder("ORD002").getStatus());
+        assertEquals(1, buffer.getReleasedCount());
+    }
+
+    @Test
+    public void testEventsForKnownOrdersPassThrough() {
+        buffer.processEvent(created("e1", "ORD001"));
+        buffer.processEvent(new PaymentReceivedEvent("e2", T0.plusMinutes(1), "ORD001", 100.0));
+
+        assertEquals(0, buffer.getParkedCount());
+        assertEquals(OrderStatus.PAID, processor.getOrder("ORD001").getStatus());
+    }
+
+    @Test
+    public void testParkedEventsExpireToDeadLetters() {
+        buffer.processEvent(new PaymentReceivedEvent("e1", T0, "ORD001", 100.0));
+        now = TimeUnit.SECONDS.toNanos(5);
+        buffer.processEvent(new PaymentReceivedEvent("e2", T0, "ORD002", 50.0));
+
+        now = TimeUnit.SECONDS.toNanos(10);
+        buffer.expireParked();
+
+        assertEquals(Arrays.asList("e1:EXPIRED"), deadLetters);
+        assertEquals(1, buffer.getParkedCount());
+
+        // A create arriving after expiry no longer sees the expired payment
+        buffer.processEvent(created("c1", "ORD001"));
+        assertEquals(OrderStatus.PENDING, processor.getOrder("ORD001").getStatus());
+    }
+
+    @Test
+    public void testOldestParkedEventEvictedWhenFull() {
+        buffer.processEvent(new PaymentReceivedEvent("e1", T0, "ORD001", 10.0));
+        buffer.processEvent(new PaymentReceivedEvent("e2", T0, "ORD002", 10.0));
+        buffer.processEvent(new PaymentReceivedEvent("e3", T0, "ORD001", 10.0));
+        buffer.processEvent(new PaymentReceivedEvent("e4", T0, "ORD003", 10.0));
+
+        assertEquals(Arrays.asList("e1:EVICTED"), deadLetters);
+        assertEquals(3, buffer.getParkedCount());
+        assertEquals(1, buffer.getDeadLetterCount());
+    }
+
+    @Test
+    public void testFlushDeadLettersEverythingStillParked() {
+        buffer.processEvent(new PaymentReceivedEvent("e1", T0, "ORD001", 10.0));
+        buffer.processEvent(new OrderCancelledEvent("e2", T0, "ORD002", "changed mind"));
+
+        buffer.flush();
+
+        assertEquals(Arrays.asList("e1:UNRESOLVED", "e2:UNRESOLVED"), deadLetters);
+        assertEquals(0, buffer.getParkedCount());
+    }
+
+    private static OrderCreatedEvent created(String eventId, String orderId) {
+        return new OrderCreatedEvent(eventId, T0, orderId, "CUST001",
+                Arrays.asList(new OrderItem("P001", 1)), 100.0);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.processing;
+
+import org.example.events.Event;
+import org.example.events.ShippingScheduledEvent;
+import org.example.handlers.EventHandlerRegistry;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.Assert.*;
+
+public class IsoTimestampParserTest {
+
+    @Test
+    public void testMatchesJdkFormatter() {
+        IsoTimestampParser parser = new IsoTimestampParser();
+        String[] timestamps = {
+                "2025-07-29T10:00:00Z", "2025-07-29T10:00:01Z", "2025-07-29T23:59:59.999999999Z",
+                "2025-07-30T00:00", "2025-07-30T08:15:30", "2025-07-30T08:15:30.5", "2025-07-30T08:15:30.123456",
+                "2025-07-30T08:15:30+02:00", "2025-07-30T08:15:30.25-05:30", "2024-02-29T12:00:00Z",
+                "1969-12-31T23:59:59.999999Z", "0001-01-01T00:00:00Z",
+                // Not in the fast-path layouts: handled by the JDK formatter
+                "2025-07-30t08:15:30z", "2025-07-30T08:15:30+02:00[Europe/Paris]", "2025-07-30T08:15:30+0200",
+                "+12025-07-30T08:15:30Z", "2025-07-30T08:15:30.Z", "2025-07-30T08:15:30.1234567891Z", "2025-07-30T08:15:30+02:00:30"
+        };
+        for (String timestamp : timestamps) {
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_DATE_TIME);
+            } catch (DateTimeParseException e) {
+                assertRejected(parser, timestamp);
+                continue;
+            }
+            assertEquals(timestamp, expected, parser.parse(timestamp));
+            assertEquals(timestamp, Event.toEpochMicros(expected), parser.parseEpochMicros(timestamp));
+        }
+    }
+
+    @Test
+    public void testInvalidTimestampsAreRejected() {
+        IsoTimestampParser parser = new IsoTimestampParser();
+        parser.parse("2025-02-28T10:00:00Z");
+        String[] invalid = {
+                "2025-02-29T10:00:00Z", "2025-13-01T10:00:00Z", "2025-02-28T24:00:00Z", "2025-02-28T10:60:00Z",
+                "2025-02-28T10:00:60Z", "2025-02-28T10:00:00+19:00", "2025-02-28",
+                "2025-02-28T10", "garbage-that-is-long-enough"
+        };
+        for (String timestamp : invalid) {
+            assertRejected(parser, timestamp);
+        }
+    }
+
+    @Test
+    public void testParsersCarryEpochMicrosWhenAsked() throws IOException {
+        String json = "{\"eventId\":\"e1\",\"timestamp\":\"2025-07-29T10:00:00.123456Z\",\"eventType\":\"ShippingScheduled\","
+                + "\"orderId\":\"ORD001\",\"shippingDate\":\"2025-08-01T09:30:00Z\"}";
+        LocalDateTime expected = LocalDateTime.of(2025, 7, 29, 10, 0, 0, 123_456_000);
+
+        TreeEventParser tree = new TreeEventParser();
+        tree.setTimestampMode(EventParser.TimestampMode.EPOCH_MICROS);
+        StreamingEventParser streaming = new StreamingEventParser(new JsonFactory(), EventHandlerRegistry.getDefault());
+        streaming.setTimestampMode(EventParser.TimestampMode.EPOCH_MICROS);
+
+        for (EventParser parser : new EventParser[] {tree, streaming, new TreeEventParser()}) {
+            ShippingScheduledEvent event = (ShippingScheduledEvent) parser.parse(json);
+            assertEquals(Event.toEpochMicros(expected), event.getEpochMicros());
+            assertEquals(expected, event.getTimestamp());
+            assertEquals(LocalDateTime.of(2025, 8, 1, 9, 30), event.getShippingDate());
+        }
+    }
+
+    private static void assertRejected(IsoTimestampParser parser, String timestamp) {
+        try {
+            parser.parse(timestamp);
+            fail("Accepted " + timestamp);
+        } catch (DateTimeParseException expected) {
+            // Reported by the JDK formatter
+        }
+        try {
+            parser.parseEpochMicros(timestamp);
+            fail("Accepted " + timestamp);
+        } catch (DateTimeParseException expected) {
+            // Reported by the JDK formatter
+        }
+    }
+}
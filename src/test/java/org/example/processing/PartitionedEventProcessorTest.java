@@ -0,0 +1,130 @@
+package org.example.processing;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.*;
+import org.example.observers.OrderObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PartitionedEventProcessorTest {
+    private PartitionedEventProcessor processor;
+
+    @Before
+    public void setUp() {
+        processor = new PartitionedEventProcessor(4, 16);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        processor.close();
+    }
+
+    @Test
+    public void testPerOrderOrderingAcrossPartitions() throws InterruptedException {
+        AtomicInteger processed = new AtomicInteger();
+        processor.addObserver(new OrderObserver() {
+            @Override
+            public void onOrderStatusChanged(Order order, String previousStatus, String newStatus) {
+            }
+
+            @Override
+            public void onEventProcessed(Event event, Order order) {
+                processed.incrementAndGet();
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 100; i++) {
+            String orderId = "ORD" + i;
+            processor.submit(new OrderCreatedEvent("c" + i, now, orderId, "CUST" + i,
+                    Arrays.asList(new OrderItem("P001", 1)), 100.0));
+            processor.submit(new PaymentReceivedEvent("p" + i, now, orderId, 100.0));
+            if (i % 2 == 0) {
+                processor.submit(new ShippingScheduledEvent("s" + i, now, orderId, now.plusDays(1)));
+            } else {
+                processor.submit(new OrderCancelledEvent("x" + i, now, orderId, "Test"));
+            }
+        }
+        processor.drain();
+
+        assertEquals(300, processed.get());
+        Map<String, Order> orders = processor.getOrders();
+        assertEquals(100, orders.size());
+        for (int i = 0; i < 100; i++) {
+            Order order = orders.get("ORD" + i);
+            assertEquals(i % 2 == 0 ? OrderStatus.SHIPPED : OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(3, order.getEventHistory().size());
+        }
+    }
+
+    @Test
+    public void testDrainWithoutEvents() throws InterruptedException {
+        processor.drain();
+        assertTrue(processor.getOrders().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testObserversCannotBeAddedAfterStart() throws InterruptedException {
+        processor.drain();
+        processor.addObserver(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitAfterClose() throws InterruptedException {
+        processor.close();
+        processor.submit(new PaymentReceivedEvent("p1", LocalDateTime.now(), "ORD1", 10.0));
+    }
+
+    @Test
+    public void testSubmitAndDrainRacingCloseNeverHang() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            PartitionedEventProcessor racing = new PartitionedEventProcessor(2, 1, DiagnosticSink.QUIET);
+            racing.drain();
+            AtomicInteger finished = new AtomicInteger();
+            AtomicBoolean unexpected = new AtomicBoolean();
+            List<Thread> clients = new ArrayList<>();
+            for (int c = 0; c < 4; c++) {
+                boolean drainer = c == 0;
+                clients.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; ; i++) {
+                            if (drainer) {
+                                racing.drain();
+                            } else {
+                                racing.submit(new PaymentReceivedEvent("p" + i, LocalDateTime.now(), "ORD" + i, 1.0));
+                            }
+                        }
+                    } catch (IllegalStateException e) {
+                        finished.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        unexpected.set(true);
+                    }
+                }));
+            }
+            clients.forEach(Thread::start);
+            Thread.sleep(2);
+            racing.close();
+            for (Thread client : clients) {
+                client.join(TimeUnit.SECONDS.toMillis(5));
+                assertFalse("Client still blocked after close", client.isAlive());
+            }
+            assertFalse(unexpected.get());
+            assertEquals(clients.size(), finished.get());
+        }
+    }
+}
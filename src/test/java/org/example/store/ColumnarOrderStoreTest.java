@@ -0,0 +1,99 @@
+package org.example.store;
+
+import org.example.diagnostics.DiagnosticSink;
+import org.example.domain.Order;
+import org.example.domain.OrderItem;
+import org.example.domain.OrderStatus;
+import org.example.events.*;
+import org.example.processing.EventProcessor;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ColumnarOrderStoreTest {
+
+    @Test
+    public void testProcessorProducesSameOrdersAsDefaultStore() {
+        EventProcessor columnar = new EventProcessor(DiagnosticSink.QUIET, new ColumnarOrderStore(4));
+        EventProcessor standard = new EventProcessor(DiagnosticSink.QUIET);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 100; i++) {
+            String orderId = "ORD-" + i;
+            Event[] events = {
+                    new OrderCreatedEvent("c" + i, now, orderId, "CUST-" + (i % 7),
+                            Arrays.asList(new OrderItem("ITEM-" + i, i + 1)), 100.0 + i),
+                    new PaymentReceivedEvent("p" + i, now, orderId, i % 2 == 0 ? 100.0 + i : 10.0),
+                    i % 3 == 0
+                            ? new OrderCancelledEvent("x" + i, now, orderId, "changed mind")
+                            : new ShippingScheduledEvent("s" + i, now, orderId, now.plusDays(1))
+            };
+            for (Event event : events) {
+                columnar.processEvent(event);
+                standard.processEvent(event);
+            }
+        }
+
+        Map<String, Order> expected = standard.getOrders();
+        Map<String, Order> actual = columnar.getOrders();
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Order order : expected.values()) {
+            Order stored = actual.get(order.getOrderId());
+            assertEquals(order.toString(), stored.toString());
+            assertEquals(order.getEventHistory(), stored.getEventHistory());
+        }
+    }
+
+    @Test
+    public void testStatusChangesRequireUpdate() {
+        ColumnarOrderStore store = new ColumnarOrderStore();
+        store.put(new Order("ORD-1", "CUST-1", Collections.emptyList(), 50.0));
+
+        Order view = store.get("ORD-1");
+        view.setStatus(OrderStatus.PAID);
+        view.addEventToHistory(new PaymentReceivedEvent("p1", LocalDateTime.now(), "ORD-1", 50.0));
+        assertEquals(OrderStatus.PENDING, store.get("ORD-1").getStatus());
+        assertEquals(1, store.get("ORD-1").getEventHistory().size());
+
+        store.update(view);
+        assertEquals(OrderStatus.PAID, store.get("ORD-1").getStatus());
+        assertNull(store.get("ORD-2"));
+    }
+
+    @Test
+    public void testCustomerIdsAreInterned() {
+        ColumnarOrderStore store = new ColumnarOrderStore(16);
+        for (int i = 0; i < 10_000; i++) {
+            store.put(new Order("ORD-" + i, "CUST-" + (i % 10), Collections.emptyList(), i));
+        }
+
+        assertEquals(10_000, store.size());
+        assertEquals(10, store.getCustomerCount());
+        assertEquals("CUST-3", store.get("ORD-9993").getCustomerId());
+        assertEquals(9993.0, store.get("ORD-9993").getTotalAmount(), 0.0);
+        assertTrue(store.getColumnBytes() < 10_000L * 2 * ColumnarOrderStore.ROW_BYTES);
+    }
+
+    @Test
+    public void testStructuredAndOtherOrderIdsAreBothFound() {
+        ColumnarOrderStore store = new ColumnarOrderStore(4);
+        String[] orderIds = {"ORD001", "ORD01", "ORD-1", "order-1", "ORD1A", "CUST7"};
+        for (String orderId : orderIds) {
+            store.put(new Order(orderId, "CUST-1", Collections.emptyList(), orderId.length()));
+        }
+
+        assertEquals(orderIds.length, store.size());
+        for (String orderId : orderIds) {
+            assertEquals(orderId, store.get(orderId).getOrderId());
+            assertEquals(orderId.length(), store.get(orderId).getTotalAmount(), 0.0);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(orderIds)), store.toMap().keySet());
+        assertNull(store.get("ORD0001"));
+    }
+}